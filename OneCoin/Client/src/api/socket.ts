@@ -123,17 +123,23 @@ export const exitClient = () => {
 };
 export const coinDataSubscribe: T = (coinData, setCoinData) => {
 	client.subscribe('/info/upbit', (msg) => {
+		// 서버는 바뀐 마켓만 보내므로 받지 못한 마켓은 이전 값을 유지한다.
 		const data = JSON.parse(msg.body).data;
-		const newCoinData = [...coinData].map((v) => {
-			const ticker = data.ticker.filter(
-				(tic: Ticker) => tic.code === v.code
-			)[0];
-			const orderBook = data.orderBook.filter(
-				(order: OrderBook) => order.code === v.code
-			)[0];
-			const obj = { ...v, ticker, orderBook };
-			return obj;
-		});
-		setCoinData(newCoinData);
+		setCoinData((prevCoinData) =>
+			prevCoinData.map((v) => {
+				const ticker = data.ticker.filter(
+					(tic: Ticker) => tic.code === v.code
+				)[0];
+				const orderBook = data.orderBook.filter(
+					(order: OrderBook) => order.code === v.code
+				)[0];
+				const obj = {
+					...v,
+					ticker: ticker ?? v.ticker,
+					orderBook: orderBook ?? v.orderBook,
+				};
+				return obj;
+			})
+		);
 	});
 };
@@ -0,0 +1,35 @@
+package OneCoin.Server.batch.jobs;
+
+import OneCoin.Server.batch.tasklets.LockedAmountTasklet;
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@RequiredArgsConstructor
+public class LockedAmountBatchConfig {
+    private final JobBuilderFactory jobBuilderFactory;
+    private final StepBuilderFactory stepBuilderFactory;
+    private final OrderRepository orderRepository;
+    private final LockedAmountRepository lockedAmountRepository;
+
+    @Bean
+    public Job rebuildLockedAmountJob() {
+        return jobBuilderFactory.get("rebuildLockedAmountJob")
+                .start(rebuildLockedAmountStep())
+                .build();
+    }
+
+    @Bean
+    public Step rebuildLockedAmountStep() {
+        return stepBuilderFactory.get("rebuildLockedAmountStep")
+                .tasklet(new LockedAmountTasklet(orderRepository, lockedAmountRepository))
+                .build();
+    }
+}
@@ -1,10 +1,10 @@
 package OneCoin.Server.batch.scheduler;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobExecutionException;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -12,11 +12,15 @@ import java.time.LocalDateTime;
 import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class ChatMessageBatchScheduler {
     private final Job job;
     private final JobLauncher jobLauncher;
 
+    public ChatMessageBatchScheduler(@Qualifier("saveChatMessageJob") Job job, JobLauncher jobLauncher) {
+        this.job = job;
+        this.jobLauncher = jobLauncher;
+    }
+
     @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.DAYS)
     public void executeJob() {
         try {
@@ -0,0 +1,42 @@
+package OneCoin.Server.batch.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서버가 시작할 때와 하루에 한 번 묶인 수량을 미체결 주문 기준으로 다시 맞춘다.
+ */
+@Slf4j
+@Component
+public class LockedAmountBatchScheduler {
+    private final Job job;
+    private final JobLauncher jobLauncher;
+
+    public LockedAmountBatchScheduler(@Qualifier("rebuildLockedAmountJob") Job job, JobLauncher jobLauncher) {
+        this.job = job;
+        this.jobLauncher = jobLauncher;
+    }
+
+    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.DAYS)
+    public void executeJob() {
+        try {
+            jobLauncher.run(
+                    job,
+                    new JobParametersBuilder()
+                            .addString("datetime", LocalDateTime.now().toString())
+                            .toJobParameters()
+            );
+        } catch (JobExecutionException ex) {
+            log.error("Failed to run rebuildLockedAmountJob", ex);
+        }
+    }
+}
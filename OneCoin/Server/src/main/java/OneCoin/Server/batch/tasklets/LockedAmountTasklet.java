@@ -0,0 +1,37 @@
+package OneCoin.Server.batch.tasklets;
+
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 미체결 매도 주문으로부터 사용자, 코인별 묶인 수량을 다시 계산해 덮어쓴다.
+ * 사용자마다 따로 WATCH/MULTI로 덮어쓰므로 서버가 주문을 받는 중에 실행해도 그 사이의 HINCRBY를 잃지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LockedAmountTasklet implements Tasklet {
+    private final OrderRepository orderRepository;
+    private final LockedAmountRepository lockedAmountRepository;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) throws Exception {
+        Set<Long> userIds = new HashSet<>(orderRepository.findAllUserIds());
+        userIds.addAll(lockedAmountRepository.findAllUserIds());
+        for (Long userId : userIds) {
+            lockedAmountRepository.rebuild(userId);
+        }
+        log.info("Locked amounts rebuilt for {} users", userIds.size());
+        return RepeatStatus.FINISHED;
+    }
+}
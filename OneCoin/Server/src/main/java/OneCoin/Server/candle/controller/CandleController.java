@@ -0,0 +1,35 @@
+package OneCoin.Server.candle.controller;
+
+import OneCoin.Server.candle.dto.CandleDto;
+import OneCoin.Server.candle.service.CandleService;
+import OneCoin.Server.dto.SingleResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/candles")
+@Validated
+@Slf4j
+public class CandleController {
+    private final CandleService candleService;
+
+    public CandleController(CandleService candleService) {
+        this.candleService = candleService;
+    }
+
+    @GetMapping("/{code}")
+    public ResponseEntity getCandles(@PathVariable("code") String code,
+                                     @RequestParam(defaultValue = "1m") String unit,
+                                     @Positive @Max(CandleService.CAPACITY) @RequestParam(defaultValue = "200") int count) {
+        List<CandleDto> candles = candleService.findCandles(code, unit, count);
+
+        return new ResponseEntity(new SingleResponseDto<>(candles), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,21 @@
+package OneCoin.Server.candle.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CandleDto {
+    private String code;
+    private String unit;
+    private long openTime;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+}
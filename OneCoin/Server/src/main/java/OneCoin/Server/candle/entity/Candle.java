@@ -0,0 +1,49 @@
+package OneCoin.Server.candle.entity;
+
+import OneCoin.Server.candle.entity.enums.CandleUnit;
+import lombok.*;
+
+import javax.persistence.*;
+
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(indexes = @Index(name = "idx_candle_code_unit_open_time", columnList = "code, unit, openTime", unique = true))
+public class Candle {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long candleId;
+
+    @Column(nullable = false, length = 20, updatable = false)
+    private String code;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private CandleUnit unit;
+
+    @Column(nullable = false, updatable = false)
+    private long openTime; // 봉 시작 시각(epoch ms)
+
+    private double open;
+
+    private double high;
+
+    private double low;
+
+    private double close;
+
+    private double volume;
+
+    @Builder
+    private Candle(String code, CandleUnit unit, long openTime, double open, double high, double low, double close, double volume) {
+        this.code = code;
+        this.unit = unit;
+        this.openTime = openTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+}
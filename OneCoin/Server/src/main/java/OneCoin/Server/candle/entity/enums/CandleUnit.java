@@ -0,0 +1,32 @@
+package OneCoin.Server.candle.entity.enums;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum CandleUnit {
+    SECOND("1s", 1_000L, false),
+    MINUTE("1m", 60_000L, true),
+    FIVE_MINUTES("5m", 300_000L, true),
+    HOUR("1h", 3_600_000L, true);
+
+    private final String abbreviation;
+    private final long millis;
+    private final boolean persisted; // MySQL에 기록할지 여부. 1초 봉은 메모리에만 둔다.
+
+    public long bucketOf(long timestamp) {
+        return timestamp - Math.floorMod(timestamp, millis);
+    }
+
+    public static CandleUnit of(String abbreviation) {
+        for (CandleUnit unit : values()) {
+            if (unit.abbreviation.equals(abbreviation)) {
+                return unit;
+            }
+        }
+        throw new BusinessLogicException(ExceptionCode.NOT_CORRECT_TYPE);
+    }
+}
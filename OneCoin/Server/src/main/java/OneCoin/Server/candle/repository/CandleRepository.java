@@ -0,0 +1,7 @@
+package OneCoin.Server.candle.repository;
+
+import OneCoin.Server.candle.entity.Candle;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CandleRepository extends JpaRepository<Candle, Long> {
+}
@@ -0,0 +1,152 @@
+package OneCoin.Server.candle.repository;
+
+import OneCoin.Server.candle.dto.CandleDto;
+import OneCoin.Server.candle.entity.Candle;
+import OneCoin.Server.candle.entity.enums.CandleUnit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 마켓, 한 단위의 봉을 크기가 고정된 primitive 배열 ring buffer에 보관한다.
+ * 체결이 들어올 때마다 가장 최근 봉을 갱신하거나 다음 칸에 새 봉을 연다. 체결이 없던 구간은 칸을 차지하지 않는다.
+ * 쓰기는 체결을 처리하는 thread 하나에서, 읽기는 요청 thread에서 일어나므로 짧게 동기화한다.
+ */
+public class CandleSeries {
+    private final String code;
+    private final CandleUnit unit;
+    private final int capacity;
+    private final long[] openTimes;
+    private final double[] opens;
+    private final double[] highs;
+    private final double[] lows;
+    private final double[] closes;
+    private final double[] volumes;
+    private int head = -1;
+    private int size;
+    private long flushedUpTo = Long.MIN_VALUE;
+
+    public CandleSeries(String code, CandleUnit unit, int capacity) {
+        this.code = code;
+        this.unit = unit;
+        this.capacity = capacity;
+        this.openTimes = new long[capacity];
+        this.opens = new double[capacity];
+        this.highs = new double[capacity];
+        this.lows = new double[capacity];
+        this.closes = new double[capacity];
+        this.volumes = new double[capacity];
+    }
+
+    public synchronized void update(long timestamp, double price, double volume) {
+        long bucket = unit.bucketOf(timestamp);
+        if (head < 0 || bucket > openTimes[head]) {
+            open(bucket, price, volume);
+            return;
+        }
+        int index = find(bucket);
+        if (index < 0 || bucket <= flushedUpTo) {
+            return;
+        }
+        highs[index] = Math.max(highs[index], price);
+        lows[index] = Math.min(lows[index], price);
+        if (index == head) {
+            closes[index] = price;
+        }
+        volumes[index] += volume;
+    }
+
+    /**
+     * 최근 count개의 봉을 오래된 순서로 리턴한다.
+     */
+    public synchronized List<CandleDto> read(int count) {
+        int length = Math.min(count, size);
+        List<CandleDto> candles = new ArrayList<>(length);
+        for (int i = length - 1; i >= 0; i--) {
+            candles.add(toDto(indexOf(i)));
+        }
+        return candles;
+    }
+
+    public synchronized CandleDto latest() {
+        if (head < 0) {
+            return null;
+        }
+        return toDto(head);
+    }
+
+    /**
+     * now 기준으로 마감되었지만 아직 저장하지 않은 봉을 오래된 순서로 리턴한다.
+     * 저장에 성공한 뒤 markFlushed()를 호출해야 다음 호출에서 빠진다.
+     */
+    public synchronized List<Candle> findClosed(long now) {
+        List<Candle> candles = new ArrayList<>();
+        long currentBucket = unit.bucketOf(now);
+        for (int i = size - 1; i >= 0; i--) {
+            int index = indexOf(i);
+            if (openTimes[index] > flushedUpTo && openTimes[index] < currentBucket) {
+                candles.add(toEntity(index));
+            }
+        }
+        return candles;
+    }
+
+    /**
+     * openTime까지의 봉을 저장한 것으로 표시한다. 저장한 봉에는 늦게 도착한 체결을 더 이상 반영하지 않는다.
+     */
+    public synchronized void markFlushed(long openTime) {
+        flushedUpTo = Math.max(flushedUpTo, openTime);
+    }
+
+    private void open(long bucket, double price, double volume) {
+        head = (head + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+        openTimes[head] = bucket;
+        opens[head] = price;
+        highs[head] = price;
+        lows[head] = price;
+        closes[head] = price;
+        volumes[head] = volume;
+    }
+
+    /**
+     * 늦게 도착한 체결이 들어갈 칸을 최근 봉부터 거꾸로 찾는다.
+     */
+    private int find(long bucket) {
+        for (int i = 0; i < size; i++) {
+            int index = indexOf(i);
+            if (openTimes[index] == bucket) {
+                return index;
+            }
+            if (openTimes[index] < bucket) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * head로부터 offset만큼 이전 봉의 배열 index
+     */
+    private int indexOf(int offset) {
+        return Math.floorMod(head - offset, capacity);
+    }
+
+    private CandleDto toDto(int index) {
+        return new CandleDto(code, unit.getAbbreviation(), openTimes[index],
+                opens[index], highs[index], lows[index], closes[index], volumes[index]);
+    }
+
+    private Candle toEntity(int index) {
+        return Candle.builder()
+                .code(code)
+                .unit(unit)
+                .openTime(openTimes[index])
+                .open(opens[index])
+                .high(highs[index])
+                .low(lows[index])
+                .close(closes[index])
+                .volume(volumes[index])
+                .build();
+    }
+}
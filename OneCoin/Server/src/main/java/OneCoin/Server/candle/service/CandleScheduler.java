@@ -0,0 +1,45 @@
+package OneCoin.Server.candle.service;
+
+import OneCoin.Server.candle.dto.CandleDto;
+import OneCoin.Server.dto.SingleResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+public class CandleScheduler {
+    private static final String CANDLE_DESTINATION = "/info/candle/";
+
+    private final CandleService candleService;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * 체결이 있었던 마켓에만 단위별 최신 봉을 보낸다.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void publish() {
+        Map<String, List<CandleDto>> latestCandles = candleService.drainLatestCandles();
+        latestCandles.forEach((code, candles) ->
+                messagingTemplate.convertAndSend(CANDLE_DESTINATION + code, new SingleResponseDto<>(candles)));
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void flush() {
+        candleService.flush(System.currentTimeMillis());
+    }
+
+    /**
+     * 종료 전에 마감된 봉을 저장한다. 진행 중인 봉은 같은 구간 안에 다시 시작하면
+     * 유일 색인(idx_candle_code_unit_open_time)과 겹치므로 저장하지 않는다.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        candleService.flush(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,132 @@
+package OneCoin.Server.candle.service;
+
+import OneCoin.Server.candle.dto.CandleDto;
+import OneCoin.Server.candle.entity.Candle;
+import OneCoin.Server.candle.entity.enums.CandleUnit;
+import OneCoin.Server.candle.repository.CandleRepository;
+import OneCoin.Server.candle.repository.CandleSeries;
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.utils.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+@RequiredArgsConstructor
+public class CandleService {
+    public static final int CAPACITY = 1440;
+    private static final CandleUnit[] UNITS = CandleUnit.values();
+
+    private final CandleRepository candleRepository;
+    private final ConcurrentMap<String, CandleSeries[]> seriesByCode = new ConcurrentHashMap<>();
+    private final Set<String> changedCodes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 체결 하나를 모든 단위의 봉에 반영한다.
+     */
+    @EventListener
+    public void aggregate(Trade trade) {
+        long timestamp = trade.getTradeTimestamp() == null ? System.currentTimeMillis() : trade.getTradeTimestamp();
+        double price = FixedPoint.toDouble(trade.getTradePriceValue());
+        double volume = FixedPoint.toDouble(trade.getTradeVolumeValue());
+
+        for (CandleSeries series : getSeries(trade.getCode())) {
+            series.update(timestamp, price, volume);
+        }
+        changedCodes.add(trade.getCode());
+    }
+
+    /**
+     * 메모리에 있는 최근 봉을 오래된 순서로 조회한다.
+     */
+    public List<CandleDto> findCandles(String code, String unit, int count) {
+        CandleUnit candleUnit = CandleUnit.of(unit);
+        CandleSeries[] series = seriesByCode.get(code);
+        if (series == null) {
+            return List.of();
+        }
+        return series[candleUnit.ordinal()].read(count);
+    }
+
+    /**
+     * 마지막 호출 이후 체결이 있었던 마켓의 단위별 최신 봉을 리턴한다.
+     */
+    public Map<String, List<CandleDto>> drainLatestCandles() {
+        Map<String, List<CandleDto>> latestCandles = new HashMap<>();
+        Iterator<String> iterator = changedCodes.iterator();
+        while (iterator.hasNext()) {
+            String code = iterator.next();
+            iterator.remove();
+            CandleSeries[] series = seriesByCode.get(code);
+            if (series == null) {
+                continue;
+            }
+            List<CandleDto> candles = new ArrayList<>(series.length);
+            for (CandleSeries unitSeries : series) {
+                candles.add(unitSeries.latest());
+            }
+            latestCandles.put(code, candles);
+        }
+        return latestCandles;
+    }
+
+    /**
+     * 마감된 봉 중 아직 저장하지 않은 것을 MySQL에 저장한다. 1초 봉은 저장하지 않는다.
+     * 저장이 commit된 뒤에만 저장한 것으로 표시하므로, 저장에 실패한 봉은 다음 호출에서 다시 저장한다.
+     */
+    public int flush(long now) {
+        Map<CandleSeries, List<Candle>> closedCandles = new HashMap<>();
+        List<Candle> candles = new ArrayList<>();
+        for (CandleSeries[] series : seriesByCode.values()) {
+            for (CandleUnit unit : UNITS) {
+                if (!unit.isPersisted()) {
+                    continue;
+                }
+                List<Candle> closed = series[unit.ordinal()].findClosed(now);
+                if (!closed.isEmpty()) {
+                    closedCandles.put(series[unit.ordinal()], closed);
+                    candles.addAll(closed);
+                }
+            }
+        }
+        if (candles.isEmpty()) {
+            return 0;
+        }
+        candleRepository.saveAll(candles);
+        closedCandles.forEach((series, closed) -> series.markFlushed(closed.get(closed.size() - 1).getOpenTime()));
+        return candles.size();
+    }
+
+    @EventListener
+    public void evict(MarketChangedEvent event) {
+        if (!event.isAdded()) {
+            seriesByCode.remove(event.getCode());
+        }
+    }
+
+    private CandleSeries[] getSeries(String code) {
+        CandleSeries[] series = seriesByCode.get(code);
+        if (series == null) {
+            series = seriesByCode.computeIfAbsent(code, this::createSeries);
+        }
+        return series;
+    }
+
+    private CandleSeries[] createSeries(String code) {
+        CandleSeries[] series = new CandleSeries[UNITS.length];
+        for (CandleUnit unit : UNITS) {
+            series[unit.ordinal()] = new CandleSeries(code, unit, CAPACITY);
+        }
+        return series;
+    }
+}
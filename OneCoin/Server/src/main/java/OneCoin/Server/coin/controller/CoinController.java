@@ -0,0 +1,44 @@
+package OneCoin.Server.coin.controller;
+
+import OneCoin.Server.coin.dto.CoinDto;
+import OneCoin.Server.coin.entity.Coin;
+import OneCoin.Server.coin.mapper.CoinMapper;
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.dto.SingleResponseDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+@RestController
+@RequestMapping("/api/admin/coins")
+@Validated
+@Slf4j
+public class CoinController {
+    private final CoinService coinService;
+    private final CoinMapper coinMapper;
+
+    public CoinController(CoinService coinService, CoinMapper coinMapper) {
+        this.coinService = coinService;
+        this.coinMapper = coinMapper;
+    }
+
+    @PostMapping
+    public ResponseEntity postCoin(@Valid @RequestBody CoinDto.Post requestBody) {
+        Coin coin = coinService.subscribeCoin(coinMapper.coinPostToCoin(requestBody));
+
+        return new ResponseEntity(
+                new SingleResponseDto<>(coinMapper.coinToCoinResponse(coin)), HttpStatus.CREATED
+        );
+    }
+
+    @DeleteMapping("/{code}")
+    public ResponseEntity deleteCoin(@PathVariable("code") String code) {
+        coinService.unsubscribeCoin(code);
+
+        return new ResponseEntity(HttpStatus.NO_CONTENT);
+    }
+}
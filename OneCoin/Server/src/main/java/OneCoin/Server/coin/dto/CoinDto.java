@@ -0,0 +1,39 @@
+package OneCoin.Server.coin.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+
+public class CoinDto {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Post {
+        @NotNull
+        @Positive
+        private Long coinId;
+
+        @NotBlank
+        private String code;
+
+        @NotBlank
+        private String coinName;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        private Long coinId;
+        private String code;
+        private String coinName;
+        private boolean subscribed;
+    }
+}
@@ -17,4 +17,10 @@ public class Coin {
 
     @Column(nullable = false, unique = true, length = 20)
     private String coinName;
+
+    /**
+     * upbit 시세를 구독하는 마켓인지 여부. 거래 내역이 코인을 참조하므로 마켓을 내릴 때도 row는 지우지 않는다.
+     */
+    @Column(nullable = false, columnDefinition = "boolean default true")
+    private boolean subscribed = true;
 }
@@ -0,0 +1,14 @@
+package OneCoin.Server.coin.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 구독 중인 마켓이 추가되거나 빠졌을 때 발행되는 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class MarketChangedEvent {
+    private String code;
+    private boolean added;
+}
@@ -0,0 +1,13 @@
+package OneCoin.Server.coin.mapper;
+
+import OneCoin.Server.coin.dto.CoinDto;
+import OneCoin.Server.coin.entity.Coin;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface CoinMapper {
+    Coin coinPostToCoin(CoinDto.Post requestBody);
+
+    CoinDto.Response coinToCoinResponse(Coin coin);
+}
@@ -3,8 +3,11 @@ package OneCoin.Server.coin.repository;
 import OneCoin.Server.coin.entity.Coin;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CoinRepository extends JpaRepository<Coin, Long> {
     Optional<Coin> findByCode(String code);
+
+    List<Coin> findAllBySubscribedTrue();
 }
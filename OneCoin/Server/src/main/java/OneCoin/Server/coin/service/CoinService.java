@@ -7,6 +7,8 @@ import OneCoin.Server.exception.ExceptionCode;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -14,6 +16,35 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CoinService {
     private final CoinRepository coinRepository;
+    private final MarketUniverse marketUniverse;
+
+    /**
+     * 마켓을 구독 목록에 추가한다. 이미 등록된 코인이면 다시 구독만 한다.
+     * 구독 목록과 upbit 구독은 Coin 저장이 commit된 뒤에 바뀐다.
+     * @throws BusinessLogicException 이미 구독 중인 코인일 경우
+     */
+    @Transactional
+    public Coin subscribeCoin(Coin coin) {
+        Coin savedCoin = coinRepository.findByCode(coin.getCode()).orElse(coin);
+        if (savedCoin != coin && savedCoin.isSubscribed()) {
+            throw new BusinessLogicException(ExceptionCode.COIN_EXISTS);
+        }
+        savedCoin.setSubscribed(true);
+        savedCoin = coinRepository.save(savedCoin);
+        String code = savedCoin.getCode();
+        afterCommit(() -> marketUniverse.add(code));
+        return savedCoin;
+    }
+
+    /**
+     * 마켓을 구독 목록에서 뺀다. 구독 목록과 upbit 구독은 commit된 뒤에 바뀐다.
+     */
+    @Transactional
+    public void unsubscribeCoin(String code) {
+        Coin coin = findCoin(code);
+        coin.setSubscribed(false);
+        afterCommit(() -> marketUniverse.remove(code));
+    }
 
     /**
      * 코인을 조회한다.
@@ -26,4 +57,20 @@ public class CoinService {
         Optional<Coin> optionalCoin = coinRepository.findByCode(code);
         return optionalCoin.orElseThrow(() -> new BusinessLogicException(ExceptionCode.COIN_NOT_EXISTS));
     }
+
+    /**
+     * 트랜잭션이 commit된 뒤에 실행한다. rollback되면 실행하지 않는다.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,75 @@
+package OneCoin.Server.coin.service;
+
+import OneCoin.Server.coin.entity.Coin;
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.coin.repository.CoinRepository;
+import OneCoin.Server.upbit.entity.enums.CoinList;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 현재 구독 중인 마켓 코드 목록.
+ * 목록은 copy-on-write로 교체되므로 읽는 쪽은 lock 없이 getCodes()가 돌려준 snapshot을 그대로 순회하면 된다.
+ * 마켓이 추가되거나 빠지면 MarketChangedEvent를 발행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketUniverse {
+    private final CoinRepository coinRepository;
+    private final ApplicationEventPublisher publisher;
+    private volatile List<String> codes = List.of();
+
+    /**
+     * Coin 테이블에서 구독할 마켓을 읽어온다. 테이블이 비어 있으면 기본 마켓을 구독한다.
+     */
+    @PostConstruct
+    public void load() {
+        List<String> subscribedCodes = coinRepository.findAllBySubscribedTrue().stream()
+                .map(Coin::getCode)
+                .collect(Collectors.toList());
+        if (subscribedCodes.isEmpty()) {
+            subscribedCodes = CoinList.CODES;
+        }
+        codes = List.copyOf(subscribedCodes);
+        log.info("Subscribed {} markets", codes.size());
+    }
+
+    public List<String> getCodes() {
+        return codes;
+    }
+
+    public boolean contains(String code) {
+        return codes.contains(code);
+    }
+
+    public synchronized boolean add(String code) {
+        if (codes.contains(code)) {
+            return false;
+        }
+        List<String> newCodes = new ArrayList<>(codes);
+        newCodes.add(code);
+        codes = Collections.unmodifiableList(newCodes);
+        publisher.publishEvent(new MarketChangedEvent(code, true));
+        return true;
+    }
+
+    public synchronized boolean remove(String code) {
+        if (!codes.contains(code)) {
+            return false;
+        }
+        List<String> newCodes = new ArrayList<>(codes);
+        newCodes.remove(code);
+        codes = Collections.unmodifiableList(newCodes);
+        publisher.publishEvent(new MarketChangedEvent(code, false));
+        return true;
+    }
+}
@@ -66,6 +66,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorize -> authorize
                         .antMatchers(HttpMethod.GET, "/api/order/**").hasRole("USER")
                         .antMatchers(HttpMethod.POST, "/api/order/**").hasRole("USER")
+                        .antMatchers(HttpMethod.PATCH, "/api/order/**").hasRole("USER")
+                        .antMatchers(HttpMethod.DELETE, "/api/order/**").hasRole("USER")
                         .antMatchers(HttpMethod.GET, "/ws/chat/**").permitAll()
                         .antMatchers(HttpMethod.POST, "/api/users").permitAll()
                         .antMatchers(HttpMethod.PATCH, "/api/users/**").hasRole("USER")
@@ -1,26 +1,21 @@
 package OneCoin.Server.config;
 
-import OneCoin.Server.upbit.entity.enums.CoinList;
-import OneCoin.Server.upbit.service.UpbitHandlingService;
-import OneCoin.Server.upbit.websocket.listener.UpbitWebSocketListener;
-import OneCoin.Server.utils.JsonUtil;
 import okhttp3.OkHttpClient;
-import okhttp3.Request;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class UpbitConfig {
+    /**
+     * upbit websocket 연결은 UpbitFeedManager가 관리한다.
+     * 재연결 시 dispatcher를 다시 사용하므로 executor를 종료하지 않는다.
+     */
     @Bean
-    public OkHttpClient okHttpClient(JsonUtil jsonUtil, UpbitHandlingService upbitHandlingService) {
-        OkHttpClient okHttpClient = new OkHttpClient();
-        Request request = new Request.Builder().url("wss://api.upbit.com/websocket/v1").build();
-
-        UpbitWebSocketListener webSocketListener = new UpbitWebSocketListener(jsonUtil, upbitHandlingService);
-        webSocketListener.setParameter(CoinList.CODES);
-        okHttpClient.newWebSocket(request, webSocketListener);
-        okHttpClient.dispatcher().executorService().shutdown();
-
-        return okHttpClient;
+    public OkHttpClient okHttpClient() {
+        return new OkHttpClient.Builder()
+                .pingInterval(30, TimeUnit.SECONDS)
+                .build();
     }
 }
@@ -11,8 +11,11 @@ public enum ExceptionCode {
     NOT_ENOUGH_AMOUNT(400, "Not enough coin amount"),
     NOT_ENOUGH_BALANCE(400, "Not enough your balance"),
     NO_EXISTS_ORDER(400, "No exists order."),
+    NO_EXISTS_ORDER_BOOK(404, "No exists order book."),
+    NOT_LIMIT_ORDER(400, "Only limit orders can be placed in bulk."),
     NOT_YOUR_ORDER(400, "It's not your order."),
     COIN_NOT_EXISTS(400, "Coin not exists."),
+    COIN_EXISTS(409, "Coin already exists."),
     NO_SUCH_NATION(404, "There is no such nation resistered"),
     NO_SUCH_CHAT_ROOM(404, "There is no such chat room"),
     CHAT_ROOM_NAME_EXISTS(409, "A chat room with the name already exists"),
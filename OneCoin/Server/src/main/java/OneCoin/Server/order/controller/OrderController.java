@@ -1,10 +1,18 @@
 package OneCoin.Server.order.controller;
 
 import OneCoin.Server.dto.MultiResponseDto;
+import OneCoin.Server.dto.SingleResponseDto;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.order.dto.OrderDto;
+import OneCoin.Server.order.entity.Fill;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.TriggerOrder;
+import OneCoin.Server.order.journal.OrderJournal;
 import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.service.ImmediateOrderFacade;
 import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.order.service.TriggerOrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,7 +27,12 @@ import java.util.Map;
 @RequestMapping("/api/order")
 @RequiredArgsConstructor
 public class OrderController {
+    private static final String IMMEDIATE_OR_CANCEL = "IOC";
+
     private final OrderService orderService;
+    private final ImmediateOrderFacade immediateOrderFacade;
+    private final TriggerOrderService triggerOrderService;
+    private final OrderJournal orderJournal;
     private final OrderMapper mapper;
 
     @PostMapping("/{code}")
@@ -28,11 +41,66 @@ public class OrderController {
                                     @AuthenticationPrincipal Map<String, Object> userInfo) {
         long userId = Long.parseLong(userInfo.get("id").toString());
         Order order = mapper.postDtoToOrder(orderPostDto);
+        if (order.isMarketOrder() || IMMEDIATE_OR_CANCEL.equals(orderPostDto.getTimeInForce())) {
+            List<Fill> fills = immediateOrderFacade.createImmediateOrder(order, userId, code);
+            OrderDto.ImmediateResponse responseDto = mapper.fillsToImmediateResponse(order, fills);
+            return new ResponseEntity<>(new SingleResponseDto<>(responseDto), HttpStatus.CREATED);
+        }
+        if (orderJournal.isEnabled()) {
+            orderJournal.append(order, userId, code);
+            OrderDto.PostResponse responseDto = mapper.orderToPostResponse(order);
+            return new ResponseEntity<>(new SingleResponseDto<>(responseDto), HttpStatus.ACCEPTED);
+        }
         orderService.createOrder(order, userId, code);
 
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    @PostMapping("/{code}/bulk")
+    public ResponseEntity postOrders(@PathVariable("code") String code,
+                                     @Valid @RequestBody OrderDto.BulkPost bulkPostDto,
+                                     @AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        for (OrderDto.Post orderPostDto : bulkPostDto.getOrders()) {
+            if (IMMEDIATE_OR_CANCEL.equals(orderPostDto.getTimeInForce())) {
+                throw new BusinessLogicException(ExceptionCode.NOT_LIMIT_ORDER);
+            }
+        }
+        List<Order> orders = mapper.postDtosToOrders(bulkPostDto.getOrders());
+        orderService.createOrders(orders, userId, code);
+
+        return new ResponseEntity<>(HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{code}/trigger")
+    public ResponseEntity postTriggerOrder(@PathVariable("code") String code,
+                                           @Valid @RequestBody OrderDto.TriggerPost triggerPostDto,
+                                           @AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        TriggerOrder triggerOrder = mapper.triggerPostDtoToTriggerOrder(triggerPostDto);
+        triggerOrderService.createTriggerOrder(triggerOrder, userId, code);
+
+        return new ResponseEntity<>(HttpStatus.CREATED);
+    }
+
+    @GetMapping("/trigger")
+    public ResponseEntity getTriggerOrders(@AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        List<TriggerOrder> triggerOrders = triggerOrderService.findTriggerOrders(userId);
+        List<OrderDto.GetResponse> responseDto = mapper.triggerOrdersToGetResponse(triggerOrders);
+
+        return new ResponseEntity<>(new MultiResponseDto<>(responseDto), HttpStatus.OK);
+    }
+
+    @DeleteMapping("/trigger/{trigger-id}")
+    public ResponseEntity deleteTriggerOrder(@PathVariable("trigger-id") long triggerId,
+                                             @AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        triggerOrderService.cancelTriggerOrder(triggerId, userId);
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
+
     @GetMapping("/non-trading")
     public ResponseEntity getNonTradingOrder(@AuthenticationPrincipal Map<String, Object> userInfo) {
         long userId = Long.parseLong(userInfo.get("id").toString());
@@ -42,6 +110,21 @@ public class OrderController {
         return new ResponseEntity<>(new MultiResponseDto<>(responseDto), HttpStatus.OK);
     }
 
+    /**
+     * 미체결 주문의 지정가와 수량을 취소 없이 바꾼다.
+     */
+    @PatchMapping("/non-trading/{order-id}")
+    public ResponseEntity patchNonTradingOrder(@PathVariable("order-id") long orderId,
+                                               @Valid @RequestBody OrderDto.Patch patchDto,
+                                               @AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        Order changes = mapper.patchDtoToOrder(patchDto);
+        Order order = orderService.amendOrder(orderId, userId, changes);
+        OrderDto.GetResponse responseDto = mapper.orderToGetResponse(order);
+
+        return new ResponseEntity<>(new SingleResponseDto<>(responseDto), HttpStatus.OK);
+    }
+
     @DeleteMapping("/non-trading/{order-id}")
     public ResponseEntity deleteNonTradingOrder(@PathVariable("order-id") long orderId,
                                                 @AuthenticationPrincipal Map<String, Object> userInfo) {
@@ -50,4 +133,16 @@ public class OrderController {
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * 미체결 주문을 모두 취소한다. code가 있으면 해당 코인의 주문만 취소한다.
+     */
+    @DeleteMapping("/non-trading")
+    public ResponseEntity deleteNonTradingOrders(@RequestParam(value = "code", required = false) String code,
+                                                 @AuthenticationPrincipal Map<String, Object> userInfo) {
+        long userId = Long.parseLong(userInfo.get("id").toString());
+        orderService.cancelOrders(userId, code);
+
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
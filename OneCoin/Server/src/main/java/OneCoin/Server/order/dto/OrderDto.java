@@ -6,8 +6,13 @@ import OneCoin.Server.validator.Price;
 import lombok.Getter;
 import lombok.Setter;
 
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 public class OrderDto {
     @Getter
@@ -27,6 +32,85 @@ public class OrderDto {
         @NotNull(message = "빈 필드는 허용하지 않습니다.")
         @Pattern(regexp = "^ASK$|^BID$", message = "매도는 ASK, 매수는 BID를 입력해야 합니다.")
         private String orderType;
+
+        @Pattern(regexp = "^GTC$|^IOC$|^GTT$|^DAY$", message = "체결될 때까지 유지는 GTC, 즉시 체결 후 잔량 취소는 IOC, 만료 시각까지 유지는 GTT, 당일 유지는 DAY를 입력해야 합니다.")
+        private String timeInForce;
+
+        @Pattern(regexp = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}(:\\d{2})?$", message = "만료 시각은 yyyy-MM-ddTHH:mm:ss 형식이어야 합니다.")
+        private String expireTime; // GTT 주문의 만료 시각
+
+        @AssertTrue(message = "GTT 주문은 만료 시각을 입력해야 합니다.")
+        public boolean isExpireTimeValid() {
+            return !"GTT".equals(timeInForce) || expireTime != null;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class BulkPost {
+        @NotEmpty(message = "빈 필드는 허용하지 않습니다.")
+        @Size(max = 50, message = "한 번에 50개까지 주문할 수 있습니다.")
+        private List<@Valid Post> orders;
+    }
+
+    @Getter
+    @Setter
+    public static class TriggerPost {
+        @NotNull(message = "빈 필드는 허용하지 않습니다.")
+        @Price
+        private String stopPrice;
+
+        @NotNull(message = "빈 필드는 허용하지 않습니다.")
+        @Price
+        private String limit;
+
+        @NotNull(message = "빈 필드는 허용하지 않습니다.")
+        @Amount
+        private String amount;
+
+        @NotNull(message = "빈 필드는 허용하지 않습니다.")
+        @Pattern(regexp = "^ASK$|^BID$", message = "매도는 ASK, 매수는 BID를 입력해야 합니다.")
+        private String orderType;
+    }
+
+    @Getter
+    @Setter
+    public static class Patch {
+        @Pattern(regexp = "^\\d+(\\.\\d+)?$", message = "지정가는 숫자여야 합니다.")
+        private String limit;
+
+        @Pattern(regexp = "^\\d+(\\.\\d+)?$", message = "수량은 숫자여야 합니다.")
+        private String amount;
+
+        @AssertTrue(message = "지정가와 수량 중 하나 이상을 0보다 큰 값으로 입력해야 합니다.")
+        public boolean isChangeValid() {
+            if (limit == null && amount == null) {
+                return false;
+            }
+            return isPositive(limit) && isPositive(amount);
+        }
+
+        private boolean isPositive(String value) {
+            return value == null || !value.matches("^\\d+(\\.\\d+)?$") || Double.parseDouble(value) > 0;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class PostResponse {
+        private long orderId;
+    }
+
+    @Getter
+    @Setter
+    public static class ImmediateResponse {
+        private String code;
+        private String orderTime;
+        private String orderType;
+        private String amount;
+        private String completedAmount;
+        private String cancelledAmount;
+        private String averagePrice;
     }
 
     @Getter
@@ -39,6 +123,7 @@ public class OrderDto {
         private String limit;
         private String market;
         private String stopLimit;
+        private String expireTime;
         private String amount;
         private String completedAmount;
     }
@@ -0,0 +1,48 @@
+package OneCoin.Server.order.entity;
+
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * 한 번의 upbit 체결로 주문 하나가 채워진 결과.
+ * 정산이 끝나기 전에 주문의 미체결량을 미리 계산해 둔다.
+ */
+@Getter
+public class Fill {
+    private final Order order;
+    private final BigDecimal price; // 체결 가격
+    private final BigDecimal amount; // 체결량
+    private final BigDecimal remainingAmount; // 체결 후 미체결량
+
+    public Fill(Order order, BigDecimal price, BigDecimal amount) {
+        this.order = order;
+        this.price = price;
+        this.amount = amount;
+        this.remainingAmount = order.getAmount().subtract(amount);
+    }
+
+    public long getUserId() {
+        return order.getUserId();
+    }
+
+    public String getCode() {
+        return order.getCode();
+    }
+
+    public TransactionType getOrderType() {
+        return order.getOrderType();
+    }
+
+    /**
+     * 미체결 주문으로 저장되어 있던 주문의 체결인지 여부. 즉시 체결 주문은 저장되지 않으므로 아이디가 없다.
+     */
+    public boolean isResting() {
+        return order.getOrderId() != null;
+    }
+
+    public boolean isCompleted() {
+        return remainingAmount.signum() <= 0;
+    }
+}
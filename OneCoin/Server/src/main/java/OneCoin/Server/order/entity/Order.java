@@ -2,21 +2,15 @@ package OneCoin.Server.order.entity;
 
 import OneCoin.Server.order.entity.enums.TransactionType;
 import lombok.*;
-import org.springframework.data.annotation.Id;
-import org.springframework.data.redis.core.RedisHash;
-import org.springframework.data.redis.core.index.Indexed;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
-@RedisHash("order")
 public class Order {
-    @Id
-    private Integer orderId;
+    private Long orderId;
 
-    @Indexed
     private BigDecimal limit;
 
     private BigDecimal market;
@@ -25,17 +19,16 @@ public class Order {
 
     private LocalDateTime orderTime;
 
-    @Indexed
     private TransactionType orderType; // ASK, BID
 
-    @Indexed
     private Long userId;
 
-    @Indexed
     private String code;
 
+    private LocalDateTime expireTime; // null이면 체결되거나 취소될 때까지 유지
+
     @Builder
-    private Order(Integer orderId, BigDecimal limit, BigDecimal market, BigDecimal amount, LocalDateTime orderTime, TransactionType orderType, Long userId, String code) {
+    private Order(Long orderId, BigDecimal limit, BigDecimal market, BigDecimal amount, LocalDateTime orderTime, TransactionType orderType, Long userId, String code, LocalDateTime expireTime) {
         this.orderId = orderId;
         this.limit = limit;
         this.market = market;
@@ -44,5 +37,13 @@ public class Order {
         this.orderType = orderType;
         this.userId = userId;
         this.code = code;
+        this.expireTime = expireTime;
+    }
+
+    /**
+     * 지정가 대신 시장가가 입력된 주문인지 여부
+     */
+    public boolean isMarketOrder() {
+        return market != null && market.signum() > 0;
     }
 }
@@ -0,0 +1,23 @@
+package OneCoin.Server.order.entity;
+
+import OneCoin.Server.audit.CreatedOnlyAuditable;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * MySQL에 잔액과 투자 내역을 반영한 체결 묶음.
+ * 잔액, 투자 내역과 같은 트랜잭션에 저장되므로, outbox의 묶음을 다시 정산할 때 이미 반영한 묶음인지 확인하는 데 쓴다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class Settlement extends CreatedOnlyAuditable {
+    @Id
+    @Column(length = 36)
+    private String settlementId; // SettlementOutboxRepository의 묶음 아이디
+}
@@ -0,0 +1,59 @@
+package OneCoin.Server.order.entity;
+
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 체결 가격이 감시 가격(stopPrice)을 지나가면 지정가 주문으로 바뀌는 주문. (손절, 익절)
+ */
+@Getter
+@Setter
+public class TriggerOrder {
+    private Long triggerId;
+
+    private BigDecimal stopPrice; // 감시 가격
+
+    private BigDecimal limit;
+
+    private BigDecimal amount;
+
+    private LocalDateTime orderTime;
+
+    private TransactionType orderType; // ASK, BID
+
+    private Long userId;
+
+    private String code;
+
+    @Builder
+    private TriggerOrder(Long triggerId, BigDecimal stopPrice, BigDecimal limit, BigDecimal amount, LocalDateTime orderTime, TransactionType orderType, Long userId, String code) {
+        this.triggerId = triggerId;
+        this.stopPrice = stopPrice;
+        this.limit = limit;
+        this.amount = amount;
+        this.orderTime = orderTime;
+        this.orderType = orderType;
+        this.userId = userId;
+        this.code = code;
+    }
+
+    /**
+     * 발동할 때 생성할 지정가 주문
+     */
+    public Order toOrder() {
+        return Order.builder()
+                .limit(limit)
+                .market(BigDecimal.ZERO)
+                .amount(amount)
+                .orderTime(LocalDateTime.now())
+                .orderType(orderType)
+                .userId(userId)
+                .code(code)
+                .build();
+    }
+}
@@ -0,0 +1,103 @@
+package OneCoin.Server.order.journal;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.Getter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 주문 journal에 기록하는 record.
+ * <pre>
+ *     PLACE   [type][sequence][orderId][userId][code][orderType][limit][amount][orderTime][expireTime]
+ *     APPLIED [type][sequence]
+ * </pre>
+ * PLACE는 접수한 주문이고, APPLIED는 같은 sequence의 PLACE를 Redis와 MySQL에 반영(또는 거절)했다는 표시다.
+ */
+@Getter
+public class OrderCommand {
+    public static final byte PLACE = 1;
+    public static final byte APPLIED = 2;
+
+    private final byte type;
+    private final long sequence;
+    private final Order order;
+
+    private OrderCommand(byte type, long sequence, Order order) {
+        this.type = type;
+        this.sequence = sequence;
+        this.order = order;
+    }
+
+    public static OrderCommand place(long sequence, Order order) {
+        return new OrderCommand(PLACE, sequence, order);
+    }
+
+    public static OrderCommand applied(long sequence) {
+        return new OrderCommand(APPLIED, sequence, null);
+    }
+
+    public boolean isPlace() {
+        return type == PLACE;
+    }
+
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(type);
+            out.writeLong(sequence);
+            if (type == PLACE) {
+                out.writeLong(order.getOrderId());
+                out.writeLong(order.getUserId());
+                out.writeUTF(order.getCode());
+                out.writeUTF(order.getOrderType().name());
+                out.writeUTF(order.getLimit().toPlainString());
+                out.writeUTF(order.getAmount().toPlainString());
+                out.writeUTF(String.valueOf(order.getOrderTime()));
+                out.writeUTF(order.getExpireTime() == null ? "" : order.getExpireTime().toString());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static OrderCommand decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            byte type = in.readByte();
+            long sequence = in.readLong();
+            if (type != PLACE) {
+                return new OrderCommand(type, sequence, null);
+            }
+            long orderId = in.readLong();
+            long userId = in.readLong();
+            String code = in.readUTF();
+            TransactionType orderType = TransactionType.valueOf(in.readUTF());
+            BigDecimal limit = new BigDecimal(in.readUTF());
+            BigDecimal amount = new BigDecimal(in.readUTF());
+            String orderTime = in.readUTF();
+            String expireTime = in.readUTF();
+            Order order = Order.builder()
+                    .orderId(orderId)
+                    .userId(userId)
+                    .code(code)
+                    .orderType(orderType)
+                    .limit(limit)
+                    .market(BigDecimal.ZERO)
+                    .amount(amount)
+                    .orderTime("null".equals(orderTime) ? null : LocalDateTime.parse(orderTime))
+                    .expireTime(expireTime.isEmpty() ? null : LocalDateTime.parse(expireTime))
+                    .build();
+            return new OrderCommand(type, sequence, order);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package OneCoin.Server.order.journal;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.repository.OrderIdAllocator;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.utils.journal.JournalReader;
+import OneCoin.Server.utils.journal.MappedJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 지정가 주문 접수를 로컬 journal에 먼저 기록하는 write-ahead log.
+ * <p>
+ * order.journal.enabled=true이면 주문을 journal에 기록하고 디스크에 반영된 즉시 응답하며,
+ * Redis와 MySQL에 대한 반영(OrderService.createOrder)은 별도의 thread에서 접수 순서대로 처리한다.
+ * 기록은 writer thread 하나가 모아서 하므로, 동시에 들어온 주문은 force 한 번으로 함께 디스크에 반영된다(group commit).
+ * <p>
+ * 주문 상태는 여전히 Redis가 가지고 있으므로 snapshot에는 어디까지 반영했는지만 기록한다.
+ * 서버를 다시 띄우면 snapshot 이후의 journal만 읽어서 Redis에 반영 표시(order:applied:{orderId})가 없는 주문만 다시 반영하므로,
+ * 복구 시간은 전체 주문 이력이 아니라 마지막 checkpoint 이후의 주문 수에만 비례한다.
+ */
+@Slf4j
+@Component
+public class OrderJournal {
+    private static final long POLL_MILLIS = 100;
+    private static final long RETRY_MIN_MILLIS = 100;
+    private static final long RETRY_MAX_MILLIS = 5000;
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderIdAllocator orderIdAllocator;
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final int groupSize;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong appliedSequence = new AtomicLong();
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OrderJournal-applier");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private MappedJournal journal;
+    private Thread writer;
+    private final AtomicLong sequence = new AtomicLong();
+    private volatile boolean running;
+    private volatile boolean closing;
+    private boolean stalled; // applier thread에서만 읽고 쓴다
+
+    public OrderJournal(OrderService orderService,
+                        OrderRepository orderRepository,
+                        OrderIdAllocator orderIdAllocator,
+                        @Value("${order.journal.enabled:false}") boolean enabled,
+                        @Value("${order.journal.directory:journal/order}") String directory,
+                        @Value("${order.journal.segment-size:67108864}") int segmentSize,
+                        @Value("${order.journal.group-size:256}") int groupSize) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderIdAllocator = orderIdAllocator;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+        this.groupSize = groupSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 주문에 아이디를 발급하고 journal에 기록한다. 디스크에 반영될 때까지 기다린 뒤 아이디를 리턴한다.
+     * 잔고 부족처럼 반영 중에 거절된 주문은 로그로만 남는다.
+     */
+    public long append(Order order, long userId, String code) {
+        order.setOrderId(orderIdAllocator.nextId());
+        order.setUserId(userId);
+        order.setCode(code);
+        Pending pending = new Pending(order);
+        queue.add(pending);
+        pending.durable.join();
+        return order.getOrderId();
+    }
+
+    /**
+     * 마지막 snapshot 이후의 journal을 읽어 반영되지 않은 주문을 다시 반영하고 writer를 시작한다.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        OrderJournalSnapshot snapshot = OrderJournalSnapshot.read(directory);
+        Map<Long, Order> unapplied = new TreeMap<>();
+        AtomicLong lastSequence = new AtomicLong(snapshot.getLastSequence());
+        new JournalReader(directory).forEach((timestamp, payload) -> {
+            OrderCommand command = OrderCommand.decode(payload);
+            lastSequence.accumulateAndGet(command.getSequence(), Math::max);
+            if (command.getSequence() <= snapshot.getAppliedSequence()) {
+                return;
+            }
+            if (command.isPlace()) {
+                unapplied.put(command.getSequence(), command.getOrder());
+            } else {
+                unapplied.remove(command.getSequence());
+            }
+        });
+        sequence.set(lastSequence.get());
+        appliedSequence.set(snapshot.getAppliedSequence());
+        journal = new MappedJournal(directory, segmentSize);
+
+        for (Map.Entry<Long, Order> entry : unapplied.entrySet()) {
+            Order order = entry.getValue();
+            if (!orderRepository.isApplied(order.getOrderId()) && !apply(order)) {
+                throw new IllegalStateException("Failed to recover journaled order " + order.getOrderId());
+            }
+            markApplied(entry.getKey());
+        }
+        if (!unapplied.isEmpty()) {
+            journal.force();
+            log.info("Recovered {} journaled orders", unapplied.size());
+        }
+        appliedSequence.set(sequence.get());
+        checkpoint();
+
+        running = true;
+        writer = new Thread(this::write, "OrderJournal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * 반영된 sequence를 snapshot에 기록하고, 모두 반영된 지난 segment를 지운다.
+     */
+    public synchronized void checkpoint() {
+        if (journal == null) {
+            return;
+        }
+        journal.force();
+        long applied = appliedSequence.get();
+        new OrderJournalSnapshot(applied, Math.max(applied, sequence.get())).write(directory);
+
+        JournalReader reader = new JournalReader(directory);
+        List<Path> segments = reader.segments();
+        for (Path segment : segments.subList(0, Math.max(segments.size() - 1, 0))) {
+            AtomicLong maxSequence = new AtomicLong();
+            reader.forEach(segment, (timestamp, payload) ->
+                    maxSequence.accumulateAndGet(OrderCommand.decode(payload).getSequence(), Math::max));
+            if (maxSequence.get() > applied) {
+                break;
+            }
+            delete(segment);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal == null) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join();
+            closing = true;
+            applier.shutdown();
+            applier.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+        journal.close();
+        journal = null;
+    }
+
+    private void write() {
+        List<Pending> batch = new ArrayList<>(groupSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, groupSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to journal orders", e);
+                batch.forEach(pending -> pending.durable.completeExceptionally(e));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 기록하지 못한 주문만 실패시키고, 기록한 주문은 그대로 디스크에 반영해 접수한다.
+     */
+    private void writeBatch(List<Pending> batch) {
+        List<Pending> written = new ArrayList<>(batch.size());
+        List<OrderCommand> commands = new ArrayList<>(batch.size());
+        long timestamp = System.currentTimeMillis();
+        for (Pending pending : batch) {
+            OrderCommand command = OrderCommand.place(sequence.get() + 1, pending.order);
+            try {
+                journal.append(timestamp, command.encode());
+            } catch (RuntimeException e) {
+                log.error("Failed to journal order {}", pending.order.getOrderId(), e);
+                pending.durable.completeExceptionally(e);
+                continue;
+            }
+            sequence.incrementAndGet();
+            written.add(pending);
+            commands.add(command);
+        }
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        journal.force();
+        written.forEach(pending -> pending.durable.complete(null));
+        applier.execute(() -> commands.forEach(this::applyInOrder));
+    }
+
+    /**
+     * 앞의 주문을 반영하지 못한 채 멈췄으면 뒤의 주문도 반영한 것으로 표시하지 않는다.
+     * 표시하지 않은 주문은 다음에 서버를 띄울 때 journal에서 다시 읽어 반영한다.
+     */
+    private void applyInOrder(OrderCommand command) {
+        if (stalled) {
+            return;
+        }
+        if (!apply(command.getOrder())) {
+            stalled = true;
+            log.error("Stopped applying journaled orders at sequence {}, they will be replayed on restart", command.getSequence());
+            return;
+        }
+        markApplied(command.getSequence());
+    }
+
+    /**
+     * 주문을 반영한다. 잔고 부족, 없는 코인처럼 거절된 주문은 반영한 것으로 보고 로그만 남긴다.
+     * Redis, MySQL 장애처럼 다시 시도하면 될 수 있는 실패는 간격을 늘려 가며 다시 시도하고, 서버가 내려가는 중이면 포기한다.
+     * @return 반영했거나 거절했으면 true, 포기했으면 false
+     */
+    private boolean apply(Order order) {
+        long backoff = RETRY_MIN_MILLIS;
+        while (true) {
+            try {
+                orderService.createOrder(order, order.getUserId(), order.getCode());
+                return true;
+            } catch (BusinessLogicException e) {
+                log.warn("Rejected journaled order {}: {}", order.getOrderId(), e.getExceptionCode().getDescription());
+                if (markRejected(order)) {
+                    return true;
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to apply journaled order {}, retrying in {} ms", order.getOrderId(), backoff, e);
+            }
+            if (closing) {
+                return false;
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            backoff = Math.min(backoff * 2, RETRY_MAX_MILLIS);
+        }
+    }
+
+    private boolean markRejected(Order order) {
+        try {
+            orderRepository.markApplied(order.getOrderId());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to mark rejected journaled order {}, retrying", order.getOrderId(), e);
+            return false;
+        }
+    }
+
+    private void markApplied(long commandSequence) {
+        journal.append(System.currentTimeMillis(), OrderCommand.applied(commandSequence).encode());
+        appliedSequence.set(commandSequence);
+    }
+
+    private void delete(Path segment) {
+        try {
+            Files.deleteIfExists(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Pending {
+        private final Order order;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        private Pending(Order order) {
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package OneCoin.Server.order.journal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 주문 journal의 checkpoint를 주기적으로 남겨, 재시작 시 다시 읽을 journal 양을 제한한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderJournalScheduler {
+    private final OrderJournal orderJournal;
+
+    @Scheduled(fixedDelayString = "${order.journal.checkpoint-millis:1000}")
+    public void checkpoint() {
+        if (orderJournal.isEnabled()) {
+            orderJournal.checkpoint();
+        }
+    }
+}
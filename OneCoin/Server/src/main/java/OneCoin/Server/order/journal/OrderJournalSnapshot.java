@@ -0,0 +1,67 @@
+package OneCoin.Server.order.journal;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 주문 journal을 어디까지 반영했는지 기록하는 snapshot 파일.
+ * 임시 파일에 쓴 뒤 이름을 바꾸므로 중간에 서버가 꺼져도 이전 snapshot이나 새 snapshot 중 하나만 남는다.
+ */
+public class OrderJournalSnapshot {
+    static final String FILE_NAME = "snapshot";
+
+    private final long appliedSequence;
+    private final long lastSequence;
+
+    public OrderJournalSnapshot(long appliedSequence, long lastSequence) {
+        this.appliedSequence = appliedSequence;
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * 이 sequence까지의 PLACE는 모두 반영되었다.
+     */
+    public long getAppliedSequence() {
+        return appliedSequence;
+    }
+
+    /**
+     * snapshot을 쓸 때까지 발급한 마지막 sequence
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * snapshot이 없으면 빈 snapshot을 리턴한다.
+     */
+    public static OrderJournalSnapshot read(Path directory) {
+        Path file = directory.resolve(FILE_NAME);
+        if (!Files.exists(file)) {
+            return new OrderJournalSnapshot(0, 0);
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            return new OrderJournalSnapshot(in.readLong(), in.readLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Path directory) {
+        Path temporary = directory.resolve(FILE_NAME + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporary))) {
+                out.writeLong(appliedSequence);
+                out.writeLong(lastSequence);
+            }
+            Files.move(temporary, directory.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,16 +1,76 @@
 package OneCoin.Server.order.mapper;
 
 import OneCoin.Server.order.dto.OrderDto;
+import OneCoin.Server.order.entity.Fill;
 import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.TriggerOrder;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface OrderMapper {
     @Mapping(target = "orderTime", expression = "java(java.time.LocalDateTime.now())")
+    @Mapping(target = "expireTime", expression = "java(toExpireTime(postDto))")
     Order postDtoToOrder(OrderDto.Post postDto);
 
+    /**
+     * DAY 주문은 다음 날 0시, GTT 주문은 입력한 시각에 만료된다.
+     */
+    default LocalDateTime toExpireTime(OrderDto.Post postDto) {
+        if ("DAY".equals(postDto.getTimeInForce())) {
+            return LocalDate.now().plusDays(1).atStartOfDay();
+        }
+        if ("GTT".equals(postDto.getTimeInForce())) {
+            return LocalDateTime.parse(postDto.getExpireTime());
+        }
+        return null;
+    }
+
+    List<Order> postDtosToOrders(List<OrderDto.Post> postDtos);
+
+    OrderDto.PostResponse orderToPostResponse(Order order);
+
+    Order patchDtoToOrder(OrderDto.Patch patchDto);
+
+    OrderDto.GetResponse orderToGetResponse(Order order);
+
     List<OrderDto.GetResponse> orderToGetResponse(List<Order> orders);
+
+    @Mapping(target = "orderTime", expression = "java(java.time.LocalDateTime.now())")
+    TriggerOrder triggerPostDtoToTriggerOrder(OrderDto.TriggerPost triggerPostDto);
+
+    @Mapping(target = "orderId", source = "triggerId")
+    @Mapping(target = "stopLimit", source = "stopPrice")
+    OrderDto.GetResponse triggerOrderToGetResponse(TriggerOrder triggerOrder);
+
+    List<OrderDto.GetResponse> triggerOrdersToGetResponse(List<TriggerOrder> triggerOrders);
+
+    /**
+     * 즉시 체결 주문의 체결 결과를 합산한다. 체결되지 않은 수량은 취소된 수량이 된다.
+     */
+    default OrderDto.ImmediateResponse fillsToImmediateResponse(Order order, List<Fill> fills) {
+        BigDecimal completedAmount = BigDecimal.ZERO;
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (Fill fill : fills) {
+            completedAmount = completedAmount.add(fill.getAmount());
+            totalPrice = totalPrice.add(fill.getPrice().multiply(fill.getAmount()));
+        }
+        OrderDto.ImmediateResponse response = new OrderDto.ImmediateResponse();
+        response.setCode(order.getCode());
+        response.setOrderTime(String.valueOf(order.getOrderTime()));
+        response.setOrderType(order.getOrderType().name());
+        response.setAmount(order.getAmount().toPlainString());
+        response.setCompletedAmount(completedAmount.toPlainString());
+        response.setCancelledAmount(order.getAmount().subtract(completedAmount).toPlainString());
+        if (completedAmount.signum() > 0) {
+            response.setAveragePrice(totalPrice.divide(completedAmount, 2, RoundingMode.HALF_UP).toPlainString());
+        }
+        return response;
+    }
 }
@@ -3,6 +3,7 @@ package OneCoin.Server.order.mapper;
 import OneCoin.Server.coin.entity.Coin;
 import OneCoin.Server.deposit.entity.Deposit;
 import OneCoin.Server.order.dto.TransactionHistoryDto;
+import OneCoin.Server.order.entity.Fill;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.TransactionHistory;
 import OneCoin.Server.swap.entity.Swap;
@@ -28,6 +29,12 @@ public interface TransactionHistoryMapper {
     @Mapping(target = "price", source = "order.limit")
     TransactionHistory orderToTransactionHistory(Order order, User user, Coin coin, BigDecimal totalAmount, double commission, BigDecimal settledAmount);
 
+    @Mapping(target = "transactionType", source = "fill.order.orderType")
+    @Mapping(target = "orderTime", source = "fill.order.orderTime")
+    @Mapping(target = "amount", source = "fill.amount")
+    @Mapping(target = "price", source = "fill.price")
+    TransactionHistory fillToTransactionHistory(Fill fill, User user, Coin coin, BigDecimal totalAmount, double commission, BigDecimal settledAmount);
+
     @Mapping(target = "transactionType", constant = "SWAP")
     @Mapping(target = "coin", source = "swap.givenCoin")
     @Mapping(target = "amount", source = "swap.givenAmount")
@@ -0,0 +1,312 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.utils.CalculationUtil;
+import OneCoin.Server.utils.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 주문 체결을 Redis Lua 스크립트(scripts/fill.lua)로 반영한다.
+ * 주문 차감(또는 삭제), 매도 주문에 묶인 수량 차감과 지갑 upsert가 스크립트 하나에서 원자적으로 실행되고,
+ * 한 번의 체결에서 나온 주문 체결들은 EVALSHA를 pipeline으로 묶어 한 번에 보낸다.
+ * 지갑의 보유 수량과 평단가는 읽어 둔 지갑으로 BigDecimal 계산을 한 뒤 넘기고,
+ * 그 사이 스왑 등으로 지갑이 바뀌어 스크립트가 거절한 체결만 다시 읽어 반영한다.
+ * 반영한 체결은 스크립트가 체결 묶음의 outbox(SettlementOutboxRepository)에 함께 표시한다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class FillScriptRepository {
+    private static final RedisScript<Long> FILL_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/fill.lua"), Long.class);
+    private static final byte[] WALLET_CLASS = bytes(Wallet.class.getName());
+    private static final byte[] WALLET_SET_KEY = bytes("wallet");
+    private static final long APPLIED = 1L;
+    private static final long WALLET_CHANGED = -1L;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CalculationUtil calculationUtil;
+
+    @PostConstruct
+    public void loadScript() {
+        stringRedisTemplate.execute((RedisCallback<String>) connection ->
+                connection.scriptingCommands().scriptLoad(bytes(FILL_SCRIPT.getScriptAsString())));
+    }
+
+    /**
+     * 저장되지 않은 즉시 체결 주문의 체결은 주문 없이 지갑만 반영한다.
+     * @param batchId fills를 먼저 기록해 둔 outbox의 묶음 아이디
+     * @return 주문 체결마다 반영되었는지 여부. 그 사이 취소되어 주문이 없으면 false
+     */
+    public List<Boolean> applyFills(String batchId, List<Fill> fills) {
+        List<Boolean> applied = new ArrayList<>(Collections.nCopies(fills.size(), false));
+        List<Integer> pending = new ArrayList<>(fills.size());
+        for (int i = 0; i < fills.size(); i++) {
+            pending.add(i);
+        }
+
+        while (!pending.isEmpty()) {
+            List<Fill> pendingFills = new ArrayList<>(pending.size());
+            for (int index : pending) {
+                pendingFills.add(fills.get(index));
+            }
+            List<Object> results = evalFillsWithReload(batchId, pendingFills, pending);
+
+            List<Integer> walletChanged = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                Object result = results.get(i);
+                if (Long.valueOf(WALLET_CHANGED).equals(result)) {
+                    walletChanged.add(pending.get(i));
+                } else {
+                    applied.set(pending.get(i), Long.valueOf(APPLIED).equals(result));
+                }
+            }
+            if (!walletChanged.isEmpty()) {
+                log.info("Wallets changed while applying {} fills, reading them again", walletChanged.size());
+            }
+            pending = walletChanged;
+        }
+        return applied;
+    }
+
+    private List<Object> evalFillsWithReload(String batchId, List<Fill> fills, List<Integer> indexes) {
+        try {
+            return evalFills(batchId, fills, indexes);
+        } catch (DataAccessException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            log.warn("Fill script was flushed from redis, loading it again");
+            loadScript();
+            return evalFills(batchId, fills, indexes);
+        }
+    }
+
+    /**
+     * @param indexes fills 각각의 묶음 안에서의 순번. outbox의 반영 표시에 쓴다.
+     */
+    private List<Object> evalFills(String batchId, List<Fill> fills, List<Integer> indexes) {
+        Map<String, Holding> holdings = readHoldings(fills);
+        List<WalletUpdate> updates = new ArrayList<>(fills.size());
+        for (Fill fill : fills) {
+            String holdingKey = holdingKey(fill.getUserId(), fill.getCode());
+            Holding holding = holdings.get(holdingKey);
+            WalletUpdate update = toWalletUpdate(fill, holding);
+            updates.add(update);
+            holdings.put(holdingKey, update.after);
+        }
+
+        byte[] sha = bytes(FILL_SCRIPT.getSha1());
+        byte[] outboxKey = bytes(SettlementOutboxRepository.outboxKey(batchId));
+        return stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < fills.size(); i++) {
+                evalFill(connection, sha, outboxKey, indexes.get(i), fills.get(i), updates.get(i));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 체결 후의 보유 수량과 평단가를 계산한다. 같은 지갑의 체결이 여러 개면 앞 체결을 반영한 지갑으로 이어서 계산한다.
+     */
+    private WalletUpdate toWalletUpdate(Fill fill, Holding holding) {
+        if (fill.getOrderType() == TransactionType.BID) {
+            BigDecimal holdingAmount = holding.exists() ? holding.amountValue() : BigDecimal.ZERO;
+            BigDecimal holdingPrice = holding.exists() ? holding.averagePriceValue() : BigDecimal.ZERO;
+            BigDecimal averagePrice = calculationUtil.calculateAvgPrice(holdingPrice, holdingAmount, fill.getPrice(), fill.getAmount());
+            String walletId = holding.exists() ? holding.walletId : String.valueOf(ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE));
+            return new WalletUpdate(holding,
+                    new Holding(walletId, holdingAmount.add(fill.getAmount()).toPlainString(), averagePrice.toPlainString()));
+        }
+
+        if (!holding.exists()) {
+            return new WalletUpdate(holding, Holding.NONE);
+        }
+        BigDecimal amount = holding.amountValue().subtract(fill.getAmount());
+        if (amount.signum() < 0) {
+            log.error(ExceptionCode.OCCURRED_NEGATIVE_AMOUNT.getDescription());
+        }
+        if (amount.signum() <= 0) {
+            return new WalletUpdate(holding, new Holding(holding.walletId, "", ""));
+        }
+        return new WalletUpdate(holding, new Holding(holding.walletId, amount.toPlainString(), holding.averagePrice));
+    }
+
+    /**
+     * 체결들에 걸린 지갑을 (사용자, 코인)마다 한 번씩 pipeline으로 읽는다.
+     */
+    private Map<String, Holding> readHoldings(List<Fill> fills) {
+        Map<String, Fill> fillsByHolding = new LinkedHashMap<>();
+        for (Fill fill : fills) {
+            fillsByHolding.putIfAbsent(holdingKey(fill.getUserId(), fill.getCode()), fill);
+        }
+        List<String> holdingKeys = new ArrayList<>(fillsByHolding.keySet());
+
+        List<Object> walletIds = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Fill fill : fillsByHolding.values()) {
+                connection.setCommands().sInter(bytes(userIndexKey(fill.getUserId())), bytes(codeIndexKey(fill.getCode())));
+            }
+            return null;
+        });
+
+        Map<String, Holding> holdings = new HashMap<>();
+        Map<String, String> existingWalletIds = new LinkedHashMap<>();
+        for (int i = 0; i < holdingKeys.size(); i++) {
+            Collection<?> ids = (Collection<?>) walletIds.get(i);
+            if (ids == null || ids.isEmpty()) {
+                holdings.put(holdingKeys.get(i), Holding.NONE);
+            } else {
+                existingWalletIds.put(holdingKeys.get(i), String.valueOf(ids.iterator().next()));
+            }
+        }
+        if (existingWalletIds.isEmpty()) {
+            return holdings;
+        }
+
+        List<Object> values = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String walletId : existingWalletIds.values()) {
+                connection.hashCommands().hMGet(bytes(walletKey(walletId)), bytes("amount"), bytes("averagePrice"));
+            }
+            return null;
+        });
+        int i = 0;
+        for (Map.Entry<String, String> entry : existingWalletIds.entrySet()) {
+            List<?> fields = (List<?>) values.get(i++);
+            holdings.put(entry.getKey(), new Holding(entry.getValue(), stringOrEmpty(fields.get(0)), stringOrEmpty(fields.get(1))));
+        }
+        return holdings;
+    }
+
+    private void evalFill(RedisConnection connection, byte[] sha, byte[] outboxKey, int index, Fill fill, WalletUpdate update) {
+        Order order = fill.getOrder();
+        String orderId = fill.isResting() ? String.valueOf(order.getOrderId()) : "";
+        String targetWalletKey = walletKey(update.after.walletId);
+        connection.scriptingCommands().evalSha(sha, ReturnType.INTEGER, 11,
+                bytes(fill.isResting() ? OrderRepository.orderKey(order.getOrderId()) : ""),
+                bytes(OrderRepository.bookKey(order.getCode(), order.getOrderType())),
+                bytes(OrderRepository.userKey(order.getUserId())),
+                bytes(LockedAmountRepository.lockedKey(order.getUserId())),
+                outboxKey,
+                bytes(userIndexKey(fill.getUserId())),
+                bytes(codeIndexKey(fill.getCode())),
+                bytes(walletKey(update.before.walletId)),
+                bytes(targetWalletKey),
+                bytes(targetWalletKey.isEmpty() ? "" : targetWalletKey + ":idx"),
+                WALLET_SET_KEY,
+                bytes(orderId),
+                bytes(fill.getRemainingAmount().toPlainString()),
+                bytes(fill.getOrderType().name()),
+                bytes(String.valueOf(fill.getUserId())),
+                bytes(fill.getCode()),
+                bytes(String.valueOf(FixedPoint.valueOf(fill.getAmount()))),
+                bytes(update.before.walletId),
+                bytes(update.before.amount),
+                bytes(update.before.averagePrice),
+                bytes(update.after.walletId),
+                bytes(update.after.amount),
+                bytes(update.after.averagePrice),
+                WALLET_CLASS,
+                bytes(SettlementOutboxRepository.appliedField(index)));
+    }
+
+    private boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 지갑 key는 Spring Data Redis(@RedisHash("wallet"))의 key 구조를 따른다. walletId가 빈 문자열이면 빈 key를 넘긴다.
+     */
+    private static String walletKey(String walletId) {
+        return walletId.isEmpty() ? "" : "wallet:" + walletId;
+    }
+
+    private static String userIndexKey(long userId) {
+        return "wallet:userId:" + userId;
+    }
+
+    private static String codeIndexKey(String code) {
+        return "wallet:code:" + code;
+    }
+
+    private static String holdingKey(long userId, String code) {
+        return userId + ":" + code;
+    }
+
+    private static String stringOrEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Redis에 저장된 그대로의 지갑 값. 스크립트가 같은 문자열인지 비교하므로 BigDecimal로 바꾸지 않고 들고 있는다.
+     * walletId가 빈 문자열이면 지갑이 없다는 뜻이다.
+     */
+    private static class Holding {
+        private static final Holding NONE = new Holding("", "", "");
+
+        private final String walletId;
+        private final String amount;
+        private final String averagePrice;
+
+        private Holding(String walletId, String amount, String averagePrice) {
+            this.walletId = walletId;
+            this.amount = amount;
+            this.averagePrice = averagePrice;
+        }
+
+        private boolean exists() {
+            return !walletId.isEmpty();
+        }
+
+        private BigDecimal amountValue() {
+            return amount.isEmpty() ? BigDecimal.ZERO : new BigDecimal(amount);
+        }
+
+        private BigDecimal averagePriceValue() {
+            return averagePrice.isEmpty() ? BigDecimal.ZERO : new BigDecimal(averagePrice);
+        }
+    }
+
+    private static class WalletUpdate {
+        private final Holding before;
+        private final Holding after;
+
+        private WalletUpdate(Holding before, Holding after) {
+            this.before = before;
+            this.after = after;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.utils.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 사용자, 코인별로 미체결 매도 주문에 묶인 수량을 저장한다.
+ * <pre>
+ *     order:locked:{userId}   key: 코인 코드, value: 묶인 수량 (FixedPoint scaled long)
+ * </pre>
+ * 값은 주문 생성, 취소(OrderRepository, cancel.lua)와 체결(fill.lua)에서 HINCRBY로 함께 바뀐다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LockedAmountRepository {
+    private static final String LOCKED_KEY_PREFIX = "order:locked:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public BigDecimal findLockedAmount(long userId, String code) {
+        Object units = stringRedisTemplate.opsForHash().get(lockedKey(userId), code);
+        if (units == null) {
+            return BigDecimal.ZERO;
+        }
+        return FixedPoint.toBigDecimal(Long.parseLong((String) units));
+    }
+
+    /**
+     * 사용자의 미체결 매도 주문으로 묶인 수량을 다시 계산해 덮어쓴다.
+     * 묶인 수량을 바꾸는 주문 생성, 취소, 체결은 모두 order:locked:{userId}에 HINCRBY를 하므로 그 key를 WATCH해 두고,
+     * 계산하는 사이 값이 바뀌어 EXEC가 거절되면 주문을 다시 읽어 계산한다.
+     */
+    public void rebuild(long userId) {
+        String key = lockedKey(userId);
+        List<Object> results;
+        do {
+            results = stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                    stringOperations.watch(key);
+                    Map<String, String> hash = sumLockedUnits(stringOperations, userId);
+                    stringOperations.multi();
+                    stringOperations.delete(key);
+                    if (!hash.isEmpty()) {
+                        stringOperations.<String, String>opsForHash().putAll(key, hash);
+                    }
+                    return stringOperations.exec();
+                }
+            });
+        } while (results == null || results.isEmpty());
+    }
+
+    /**
+     * 묶인 수량이 저장되어 있는 사용자 아이디를 조회한다.
+     */
+    public Set<Long> findAllUserIds() {
+        Set<Long> userIds = new HashSet<>();
+        for (String key : scanLockedKeys()) {
+            userIds.add(Long.valueOf(key.substring(LOCKED_KEY_PREFIX.length())));
+        }
+        return userIds;
+    }
+
+    static String lockedKey(long userId) {
+        return LOCKED_KEY_PREFIX + userId;
+    }
+
+    private Map<String, String> sumLockedUnits(RedisOperations<String, String> operations, long userId) {
+        Map<String, Long> lockedUnits = new HashMap<>();
+        Set<String> orderIds = operations.opsForSet().members(OrderRepository.userKey(userId));
+        if (orderIds != null) {
+            for (String orderId : orderIds) {
+                List<String> fields = operations.<String, String>opsForHash()
+                        .multiGet(OrderRepository.orderKey(Long.parseLong(orderId)), List.of("orderType", "code", "amount"));
+                if ("ASK".equals(fields.get(0)) && fields.get(2) != null) {
+                    lockedUnits.merge(fields.get(1), FixedPoint.valueOf(new BigDecimal(fields.get(2))), Long::sum);
+                }
+            }
+        }
+        Map<String, String> hash = new HashMap<>();
+        lockedUnits.forEach((code, units) -> hash.put(code, String.valueOf(units)));
+        return hash;
+    }
+
+    private Set<String> scanLockedKeys() {
+        return stringRedisTemplate.execute((RedisCallback<Set<String>>) connection -> {
+            Set<String> keys = new HashSet<>();
+            ScanOptions options = ScanOptions.scanOptions().match(LOCKED_KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+}
@@ -0,0 +1,166 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 미체결 주문 아이디를 마켓, 매수/매도별로 지정가 순서대로 정렬해 둔 node-local 색인.
+ * 체결 가격이 들어오면 그 가격에 체결될 수 있는 주문만 가격 우선, 시간 우선 순서로 돌려준다.
+ * 주문 자체는 Redis에 있으므로 색인은 아이디만 들고 있고, 서버가 시작할 때 Redis의 주문으로 다시 만든다.
+ * 색인에 넣을 때마다 순번을 매기므로, 체결이 들어온 순간의 순번({@link #currentSequence()})과 비교해 그 뒤에 들어온 주문을 가려낼 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenOrderIndex {
+    private static final Comparator<Order> ORDER_TIME_ORDER = Comparator
+            .comparing(Order::getOrderTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Order::getOrderId);
+
+    private final OrderRepository orderRepository;
+    private final ConcurrentMap<String, Book> books = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Redis가 돌려주는 순서는 주문 시각 순서가 아니므로, (주문 시각, 주문 아이디) 순서로 정렬해서 넣어야 같은 가격 안의 시간 우선이 지켜진다.
+     */
+    @PostConstruct
+    public void rebuild() {
+        books.clear();
+        entries.clear();
+        List<Order> orders = new ArrayList<>(orderRepository.findAll());
+        orders.sort(ORDER_TIME_ORDER);
+        for (Order order : orders) {
+            add(order);
+        }
+        log.info("Indexed {} open orders", orders.size());
+    }
+
+    public void add(Order order) {
+        long orderId = order.getOrderId();
+        Entry entry = new Entry(order.getCode(), order.getOrderType(), order.getLimit(), sequence.incrementAndGet());
+        entries.put(orderId, entry);
+        getBook(entry.code).add(entry.orderType, entry.limit, orderId);
+    }
+
+    public void remove(Order order) {
+        removeById(order.getOrderId());
+    }
+
+    /**
+     * 등록할 때의 마켓, 거래 타입, 지정가로 찾아 지운다. 체결 중에 Order 객체의 값이 바뀌어도 영향을 받지 않는다.
+     */
+    public void removeById(long orderId) {
+        Entry entry = entries.remove(orderId);
+        if (entry == null) {
+            return;
+        }
+        Book book = books.get(entry.code);
+        if (book != null) {
+            book.remove(entry.orderType, entry.limit, orderId);
+        }
+    }
+
+    /**
+     * 체결 가격에 체결될 수 있는 주문 아이디를 가격 우선, 시간 우선 순서로 조회한다.
+     * 매수(BID)는 지정가가 체결 가격 이상인 주문, 매도(ASK)는 지정가가 체결 가격 이하인 주문이다.
+     */
+    public List<Long> findCrossingOrderIds(TransactionType orderType, String code, BigDecimal tradePrice) {
+        Book book = books.get(code);
+        if (book == null) {
+            return Collections.emptyList();
+        }
+        return book.findCrossing(orderType, tradePrice);
+    }
+
+    /**
+     * 지금까지 색인에 넣은 마지막 순번.
+     */
+    public long currentSequence() {
+        return sequence.get();
+    }
+
+    /**
+     * 주문이 arrivalSequence 이하의 순번으로 색인에 들어왔는지 확인한다. 체결이 들어온 뒤에 생성, 정정된 주문은 false다.
+     * 색인에서 이미 빠진 주문은 Redis에서 확인하도록 true를 돌려준다.
+     */
+    public boolean isAddedBy(long orderId, long arrivalSequence) {
+        Entry entry = entries.get(orderId);
+        return entry == null || entry.sequence <= arrivalSequence;
+    }
+
+    private Book getBook(String code) {
+        Book book = books.get(code);
+        if (book == null) {
+            book = books.computeIfAbsent(code, key -> new Book());
+        }
+        return book;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final String code;
+        private final TransactionType orderType;
+        private final BigDecimal limit;
+        private final long sequence;
+    }
+
+    /**
+     * 한 마켓의 매수, 매도 주문. 매수는 높은 가격부터, 매도는 낮은 가격부터 정렬한다.
+     */
+    private static class Book {
+        private final NavigableMap<BigDecimal, Set<Long>> bids = new TreeMap<>(Collections.reverseOrder());
+        private final NavigableMap<BigDecimal, Set<Long>> asks = new TreeMap<>();
+
+        synchronized void add(TransactionType orderType, BigDecimal limit, long orderId) {
+            side(orderType).computeIfAbsent(limit, key -> new LinkedHashSet<>()).add(orderId);
+        }
+
+        synchronized void remove(TransactionType orderType, BigDecimal limit, long orderId) {
+            NavigableMap<BigDecimal, Set<Long>> side = side(orderType);
+            Set<Long> orderIds = side.get(limit);
+            if (orderIds == null) {
+                return;
+            }
+            orderIds.remove(orderId);
+            if (orderIds.isEmpty()) {
+                side.remove(limit);
+            }
+        }
+
+        synchronized List<Long> findCrossing(TransactionType orderType, BigDecimal tradePrice) {
+            NavigableMap<BigDecimal, Set<Long>> crossing = side(orderType).headMap(tradePrice, true);
+            if (crossing.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<Long> orderIds = new ArrayList<>();
+            for (Map.Entry<BigDecimal, Set<Long>> level : crossing.entrySet()) {
+                orderIds.addAll(level.getValue());
+            }
+            return orderIds;
+        }
+
+        private NavigableMap<BigDecimal, Set<Long>> side(TransactionType orderType) {
+            return orderType == TransactionType.BID ? bids : asks;
+        }
+    }
+}
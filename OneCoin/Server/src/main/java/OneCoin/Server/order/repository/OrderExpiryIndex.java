@@ -0,0 +1,73 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.utils.TimingWheel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 만료 시각이 있는 미체결 주문을 TimingWheel에 올려두는 node-local 색인.
+ * 주문 자체는 Redis에 있으므로 색인은 아이디와 마켓 코드만 들고 있고, 서버가 시작할 때 Redis의 주문으로 다시 만든다.
+ * 체결로 사라진 주문은 따로 지우지 않고, 만료될 때 주문이 없으면 건너뛴다.
+ */
+@Slf4j
+@Component
+public class OrderExpiryIndex {
+    private final OrderRepository orderRepository;
+    private final TimingWheel<Expiry> timingWheel;
+
+    public OrderExpiryIndex(OrderRepository orderRepository,
+                            @Value("${order.expiry.tick-millis:1000}") long tickMillis,
+                            @Value("${order.expiry.wheel-size:4096}") int wheelSize) {
+        this.orderRepository = orderRepository;
+        this.timingWheel = new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * 서버가 꺼져 있는 동안 만료 시각이 지난 주문은 다음 poll에서 바로 만료된다.
+     */
+    @PostConstruct
+    public void rebuild() {
+        int count = 0;
+        for (Order order : orderRepository.findAll()) {
+            if (order.getExpireTime() != null) {
+                add(order);
+                count++;
+            }
+        }
+        log.info("Scheduled expiry of {} orders", count);
+    }
+
+    public void add(Order order) {
+        if (order.getExpireTime() == null) {
+            return;
+        }
+        long deadline = order.getExpireTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        timingWheel.schedule(order.getOrderId(), new Expiry(order.getOrderId(), order.getCode()), deadline);
+    }
+
+    public void removeById(long orderId) {
+        timingWheel.cancel(orderId);
+    }
+
+    /**
+     * nowMillis까지 만료된 주문을 색인에서 꺼낸다.
+     */
+    public List<Expiry> pollExpired(long nowMillis) {
+        return timingWheel.advance(nowMillis);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Expiry {
+        private final long orderId;
+        private final String code;
+    }
+}
@@ -0,0 +1,117 @@
+package OneCoin.Server.order.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 주문 아이디를 발급한다.
+ * Redis의 order:sequence에서 INCRBY로 아이디 블록을 빌려 와서 서버 안에서 하나씩 나눠 준다.
+ * 블록을 절반 쓰면 다음 블록을 미리 빌려 두므로 주문을 받을 때는 보통 Redis를 거치지 않는다.
+ * 여러 서버가 같은 sequence에서 서로 다른 블록을 받으므로 아이디가 겹치지 않는다.
+ */
+@Slf4j
+@Component
+public class OrderIdAllocator {
+    static final String SEQUENCE_KEY = "order:sequence";
+    private static final RedisScript<Long> RAISE_SCRIPT = RedisScript.of(
+            "local current = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if current < tonumber(ARGV[1]) then redis.call('SET', KEYS[1], ARGV[1]) return tonumber(ARGV[1]) end " +
+            "return current", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long blockSize;
+    private final ExecutorService leaseExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "OrderId-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Block block;
+    private CompletableFuture<Block> nextBlock;
+
+    public OrderIdAllocator(StringRedisTemplate stringRedisTemplate,
+                            @Value("${order.id.block-size:1000}") long blockSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.blockSize = blockSize;
+        this.block = Block.EMPTY;
+    }
+
+    public long nextId() {
+        while (true) {
+            Block current = block;
+            long orderId = current.next.getAndIncrement();
+            if (orderId <= current.end) {
+                if (orderId == current.watermark) {
+                    prefetch();
+                }
+                return orderId;
+            }
+            renew(current);
+        }
+    }
+
+    /**
+     * sequence가 주어진 아이디보다 작으면 올린다. 이전 구조에서 옮겨 온 주문과 아이디가 겹치지 않게 할 때 쓴다.
+     */
+    public void reserveUpTo(long orderId) {
+        stringRedisTemplate.execute(RAISE_SCRIPT, Collections.singletonList(SEQUENCE_KEY), String.valueOf(orderId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        leaseExecutor.shutdownNow();
+    }
+
+    private synchronized void prefetch() {
+        if (nextBlock == null) {
+            nextBlock = CompletableFuture.supplyAsync(this::lease, leaseExecutor);
+        }
+    }
+
+    /**
+     * 다른 스레드가 이미 블록을 바꿨으면 그대로 두고, 아니면 미리 빌려 둔 블록(없으면 새로 빌린 블록)으로 바꾼다.
+     */
+    private synchronized void renew(Block exhausted) {
+        if (block != exhausted) {
+            return;
+        }
+        Block leased = null;
+        if (nextBlock != null) {
+            try {
+                leased = nextBlock.join();
+            } catch (RuntimeException e) {
+                log.warn("Failed to prefetch order id block, leasing again", e);
+            }
+            nextBlock = null;
+        }
+        block = leased != null ? leased : lease();
+    }
+
+    private Block lease() {
+        Long end = stringRedisTemplate.opsForValue().increment(SEQUENCE_KEY, blockSize);
+        return new Block(end - blockSize + 1, end);
+    }
+
+    private static class Block {
+        private static final Block EMPTY = new Block(1, 0);
+
+        private final AtomicLong next;
+        private final long end;
+        private final long watermark;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.watermark = start + (end - start) / 2;
+        }
+    }
+}
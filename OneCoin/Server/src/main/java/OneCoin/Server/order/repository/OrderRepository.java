@@ -2,14 +2,445 @@ package OneCoin.Server.order.repository;
 
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.enums.TransactionType;
-import org.springframework.data.repository.CrudRepository;
+import OneCoin.Server.utils.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
-public interface OrderRepository extends CrudRepository<Order, Long> {
-    List<Order> findAllByUserId(Long userId);
+/**
+ * 미체결 주문을 Redis에 직접 정한 구조로 저장한다.
+ * <pre>
+ *     order:{orderId}                 주문 hash (_class, 색인용 key 없이 필드만 저장)
+ *     order:book:{code}:{orderType}   지정가를 score로 하는 주문 아이디 ZSET
+ *     order:user:{userId}             사용자의 주문 아이디 SET
+ *     order:locked:{userId}           코드별로 매도 주문에 묶인 수량 (LockedAmountRepository)
+ *     order:applied:{orderId}         주문 journal의 주문이 반영(또는 거절)되었다는 표시. 하루 뒤 만료된다.
+ * </pre>
+ * 주문 하나를 쓰거나 지울 때는 세 key를 MULTI로 묶어 pipeline 한 번에 보낸다.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class OrderRepository {
+    private static final String ORDER_KEY_PREFIX = "order:";
+    private static final String BOOK_KEY_PREFIX = "order:book:";
+    private static final String USER_KEY_PREFIX = "order:user:";
+    private static final String APPLIED_KEY_PREFIX = "order:applied:";
+    private static final Duration APPLIED_TTL = Duration.ofDays(1);
+    private static final String LEGACY_KEYSPACE = "order";
+    private static final RedisScript<Long> AMEND_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/amend.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CANCEL_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/cancel.lua"), List.class);
 
-    List<Order> findAllByOrderTypeAndCode(TransactionType orderType, String code);
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderIdAllocator orderIdAllocator;
 
-    List<Order> findAllByUserIdAndOrderTypeAndCode(Long userId, TransactionType orderType, String code);
+    /**
+     * 이전 @RedisHash 구조로 저장된 주문이 남아 있으면 새 구조로 옮긴다.
+     * 주문 hash의 key와 필드 이름은 같으므로 ZSET, SET에 등록하고 Spring Data가 쓰던 색인 key만 지운다.
+     * 새로 발급하는 아이디가 옮겨 온 주문과 겹치지 않도록 sequence를 가장 큰 아이디 이상으로 올린다.
+     */
+    @PostConstruct
+    public void migrateLegacyOrders() {
+        Set<String> legacyOrderIds = stringRedisTemplate.opsForSet().members(LEGACY_KEYSPACE);
+        if (legacyOrderIds == null || legacyOrderIds.isEmpty()) {
+            return;
+        }
+        List<Order> orders = findAllById(legacyOrderIds);
+        long maxOrderId = 0;
+        for (Order order : orders) {
+            maxOrderId = Math.max(maxOrderId, order.getOrderId());
+        }
+        orderIdAllocator.reserveUpTo(maxOrderId);
+        executeInTransaction(operations -> {
+            for (Order order : orders) {
+                write(operations, order);
+                operations.opsForHash().delete(orderKey(order.getOrderId()), "_class", "orderId");
+            }
+        });
+        for (String orderId : legacyOrderIds) {
+            String indexKey = ORDER_KEY_PREFIX + orderId + ":idx";
+            Set<String> indexes = stringRedisTemplate.opsForSet().members(indexKey);
+            if (indexes != null && !indexes.isEmpty()) {
+                stringRedisTemplate.delete(indexes);
+            }
+            stringRedisTemplate.delete(indexKey);
+        }
+        stringRedisTemplate.delete(LEGACY_KEYSPACE);
+        log.info("Migrated {} orders from the @RedisHash layout", orders.size());
+    }
+
+    /**
+     * 아이디가 없는 주문은 새 주문으로 보고 create()로 저장한다.
+     * 이미 있는 주문을 다시 저장할 때는 묶인 수량을 바꾸지 않는다.
+     */
+    public Order save(Order order) {
+        if (order.getOrderId() == null) {
+            return create(order);
+        }
+        executeInTransaction(operations -> write(operations, order));
+        return order;
+    }
+
+    /**
+     * 새 주문을 저장한다. 아이디가 없으면 발급하고, 주문 journal처럼 미리 발급해 둔 아이디는 그대로 쓴다.
+     * 매도(ASK) 주문은 수량만큼 묶인 수량도 늘린다.
+     * 같은 MULTI에서 반영 표시(order:applied:{orderId})도 남기므로, 주문이 체결되거나 취소되어 지워진 뒤에도
+     * journal 복구가 이미 반영한 주문을 다시 반영하지 않는다.
+     */
+    public Order create(Order order) {
+        if (order.getOrderId() == null) {
+            order.setOrderId(orderIdAllocator.nextId());
+        }
+        executeInTransaction(operations -> {
+            write(operations, order);
+            lock(operations, order, order.getAmount());
+            operations.opsForValue().set(appliedKey(order.getOrderId()), "1", APPLIED_TTL);
+        });
+        return order;
+    }
+
+    /**
+     * 반영 중에 거절된 journal 주문에도 반영 표시를 남겨 복구할 때 다시 시도하지 않도록 한다.
+     */
+    public void markApplied(long orderId) {
+        stringRedisTemplate.opsForValue().set(appliedKey(orderId), "1", APPLIED_TTL);
+    }
+
+    /**
+     * create()로 저장했거나 거절되어 반영 표시가 남은 주문인지 확인한다.
+     */
+    public boolean isApplied(long orderId) {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(appliedKey(orderId)));
+    }
+
+    /**
+     * 이미 있는 주문의 지정가, 수량을 바꾼다. 매도(ASK) 주문은 바뀐 수량만큼 묶인 수량도 함께 바꾼다(scripts/amend.lua).
+     * 그 사이 주문이 취소되어 없으면 다시 만들지 않고 아무것도 쓰지 않는다.
+     * @return 바꾸었으면 true, 주문이 없으면 false
+     */
+    public boolean update(Order order, BigDecimal amountDelta) {
+        List<String> keys = List.of(
+                orderKey(order.getOrderId()),
+                bookKey(order.getCode(), order.getOrderType()),
+                LockedAmountRepository.lockedKey(order.getUserId()));
+        long lockedDelta = order.getOrderType() == TransactionType.ASK ? FixedPoint.valueOf(amountDelta) : 0;
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(order.getOrderId()));
+        args.add(String.valueOf(order.getLimit().doubleValue()));
+        args.add(order.getCode());
+        args.add(String.valueOf(lockedDelta));
+        toHash(order).forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long updated = stringRedisTemplate.execute(AMEND_SCRIPT, keys, args.toArray());
+        return Long.valueOf(1L).equals(updated);
+    }
+
+    public void saveAll(Iterable<Order> orders) {
+        List<Order> created = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getOrderId() == null) {
+                order.setOrderId(orderIdAllocator.nextId());
+                created.add(order);
+            }
+        }
+        executeInTransaction(operations -> {
+            for (Order order : orders) {
+                write(operations, order);
+            }
+            for (Order order : created) {
+                lock(operations, order, order.getAmount());
+            }
+        });
+    }
+
+    public Optional<Order> findById(long orderId) {
+        Map<String, String> hash = stringRedisTemplate.<String, String>opsForHash().entries(orderKey(orderId));
+        if (hash.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toOrder(orderId, hash));
+    }
+
+    /**
+     * 지정가 오름차순으로 조회한다.
+     */
+    public List<Order> findAllByOrderTypeAndCode(TransactionType orderType, String code) {
+        Set<String> orderIds = stringRedisTemplate.opsForZSet().range(bookKey(code, orderType), 0, -1);
+        return findAllById(orderIds);
+    }
+
+    public List<Order> findAllByUserId(Long userId) {
+        Set<String> orderIds = stringRedisTemplate.opsForSet().members(userKey(userId));
+        return findAllById(orderIds);
+    }
+
+    public List<Order> findAllByUserIdAndOrderTypeAndCode(Long userId, TransactionType orderType, String code) {
+        List<Order> orders = new ArrayList<>();
+        for (Order order : findAllByUserId(userId)) {
+            if (order.getOrderType() == orderType && order.getCode().equals(code)) {
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * 모든 마켓의 주문을 조회한다. 서버가 시작할 때 색인을 다시 만드는 용도로만 쓴다.
+     */
+    public List<Order> findAll() {
+        Set<String> orderIds = new LinkedHashSet<>();
+        for (String bookKey : scan(BOOK_KEY_PREFIX + "*")) {
+            Set<String> bookOrderIds = stringRedisTemplate.opsForZSet().range(bookKey, 0, -1);
+            if (bookOrderIds != null) {
+                orderIds.addAll(bookOrderIds);
+            }
+        }
+        return findAllById(orderIds);
+    }
+
+    /**
+     * 매도(ASK) 주문은 지우는 순간 Redis에 남아 있던 수량만큼 묶인 수량도 줄인다(scripts/cancel.lua).
+     * 넘겨받은 Order의 수량은 그 사이 체결, 정정으로 바뀌었을 수 있으므로 쓰지 않는다.
+     * @return 지운 순간의 미체결량과 지정가를 담은 주문. 그 사이 체결되거나 취소되어 없었으면 빈 값
+     */
+    public Optional<Order> delete(Order order) {
+        List<?> removed = stringRedisTemplate.execute(CANCEL_SCRIPT, cancelKeys(order), cancelArgs(order));
+        return Optional.ofNullable(toRemovedOrder(order, removed));
+    }
+
+    /**
+     * 주문들을 pipeline 한 번으로 삭제하고 매도(ASK) 주문에 묶인 수량도 함께 줄인다. 주문마다 cancel.lua로 원자적으로 지운다.
+     * @return 실제로 지운 주문들. 지운 순간의 미체결량과 지정가를 담는다.
+     */
+    public List<Order> deleteAll(Collection<Order> orders) {
+        List<Order> removedOrders = new ArrayList<>();
+        if (orders.isEmpty()) {
+            return removedOrders;
+        }
+        List<Order> targets = new ArrayList<>(orders);
+        List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (Order order : targets) {
+                    stringOperations.execute(CANCEL_SCRIPT, cancelKeys(order), cancelArgs(order));
+                }
+                return null;
+            }
+        });
+        for (int i = 0; i < targets.size(); i++) {
+            Order removed = toRemovedOrder(targets.get(i), (List<?>) results.get(i));
+            if (removed != null) {
+                removedOrders.add(removed);
+            }
+        }
+        return removedOrders;
+    }
+
+    /**
+     * 주문이 남아 있는 사용자 아이디를 조회한다. 묶인 수량을 다시 맞추는 용도로만 쓴다.
+     */
+    public Set<Long> findAllUserIds() {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (String userKey : scan(USER_KEY_PREFIX + "*")) {
+            userIds.add(Long.valueOf(userKey.substring(USER_KEY_PREFIX.length())));
+        }
+        return userIds;
+    }
+
+    public void deleteAll() {
+        List<String> keys = scan(ORDER_KEY_PREFIX + "*");
+        keys.remove(OrderIdAllocator.SEQUENCE_KEY);
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    static String orderKey(long orderId) {
+        return ORDER_KEY_PREFIX + orderId;
+    }
+
+    static String appliedKey(long orderId) {
+        return APPLIED_KEY_PREFIX + orderId;
+    }
+
+    static String bookKey(String code, TransactionType orderType) {
+        return BOOK_KEY_PREFIX + code + ":" + orderType.name();
+    }
+
+    static String userKey(long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    /**
+     * HGETALL을 pipeline으로 한 번에 보낸다. 그 사이 삭제된 주문은 빠진다.
+     */
+    private List<Order> findAllById(Collection<String> orderIds) {
+        List<Order> orders = new ArrayList<>();
+        if (orderIds == null || orderIds.isEmpty()) {
+            return orders;
+        }
+        List<String> ids = new ArrayList<>(orderIds);
+        List<Object> hashes = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (String orderId : ids) {
+                    stringOperations.opsForHash().entries(ORDER_KEY_PREFIX + orderId);
+                }
+                return null;
+            }
+        });
+        for (int i = 0; i < ids.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                orders.add(toOrder(Long.parseLong(ids.get(i)), hash));
+            }
+        }
+        return orders;
+    }
+
+    private void write(RedisOperations<String, String> operations, Order order) {
+        String orderId = String.valueOf(order.getOrderId());
+        operations.<String, String>opsForHash().putAll(orderKey(order.getOrderId()), toHash(order));
+        operations.opsForZSet().add(bookKey(order.getCode(), order.getOrderType()), orderId, order.getLimit().doubleValue());
+        operations.opsForSet().add(userKey(order.getUserId()), orderId);
+    }
+
+    private void lock(RedisOperations<String, String> operations, Order order, BigDecimal amount) {
+        if (order.getOrderType() != TransactionType.ASK) {
+            return;
+        }
+        operations.opsForHash().increment(LockedAmountRepository.lockedKey(order.getUserId()), order.getCode(), FixedPoint.valueOf(amount));
+    }
+
+    private List<String> cancelKeys(Order order) {
+        return List.of(
+                orderKey(order.getOrderId()),
+                bookKey(order.getCode(), order.getOrderType()),
+                userKey(order.getUserId()),
+                LockedAmountRepository.lockedKey(order.getUserId()));
+    }
+
+    private Object[] cancelArgs(Order order) {
+        return new Object[]{String.valueOf(order.getOrderId()), order.getCode()};
+    }
+
+    private Order toRemovedOrder(Order order, List<?> removed) {
+        if (removed == null || removed.isEmpty()) {
+            return null;
+        }
+        return Order.builder()
+                .orderId(order.getOrderId())
+                .amount(new BigDecimal(String.valueOf(removed.get(0))))
+                .limit(new BigDecimal(String.valueOf(removed.get(1))))
+                .market(order.getMarket())
+                .orderTime(order.getOrderTime())
+                .orderType(order.getOrderType())
+                .userId(order.getUserId())
+                .code(order.getCode())
+                .expireTime(order.getExpireTime())
+                .build();
+    }
+
+    private void executeInTransaction(OrderOperations orderOperations) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.multi();
+                orderOperations.execute(stringOperations);
+                stringOperations.exec();
+                return null;
+            }
+        });
+    }
+
+    private List<String> scan(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> scan(connection, pattern));
+    }
+
+    private List<String> scan(RedisConnection connection, String pattern) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+        try (Cursor<byte[]> cursor = connection.scan(options)) {
+            while (cursor.hasNext()) {
+                keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+            }
+        }
+        return keys;
+    }
+
+    private Map<String, String> toHash(Order order) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("limit", order.getLimit().toPlainString());
+        hash.put("amount", order.getAmount().toPlainString());
+        hash.put("orderType", order.getOrderType().name());
+        hash.put("userId", String.valueOf(order.getUserId()));
+        hash.put("code", order.getCode());
+        if (order.getMarket() != null) {
+            hash.put("market", order.getMarket().toPlainString());
+        }
+        if (order.getOrderTime() != null) {
+            hash.put("orderTime", order.getOrderTime().toString());
+        }
+        if (order.getExpireTime() != null) {
+            hash.put("expireTime", order.getExpireTime().toString());
+        }
+        return hash;
+    }
+
+    private Order toOrder(long orderId, Map<String, String> hash) {
+        String market = hash.get("market");
+        String orderTime = hash.get("orderTime");
+        String expireTime = hash.get("expireTime");
+        return Order.builder()
+                .orderId(orderId)
+                .limit(new BigDecimal(hash.get("limit")))
+                .market(market == null ? null : new BigDecimal(market))
+                .amount(new BigDecimal(hash.get("amount")))
+                .orderTime(orderTime == null ? null : LocalDateTime.parse(orderTime))
+                .orderType(TransactionType.valueOf(hash.get("orderType")))
+                .userId(Long.valueOf(hash.get("userId")))
+                .code(hash.get("code"))
+                .expireTime(expireTime == null ? null : LocalDateTime.parse(expireTime))
+                .build();
+    }
+
+    private interface OrderOperations {
+        void execute(RedisOperations<String, String> operations);
+    }
 }
@@ -0,0 +1,141 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 체결 묶음을 Redis(fill.lua)에 반영하기 전에 먼저 기록해 두는 outbox.
+ * <pre>
+ *     settlement:outbox              sorted set. member: 묶음 아이디, score: 기록한 시각 (ms)
+ *     settlement:outbox:{batchId}    fill:{i}: 체결 i, applied:{i}: fill.lua가 체결 i를 반영했다는 표시
+ * </pre>
+ * fill.lua는 체결을 반영하는 스크립트 안에서 applied:{i}를 함께 남기므로, 서버가 어느 단계에서 멈추더라도
+ * outbox만 읽으면 Redis에 반영된 체결을 그대로 다시 만들어 MySQL에 정산할 수 있다. 정산이 끝난 묶음은 지운다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettlementOutboxRepository {
+    private static final String INDEX_KEY = "settlement:outbox";
+    private static final String FILL_FIELD_PREFIX = "fill:";
+    private static final String APPLIED_FIELD_PREFIX = "applied:";
+    private static final String DELIMITER = "|";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public static String outboxKey(String batchId) {
+        return INDEX_KEY + ":" + batchId;
+    }
+
+    public static String appliedField(int index) {
+        return APPLIED_FIELD_PREFIX + index;
+    }
+
+    /**
+     * 체결 묶음을 기록하고 묶음 아이디를 리턴한다. 주문의 미체결량은 체결 뒤에 바뀌므로 체결 후 미체결량으로 기록한다.
+     */
+    public String save(List<Fill> fills) {
+        String batchId = UUID.randomUUID().toString();
+        Map<String, String> hash = new HashMap<>();
+        for (int i = 0; i < fills.size(); i++) {
+            hash.put(FILL_FIELD_PREFIX + i, encode(fills.get(i)));
+        }
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.multi();
+                stringOperations.opsForHash().putAll(outboxKey(batchId), hash);
+                stringOperations.opsForZSet().add(INDEX_KEY, batchId, System.currentTimeMillis());
+                return stringOperations.exec();
+            }
+        });
+        return batchId;
+    }
+
+    /**
+     * timeMillis 이전에 기록한 묶음의 아이디를 기록한 순서대로 조회한다.
+     */
+    public List<String> findIdsBefore(long timeMillis) {
+        Set<String> batchIds = stringRedisTemplate.opsForZSet().rangeByScore(INDEX_KEY, 0, timeMillis);
+        return batchIds == null ? List.of() : new ArrayList<>(batchIds);
+    }
+
+    /**
+     * 묶음의 체결 중 fill.lua가 반영한 체결만 원래 순서대로 조회한다.
+     */
+    public List<Fill> findAppliedFills(String batchId) {
+        Map<Object, Object> hash = stringRedisTemplate.opsForHash().entries(outboxKey(batchId));
+        List<Fill> fills = new ArrayList<>();
+        for (int i = 0; hash.containsKey(FILL_FIELD_PREFIX + i); i++) {
+            if (hash.containsKey(appliedField(i))) {
+                fills.add(decode((String) hash.get(FILL_FIELD_PREFIX + i)));
+            }
+        }
+        return fills;
+    }
+
+    public void delete(String batchId) {
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.multi();
+                stringOperations.delete(outboxKey(batchId));
+                stringOperations.opsForZSet().remove(INDEX_KEY, batchId);
+                return stringOperations.exec();
+            }
+        });
+    }
+
+    /**
+     * orderId|userId|code|orderType|limit|orderTime|price|amount|remainingAmount
+     * 즉시 체결 주문은 orderId와 limit이 빈 문자열이다.
+     */
+    private static String encode(Fill fill) {
+        Order order = fill.getOrder();
+        return String.join(DELIMITER,
+                fill.isResting() ? String.valueOf(order.getOrderId()) : "",
+                String.valueOf(fill.getUserId()),
+                fill.getCode(),
+                fill.getOrderType().name(),
+                order.getLimit() == null ? "" : order.getLimit().toPlainString(),
+                order.getOrderTime() == null ? "" : order.getOrderTime().toString(),
+                fill.getPrice().toPlainString(),
+                fill.getAmount().toPlainString(),
+                fill.getRemainingAmount().toPlainString());
+    }
+
+    private static Fill decode(String value) {
+        String[] fields = value.split("\\" + DELIMITER, -1);
+        BigDecimal amount = new BigDecimal(fields[7]);
+        Order order = Order.builder()
+                .orderId(fields[0].isEmpty() ? null : Long.parseLong(fields[0]))
+                .userId(Long.parseLong(fields[1]))
+                .code(fields[2])
+                .orderType(TransactionType.valueOf(fields[3]))
+                .limit(fields[4].isEmpty() ? null : new BigDecimal(fields[4]))
+                .market(BigDecimal.ZERO)
+                .orderTime(fields[5].isEmpty() ? null : LocalDateTime.parse(fields[5]))
+                .amount(new BigDecimal(fields[8]).add(amount))
+                .build();
+        return new Fill(order, new BigDecimal(fields[6]), amount);
+    }
+}
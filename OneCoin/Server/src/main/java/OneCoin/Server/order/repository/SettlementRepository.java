@@ -0,0 +1,78 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.TransactionHistory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 체결 정산의 MySQL 쓰기를 JDBC batch로 한 번에 보낸다.
+ * 호출하는 쪽의 트랜잭션에 참여하므로 잔액과 투자 내역이 함께 커밋된다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SettlementRepository {
+    private static final String INSERT_SETTLEMENT_SQL =
+            "INSERT IGNORE INTO settlement (settlement_id, created_at) VALUES (?, ?)";
+    private static final String ADD_BALANCE_SQL =
+            "UPDATE balance SET balance = balance + ?, last_modified_at = ? WHERE balance_user_id = ?";
+    private static final String INSERT_TRANSACTION_HISTORY_SQL =
+            "INSERT INTO transaction_history (transaction_type, amount, price, total_amount, commission, " +
+                    "settled_amount, order_time, user_id, coin_id, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 체결 묶음을 정산했다고 기록한다. 잔액, 투자 내역과 같은 트랜잭션에서 먼저 호출한다.
+     * @return 이미 정산한 묶음이면 false
+     */
+    public boolean insertSettlement(String settlementId) {
+        return jdbcTemplate.update(INSERT_SETTLEMENT_SQL, settlementId, Timestamp.valueOf(LocalDateTime.now())) == 1;
+    }
+
+    /**
+     * 사용자별 잔액 증가분을 더한다.
+     * @param amounts key: userId, value: 더할 금액
+     */
+    public void addBalances(Map<Long, BigDecimal> amounts) {
+        if (amounts.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(amounts.size());
+        for (Map.Entry<Long, BigDecimal> amount : amounts.entrySet()) {
+            args.add(new Object[]{amount.getValue(), now, amount.getKey()});
+        }
+        jdbcTemplate.batchUpdate(ADD_BALANCE_SQL, args);
+    }
+
+    public void saveTransactionHistories(List<TransactionHistory> transactionHistories) {
+        if (transactionHistories.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = new ArrayList<>(transactionHistories.size());
+        for (TransactionHistory history : transactionHistories) {
+            args.add(new Object[]{
+                    history.getTransactionType().name(),
+                    history.getAmount(),
+                    history.getPrice(),
+                    history.getTotalAmount(),
+                    history.getCommission(),
+                    history.getSettledAmount(),
+                    Timestamp.valueOf(history.getOrderTime()),
+                    history.getUser().getUserId(),
+                    history.getCoin().getCoinId(),
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_HISTORY_SQL, args);
+    }
+}
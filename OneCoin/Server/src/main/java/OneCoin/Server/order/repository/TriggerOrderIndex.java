@@ -0,0 +1,167 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.TriggerOrder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 감시 주문 아이디를 마켓별로 감시 가격 순서대로 정렬해 둔 node-local 색인.
+ * 감시 주문은 등록할 때의 직전 체결 가격을 기준으로 방향이 정해진다. 감시 가격이 더 높으면 가격이 올라서, 더 낮으면 내려서 닿을 때만 발동한다.
+ * 방향별로 따로 정렬해 두고 가격이 움직인 쪽에서 이번 체결 가격까지 지나간 감시 가격만 잘라내므로
+ * 체결 한 번에 O(log n + k)로 발동할 감시 주문을 찾는다.
+ * 감시 주문 자체는 Redis에 있으므로 색인은 아이디만 들고 있고, 서버가 시작할 때 Redis의 감시 주문으로 다시 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TriggerOrderIndex {
+    private final TriggerOrderRepository triggerOrderRepository;
+    private final ConcurrentMap<String, Book> books = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void rebuild() {
+        books.clear();
+        entries.clear();
+        int count = 0;
+        for (TriggerOrder triggerOrder : triggerOrderRepository.findAll()) {
+            add(triggerOrder);
+            count++;
+        }
+        log.info("Indexed {} trigger orders", count);
+    }
+
+    public void add(TriggerOrder triggerOrder) {
+        long triggerId = triggerOrder.getTriggerId();
+        Entry entry = new Entry(triggerOrder.getCode(), triggerOrder.getStopPrice());
+        entries.put(triggerId, entry);
+        getBook(entry.code).add(entry.stopPrice, triggerId);
+    }
+
+    public void removeById(long triggerId) {
+        Entry entry = entries.remove(triggerId);
+        if (entry == null) {
+            return;
+        }
+        Book book = books.get(entry.code);
+        if (book != null) {
+            book.remove(entry.stopPrice, triggerId);
+        }
+    }
+
+    /**
+     * 마켓의 체결 가격을 갱신하고, 이번 체결 가격에 닿은 감시 주문을 색인에서 꺼낸다.
+     * 가격이 오르면 오름 방향 감시 주문 중 감시 가격이 이번 가격 이하인 것이, 내리면 내림 방향 감시 주문 중 이번 가격 이상인 것이 발동된다.
+     * 등록할 때 감시 가격이 직전 체결 가격과 같았던 감시 주문은 방향과 상관없이 다음 체결에서 발동된다.
+     * 마켓의 첫 체결 전에 등록된 감시 주문은 첫 체결 가격으로 방향을 정하고, 감시 가격이 첫 체결 가격과 같으면 바로 발동된다.
+     * @return 발동된 감시 주문 아이디. 가격이 움직인 방향으로 가까운 감시 가격부터 정렬된다.
+     */
+    public List<Long> advance(String code, BigDecimal price) {
+        List<Long> triggerIds = getBook(code).advance(price);
+        for (Long triggerId : triggerIds) {
+            entries.remove(triggerId);
+        }
+        return triggerIds;
+    }
+
+    private Book getBook(String code) {
+        Book book = books.get(code);
+        if (book == null) {
+            book = books.computeIfAbsent(code, key -> new Book());
+        }
+        return book;
+    }
+
+    @RequiredArgsConstructor
+    private static class Entry {
+        private final String code;
+        private final BigDecimal stopPrice;
+    }
+
+    private static class Book {
+        private final NavigableMap<BigDecimal, Set<Long>> risingTriggers = new TreeMap<>();
+        private final NavigableMap<BigDecimal, Set<Long>> fallingTriggers = new TreeMap<>();
+        private final Map<Long, BigDecimal> unclassified = new LinkedHashMap<>();
+        private final Set<Long> reached = new LinkedHashSet<>();
+        private BigDecimal lastPrice;
+
+        synchronized void add(BigDecimal stopPrice, long triggerId) {
+            if (lastPrice == null) {
+                unclassified.put(triggerId, stopPrice);
+                return;
+            }
+            classify(stopPrice, triggerId, lastPrice);
+        }
+
+        synchronized void remove(BigDecimal stopPrice, long triggerId) {
+            unclassified.remove(triggerId);
+            reached.remove(triggerId);
+            remove(risingTriggers, stopPrice, triggerId);
+            remove(fallingTriggers, stopPrice, triggerId);
+        }
+
+        synchronized List<Long> advance(BigDecimal price) {
+            BigDecimal prevPrice = lastPrice;
+            lastPrice = price;
+            if (prevPrice == null) {
+                unclassified.forEach((triggerId, stopPrice) -> classify(stopPrice, triggerId, price));
+                unclassified.clear();
+            }
+            List<Long> triggerIds = new ArrayList<>(reached);
+            reached.clear();
+            if (prevPrice == null) {
+                return triggerIds;
+            }
+            int comparison = price.compareTo(prevPrice);
+            if (comparison > 0) {
+                drain(risingTriggers.headMap(price, true), triggerIds);
+            } else if (comparison < 0) {
+                drain(fallingTriggers.tailMap(price, true).descendingMap(), triggerIds);
+            }
+            return triggerIds;
+        }
+
+        private void classify(BigDecimal stopPrice, long triggerId, BigDecimal referencePrice) {
+            int comparison = stopPrice.compareTo(referencePrice);
+            if (comparison > 0) {
+                risingTriggers.computeIfAbsent(stopPrice, key -> new LinkedHashSet<>()).add(triggerId);
+            } else if (comparison < 0) {
+                fallingTriggers.computeIfAbsent(stopPrice, key -> new LinkedHashSet<>()).add(triggerId);
+            } else {
+                reached.add(triggerId);
+            }
+        }
+
+        private static void remove(NavigableMap<BigDecimal, Set<Long>> triggers, BigDecimal stopPrice, long triggerId) {
+            Set<Long> triggerIds = triggers.get(stopPrice);
+            if (triggerIds == null) {
+                return;
+            }
+            triggerIds.remove(triggerId);
+            if (triggerIds.isEmpty()) {
+                triggers.remove(stopPrice);
+            }
+        }
+
+        private static void drain(NavigableMap<BigDecimal, Set<Long>> crossed, List<Long> triggerIds) {
+            for (Set<Long> level : crossed.values()) {
+                triggerIds.addAll(level);
+            }
+            crossed.clear();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.TriggerOrder;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 감시 주문을 Redis에 저장한다.
+ * <pre>
+ *     trigger:{triggerId}         감시 주문 hash
+ *     trigger:user:{userId}       사용자의 감시 주문 아이디 SET
+ * </pre>
+ * 감시 가격 순서는 node-local TriggerOrderIndex가 관리하므로 Redis에는 정렬된 색인을 두지 않는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TriggerOrderRepository {
+    private static final String TRIGGER_KEY_PREFIX = "trigger:";
+    private static final String USER_KEY_PREFIX = "trigger:user:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final OrderIdAllocator orderIdAllocator;
+
+    /**
+     * 아이디가 없으면 주문 아이디와 같은 sequence에서 발급한다.
+     */
+    public TriggerOrder save(TriggerOrder triggerOrder) {
+        if (triggerOrder.getTriggerId() == null) {
+            triggerOrder.setTriggerId(orderIdAllocator.nextId());
+        }
+        String triggerId = String.valueOf(triggerOrder.getTriggerId());
+        executeInTransaction(operations -> {
+            operations.<String, String>opsForHash().putAll(triggerKey(triggerOrder.getTriggerId()), toHash(triggerOrder));
+            operations.opsForSet().add(userKey(triggerOrder.getUserId()), triggerId);
+        });
+        return triggerOrder;
+    }
+
+    public Optional<TriggerOrder> findById(long triggerId) {
+        Map<String, String> hash = stringRedisTemplate.<String, String>opsForHash().entries(triggerKey(triggerId));
+        if (hash.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(toTriggerOrder(triggerId, hash));
+    }
+
+    public List<TriggerOrder> findAllByUserId(long userId) {
+        return findAllById(stringRedisTemplate.opsForSet().members(userKey(userId)));
+    }
+
+    /**
+     * 모든 감시 주문을 조회한다. 서버가 시작할 때 색인을 다시 만드는 용도로만 쓴다.
+     */
+    public List<TriggerOrder> findAll() {
+        Set<String> triggerIds = new LinkedHashSet<>();
+        for (String userKey : scan(USER_KEY_PREFIX + "*")) {
+            Set<String> userTriggerIds = stringRedisTemplate.opsForSet().members(userKey);
+            if (userTriggerIds != null) {
+                triggerIds.addAll(userTriggerIds);
+            }
+        }
+        return findAllById(triggerIds);
+    }
+
+    /**
+     * @return 이 호출이 감시 주문을 지웠는지 여부. 이미 발동되었거나 취소되어 없으면 false
+     */
+    public boolean delete(TriggerOrder triggerOrder) {
+        Long removed = stringRedisTemplate.opsForSet().remove(userKey(triggerOrder.getUserId()), String.valueOf(triggerOrder.getTriggerId()));
+        stringRedisTemplate.delete(triggerKey(triggerOrder.getTriggerId()));
+        return removed != null && removed > 0;
+    }
+
+    static String triggerKey(long triggerId) {
+        return TRIGGER_KEY_PREFIX + triggerId;
+    }
+
+    static String userKey(long userId) {
+        return USER_KEY_PREFIX + userId;
+    }
+
+    private List<TriggerOrder> findAllById(Collection<String> triggerIds) {
+        List<TriggerOrder> triggerOrders = new ArrayList<>();
+        if (triggerIds == null || triggerIds.isEmpty()) {
+            return triggerOrders;
+        }
+        List<String> ids = new ArrayList<>(triggerIds);
+        List<Object> hashes = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                for (String triggerId : ids) {
+                    stringOperations.opsForHash().entries(TRIGGER_KEY_PREFIX + triggerId);
+                }
+                return null;
+            }
+        });
+        for (int i = 0; i < ids.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> hash = (Map<String, String>) hashes.get(i);
+            if (hash != null && !hash.isEmpty()) {
+                triggerOrders.add(toTriggerOrder(Long.parseLong(ids.get(i)), hash));
+            }
+        }
+        return triggerOrders;
+    }
+
+    private void executeInTransaction(TriggerOperations triggerOperations) {
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> stringOperations = (RedisOperations<String, String>) operations;
+                stringOperations.multi();
+                triggerOperations.execute(stringOperations);
+                stringOperations.exec();
+                return null;
+            }
+        });
+    }
+
+    private List<String> scan(String pattern) {
+        return stringRedisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                while (cursor.hasNext()) {
+                    keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return keys;
+        });
+    }
+
+    private Map<String, String> toHash(TriggerOrder triggerOrder) {
+        Map<String, String> hash = new HashMap<>();
+        hash.put("stopPrice", triggerOrder.getStopPrice().toPlainString());
+        hash.put("limit", triggerOrder.getLimit().toPlainString());
+        hash.put("amount", triggerOrder.getAmount().toPlainString());
+        hash.put("orderType", triggerOrder.getOrderType().name());
+        hash.put("userId", String.valueOf(triggerOrder.getUserId()));
+        hash.put("code", triggerOrder.getCode());
+        if (triggerOrder.getOrderTime() != null) {
+            hash.put("orderTime", triggerOrder.getOrderTime().toString());
+        }
+        return hash;
+    }
+
+    private TriggerOrder toTriggerOrder(long triggerId, Map<String, String> hash) {
+        String orderTime = hash.get("orderTime");
+        return TriggerOrder.builder()
+                .triggerId(triggerId)
+                .stopPrice(new BigDecimal(hash.get("stopPrice")))
+                .limit(new BigDecimal(hash.get("limit")))
+                .amount(new BigDecimal(hash.get("amount")))
+                .orderTime(orderTime == null ? null : LocalDateTime.parse(orderTime))
+                .orderType(TransactionType.valueOf(hash.get("orderType")))
+                .userId(Long.valueOf(hash.get("userId")))
+                .code(hash.get("code"))
+                .build();
+    }
+
+    private interface TriggerOperations {
+        void execute(RedisOperations<String, String> operations);
+    }
+}
@@ -0,0 +1,45 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 즉시 체결 주문의 지연 시간을 트랜잭션 바깥에서 측정한다.
+ * ImmediateOrderService 는 @Transactional 이므로, 그 프록시를 감싸서 호출해야 커밋까지 포함한 시간이 기록된다.
+ */
+@Service
+public class ImmediateOrderFacade {
+    private static final String LATENCY_METRIC = "order.immediate.latency";
+
+    private final ImmediateOrderService immediateOrderService;
+    private final Timer bidTimer;
+    private final Timer askTimer;
+
+    public ImmediateOrderFacade(ImmediateOrderService immediateOrderService, MeterRegistry meterRegistry) {
+        this.immediateOrderService = immediateOrderService;
+        this.bidTimer = createTimer(TransactionType.BID, meterRegistry);
+        this.askTimer = createTimer(TransactionType.ASK, meterRegistry);
+    }
+
+    /**
+     * @see ImmediateOrderService#createImmediateOrder(Order, long, String)
+     */
+    public List<Fill> createImmediateOrder(Order order, long userId, String code) {
+        Timer timer = order.getOrderType() == TransactionType.BID ? bidTimer : askTimer;
+        return timer.record(() -> immediateOrderService.createImmediateOrder(order, userId, code));
+    }
+
+    private static Timer createTimer(TransactionType orderType, MeterRegistry meterRegistry) {
+        return Timer.builder(LATENCY_METRIC)
+                .tag("orderType", orderType.name())
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.balance.service.BalanceService;
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.upbit.dto.orderbook.AskInfo;
+import OneCoin.Server.upbit.dto.orderbook.BidInfo;
+import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
+import OneCoin.Server.upbit.repository.OrderBookRepository;
+import OneCoin.Server.utils.CalculationUtil;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 시장가 주문과 IOC 지정가 주문을 주문 시점의 호가로 바로 체결한다.
+ * 캐시된 최신 OrderBookDto의 호가를 유리한 가격부터 차례로 소진하고, 체결되지 않은 수량은 미체결로 남기지 않고 취소한다.
+ * upbit 호가는 시세를 흉내 내는 용도일 뿐이므로 체결한 수량만큼 캐시의 호가를 줄이지는 않는다.
+ */
+@Service
+@Transactional
+public class ImmediateOrderService {
+    private final CoinService coinService;
+    private final WalletService walletService;
+    private final OrderService orderService;
+    private final BalanceService balanceService;
+    private final OrderBookRepository orderBookRepository;
+    private final SettlementService settlementService;
+    private final CalculationUtil calculationUtil;
+
+    public ImmediateOrderService(CoinService coinService,
+                                 WalletService walletService,
+                                 OrderService orderService,
+                                 BalanceService balanceService,
+                                 OrderBookRepository orderBookRepository,
+                                 SettlementService settlementService,
+                                 CalculationUtil calculationUtil) {
+        this.coinService = coinService;
+        this.walletService = walletService;
+        this.orderService = orderService;
+        this.balanceService = balanceService;
+        this.orderBookRepository = orderBookRepository;
+        this.settlementService = settlementService;
+        this.calculationUtil = calculationUtil;
+    }
+
+    /**
+     * 주문을 즉시 체결하고 정산한다.
+     * 매도(ASK) 주문: 주문 수량 전체를 팔 수 있는지 먼저 확인한다.
+     * 매수(BID) 주문: 실제 체결 금액 + 수수료만큼 잔액에서 차감한다.
+     * @return 호가 단위별 체결. 체결되지 않은 수량은 취소된다.
+     * @throws BusinessLogicException 캐시와 Redis 어디에도 호가가 없을 경우
+     */
+    public List<Fill> createImmediateOrder(Order order, long userId, String code) {
+        coinService.findCoin(code);
+        order.setUserId(userId);
+        order.setCode(code);
+
+        if (order.getOrderType() == TransactionType.ASK) {
+            Wallet myWallet = walletService.findMyVerifiedWallet(userId, code);
+            orderService.verifyWalletAmount(myWallet, order.getAmount());
+        }
+        OrderBookDto orderBook = orderBookRepository.findOrderBookByCode(code);
+        if (orderBook == null) {
+            throw new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER_BOOK);
+        }
+
+        List<Fill> fills = matchOrderBook(order, orderBook);
+        if (fills.isEmpty()) {
+            return fills;
+        }
+        if (order.getOrderType() == TransactionType.BID) {
+            balanceService.updateBalanceByBid(userId, getTotalBidPrice(fills));
+        }
+        settlementService.settle(fills);
+        return fills;
+    }
+
+    /**
+     * 매수 주문은 매도 호가를 낮은 가격부터, 매도 주문은 매수 호가를 높은 가격부터 소진한다.
+     * 지정가가 있는 주문은 지정가보다 불리한 호가에서 멈춘다.
+     */
+    List<Fill> matchOrderBook(Order order, OrderBookDto orderBook) {
+        List<Level> levels = order.getOrderType() == TransactionType.BID
+                ? getAskLevels(orderBook)
+                : getBidLevels(orderBook);
+        List<Fill> fills = new ArrayList<>();
+        BigDecimal remaining = order.getAmount();
+        for (Level level : levels) {
+            if (remaining.signum() <= 0 || !isFillable(order, level.price)) {
+                break;
+            }
+            BigDecimal amount = remaining.min(level.size);
+            if (amount.signum() <= 0) {
+                continue;
+            }
+            fills.add(new Fill(order, level.price, amount));
+            remaining = remaining.subtract(amount);
+        }
+        return fills;
+    }
+
+    private boolean isFillable(Order order, BigDecimal price) {
+        if (order.isMarketOrder()) {
+            return true;
+        }
+        int comparison = price.compareTo(order.getLimit());
+        return order.getOrderType() == TransactionType.BID ? comparison <= 0 : comparison >= 0;
+    }
+
+    private List<Level> getAskLevels(OrderBookDto orderBook) {
+        List<Level> levels = new ArrayList<>();
+        if (orderBook.getAskInfo() != null) {
+            for (AskInfo askInfo : orderBook.getAskInfo()) {
+                levels.add(new Level(new BigDecimal(askInfo.getAskPrice()), new BigDecimal(askInfo.getAskSize())));
+            }
+        }
+        levels.sort(Comparator.comparing(level -> level.price));
+        return levels;
+    }
+
+    private List<Level> getBidLevels(OrderBookDto orderBook) {
+        List<Level> levels = new ArrayList<>();
+        if (orderBook.getBidInfo() != null) {
+            for (BidInfo bidInfo : orderBook.getBidInfo()) {
+                levels.add(new Level(new BigDecimal(bidInfo.getBidPrice()), new BigDecimal(bidInfo.getBidSize())));
+            }
+        }
+        levels.sort(Comparator.comparing((Level level) -> level.price).reversed());
+        return levels;
+    }
+
+    private BigDecimal getTotalBidPrice(List<Fill> fills) {
+        BigDecimal totalBidPrice = BigDecimal.ZERO;
+        for (Fill fill : fills) {
+            totalBidPrice = totalBidPrice.add(calculationUtil.calculateByAddingCommission(fill.getPrice(), fill.getAmount()));
+        }
+        return totalBidPrice;
+    }
+
+    private static class Level {
+        private final BigDecimal price;
+        private final BigDecimal size;
+
+        private Level(BigDecimal price, BigDecimal size) {
+            this.price = price;
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.order.repository.OrderExpiryIndex;
+import OneCoin.Server.upbit.service.MatchingScheduler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 만료된 주문을 해당 마켓의 체결 lane에서 취소하므로, 같은 주문의 체결과 만료가 동시에 처리되지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderExpiryScheduler {
+    private final OrderExpiryIndex orderExpiryIndex;
+    private final OrderService orderService;
+    private final MatchingScheduler matchingScheduler;
+
+    @Scheduled(fixedDelayString = "${order.expiry.tick-millis:1000}")
+    public void expireOrders() {
+        for (OrderExpiryIndex.Expiry expiry : orderExpiryIndex.pollExpired(System.currentTimeMillis())) {
+            matchingScheduler.submit(expiry.getCode(), () -> orderService.expireOrder(expiry.getOrderId()));
+        }
+    }
+}
@@ -7,13 +7,19 @@ import OneCoin.Server.exception.ExceptionCode;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
 import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.order.repository.OrderExpiryIndex;
 import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.upbit.service.MatchingScheduler;
 import OneCoin.Server.utils.CalculationUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,21 +28,28 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
+    private final LockedAmountRepository lockedAmountRepository;
+    private final OpenOrderIndex openOrderIndex;
+    private final OrderExpiryIndex orderExpiryIndex;
     private final CoinService coinService;
     private final WalletService walletService;
     private final CalculationUtil calculationUtil;
     private final BalanceService balanceService;
+    private final MatchingScheduler matchingScheduler;
 
     /**
      * 주문을 생성한다.
      * 매도(ASK) 주문: 사용자의 지갑에서 코인 보유량을 확인한다.
      * 매수(BID) 주문: 사용자의 잔액에서 주문 금액만큼 선차감한다.
+     * 만료 시각이 있는 주문은 만료 색인에도 등록한다.
      * @param order 주문
      * @param userId 사용자 아이디
      * @param code 코인 코드
+     * @throws BusinessLogicException 만료 시각이 이미 지났을 경우
      */
     public void createOrder(Order order, long userId, String code) {
         coinService.findCoin(code);
+        verifyExpireTime(order);
 
         if (order.getOrderType().equals(TransactionType.ASK)) {
             Wallet myWallet = walletService.findMyVerifiedWallet(userId, code);
@@ -47,7 +60,56 @@ public class OrderService {
         }
         order.setUserId(userId);
         order.setCode(code);
-        orderRepository.save(order);
+        orderRepository.create(order);
+        openOrderIndex.add(order);
+        orderExpiryIndex.add(order);
+    }
+
+    /**
+     * 같은 코인의 지정가 주문 여러 개를 한 번에 생성한다.
+     * 코인 조회, 매도 가능 수량 확인, 매수 금액 선차감을 주문 전체에 대해 한 번씩만 하고, 주문은 pipeline 한 번으로 저장한다.
+     * @throws BusinessLogicException 시장가 주문이 섞여 있을 경우
+     */
+    public void createOrders(List<Order> orders, long userId, String code) {
+        coinService.findCoin(code);
+
+        BigDecimal totalAskAmount = BigDecimal.ZERO;
+        BigDecimal totalBidPrice = BigDecimal.ZERO;
+        for (Order order : orders) {
+            if (order.isMarketOrder()) {
+                throw new BusinessLogicException(ExceptionCode.NOT_LIMIT_ORDER);
+            }
+            verifyExpireTime(order);
+            if (order.getOrderType().equals(TransactionType.ASK)) {
+                totalAskAmount = totalAskAmount.add(order.getAmount());
+            }
+            if (order.getOrderType().equals(TransactionType.BID)) {
+                totalBidPrice = totalBidPrice.add(calculationUtil.calculateByAddingCommission(order.getLimit(), order.getAmount()));
+            }
+            order.setUserId(userId);
+            order.setCode(code);
+        }
+        if (totalAskAmount.signum() > 0) {
+            Wallet myWallet = walletService.findMyVerifiedWallet(userId, code);
+            verifyWalletAmount(myWallet, totalAskAmount);
+        }
+        if (totalBidPrice.signum() > 0) {
+            balanceService.updateBalanceByBid(userId, totalBidPrice);
+        }
+        orderRepository.saveAll(orders);
+        for (Order order : orders) {
+            openOrderIndex.add(order);
+            orderExpiryIndex.add(order);
+        }
+    }
+
+    /**
+     * @throws BusinessLogicException 만료 시각이 이미 지났을 경우
+     */
+    private void verifyExpireTime(Order order) {
+        if (order.getExpireTime() != null && !order.getExpireTime().isAfter(LocalDateTime.now())) {
+            throw new BusinessLogicException(ExceptionCode.NOT_CORRECT_PERIOD);
+        }
     }
 
     /**
@@ -64,15 +126,10 @@ public class OrderService {
     }
 
     /**
-     * 미체결된 매도 코인량을 가져온다.
+     * 미체결된 매도 코인량을 가져온다. 주문 수와 상관없이 Redis의 묶인 수량 hash 필드 하나만 읽는다.
      */
     private BigDecimal getPrevAskOrderAmount(long userId, String code) {
-        List<Order> prevAskOrders = orderRepository.findAllByUserIdAndOrderTypeAndCode(userId, TransactionType.ASK, code);
-        BigDecimal amount = BigDecimal.ZERO;
-        for (Order order : prevAskOrders) {
-            amount = amount.add(order.getAmount());
-        }
-        return amount;
+        return lockedAmountRepository.findLockedAmount(userId, code);
     }
 
     /**
@@ -107,10 +164,128 @@ public class OrderService {
         Order order = findVerifiedOrder(orderId);
         verifyUserOrder(order, userId);
 
+        cancel(order);
+    }
+
+    /**
+     * 미체결 주문의 지정가와 수량을 취소 없이 바꾼다. null인 값은 바꾸지 않는다.
+     * 매수(BID) 주문은 선차감한 금액의 차이만, 매도(ASK) 주문은 묶인 수량의 차이만 조정한다.
+     * 지정가가 그대로이고 수량만 줄어들면 체결 순서를 유지하고, 그 외에는 같은 가격의 가장 뒤로 간다.
+     * 체결과 동시에 바뀌지 않도록 해당 마켓의 체결 lane에서 처리하고, 그 사이 취소된 주문은 다시 만들지 않는다.
+     * @param orderId 주문 아이디
+     * @param userId 사용자 아이디
+     * @param changes 바꿀 지정가(limit)와 수량(amount)
+     * @throws BusinessLogicException 잔액 또는 매도 가능 수량이 부족하거나 주문이 취소된 경우
+     */
+    public Order amendOrder(long orderId, long userId, Order changes) {
+        Order order = findVerifiedOrder(orderId);
+        verifyUserOrder(order, userId);
+
+        return matchingScheduler.call(order.getCode(), () -> amend(orderId, userId, changes));
+    }
+
+    private Order amend(long orderId, long userId, Order changes) {
+        Order order = findVerifiedOrder(orderId);
+        BigDecimal limit = changes.getLimit() == null ? order.getLimit() : changes.getLimit();
+        BigDecimal amount = changes.getAmount() == null ? order.getAmount() : changes.getAmount();
+        boolean limitChanged = limit.compareTo(order.getLimit()) != 0;
+        BigDecimal amountDelta = amount.subtract(order.getAmount());
+        if (!limitChanged && amountDelta.signum() == 0) {
+            return order;
+        }
+
+        if (order.getOrderType().equals(TransactionType.ASK) && amountDelta.signum() > 0) {
+            Wallet myWallet = walletService.findMyVerifiedWallet(userId, order.getCode());
+            verifyWalletAmount(myWallet, amountDelta);
+        }
         if (order.getOrderType().equals(TransactionType.BID)) {
-            giveBalanceBack(userId, order.getLimit(), order.getAmount());
+            adjustUserBalance(userId, order.getLimit(), order.getAmount(), limit, amount);
+        }
+
+        BigDecimal prevLimit = order.getLimit();
+        BigDecimal prevAmount = order.getAmount();
+        boolean keepsPriority = !limitChanged && amountDelta.signum() < 0;
+        order.setLimit(limit);
+        order.setAmount(amount);
+        if (!keepsPriority) {
+            order.setOrderTime(LocalDateTime.now());
+        }
+        if (!orderRepository.update(order, amountDelta)) {
+            if (order.getOrderType().equals(TransactionType.BID)) {
+                adjustUserBalance(userId, limit, amount, prevLimit, prevAmount);
+            }
+            throw new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER);
+        }
+        if (!keepsPriority) {
+            openOrderIndex.remove(order);
+            openOrderIndex.add(order);
+        }
+        return order;
+    }
+
+    /**
+     * 매수 주문의 선차감 금액을 바뀐 지정가, 수량에 맞게 차이만큼만 더 차감하거나 환불한다.
+     */
+    private void adjustUserBalance(long userId, BigDecimal prevPrice, BigDecimal prevAmount, BigDecimal price, BigDecimal amount) {
+        BigDecimal prevBidPrice = calculationUtil.calculateByAddingCommission(prevPrice, prevAmount);
+        BigDecimal totalBidPrice = calculationUtil.calculateByAddingCommission(price, amount);
+        BigDecimal difference = totalBidPrice.subtract(prevBidPrice);
+        if (difference.signum() > 0) {
+            balanceService.updateBalanceByBid(userId, difference);
+        }
+        if (difference.signum() < 0) {
+            balanceService.updateBalanceByAskOrCancelBid(userId, difference.negate());
+        }
+    }
+
+    /**
+     * 만료된 주문을 취소한다. 환불은 사용자가 취소할 때와 같다.
+     * 그 사이 체결되거나 취소되어 주문이 없으면 아무것도 하지 않는다.
+     */
+    public void expireOrder(long orderId) {
+        orderRepository.findById(orderId).ifPresent(this::cancel);
+    }
+
+    /**
+     * 주문을 삭제하고, 스크립트가 실제로 삭제한 미체결량만큼만 환불한다.
+     * 체결이나 만료와 경합해 이미 사라진 주문은 환불하지 않는다.
+     */
+    private void cancel(Order order) {
+        openOrderIndex.remove(order);
+        orderExpiryIndex.removeById(order.getOrderId());
+        orderRepository.delete(order).ifPresent(removed -> {
+            if (removed.getOrderType().equals(TransactionType.BID)) {
+                giveBalanceBack(removed.getUserId(), removed.getLimit(), removed.getAmount());
+            }
+        });
+    }
+
+    /**
+     * 사용자의 미체결 주문을 모두 취소한다. 매수 주문에 미리 수취한 금액은 실제로 삭제한 주문의 미체결량만큼 한 번에 환불한다.
+     * @param code 코인 코드. null이면 모든 코인의 주문을 취소한다.
+     */
+    public void cancelOrders(long userId, String code) {
+        List<Order> orders = new ArrayList<>();
+        for (Order order : orderRepository.findAllByUserId(userId)) {
+            if (code == null || order.getCode().equals(code)) {
+                orders.add(order);
+            }
+        }
+
+        for (Order order : orders) {
+            openOrderIndex.remove(order);
+            orderExpiryIndex.removeById(order.getOrderId());
+        }
+
+        BigDecimal totalCancelPrice = BigDecimal.ZERO;
+        for (Order removed : orderRepository.deleteAll(orders)) { // 그 사이 체결, 만료된 주문은 빠진다
+            if (removed.getOrderType().equals(TransactionType.BID)) {
+                totalCancelPrice = totalCancelPrice.add(calculationUtil.calculateByAddingCommission(removed.getLimit(), removed.getAmount()));
+            }
+        }
+        if (totalCancelPrice.signum() > 0) {
+            balanceService.updateBalanceByAskOrCancelBid(userId, totalCancelPrice);
         }
-        orderRepository.delete(order);
     }
 
     /**
@@ -0,0 +1,25 @@
+package OneCoin.Server.order.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * MySQL 정산에 실패해 outbox에 남은 체결 묶음을 주기적으로 다시 정산한다. 서버가 멈췄다 뜬 경우도 여기서 이어서 정산된다.
+ */
+@Component
+public class SettlementOutboxScheduler {
+    private final SettlementService settlementService;
+    private final long retryAfterMillis;
+
+    public SettlementOutboxScheduler(SettlementService settlementService,
+                                     @Value("${settlement.outbox.retry-after-millis:10000}") long retryAfterMillis) {
+        this.settlementService = settlementService;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${settlement.outbox.retry-millis:5000}")
+    public void retryPending() {
+        settlementService.retryPending(retryAfterMillis);
+    }
+}
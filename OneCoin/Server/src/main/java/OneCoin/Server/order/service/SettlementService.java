@@ -0,0 +1,138 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.FillScriptRepository;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.order.repository.SettlementOutboxRepository;
+import OneCoin.Server.order.repository.SettlementRepository;
+import OneCoin.Server.utils.CalculationUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 번의 upbit 체결에서 나온 주문 체결들을 모아 한 번에 정산한다.
+ * 주문과 지갑은 Lua 스크립트 pipeline으로 한 번에 반영하고, 잔액과 투자 내역은 JDBC batch로 한 트랜잭션에 저장한다.
+ * <p>
+ * Redis 반영은 MySQL 트랜잭션과 함께 롤백되지 않으므로, 체결 묶음을 먼저 outbox에 기록하고 Redis에 반영한다.
+ * MySQL 저장이 실패하면 묶음은 outbox에 남고, SettlementOutboxScheduler가 성공할 때까지 다시 정산한다.
+ * 같은 트랜잭션에 정산한 묶음 아이디를 저장하므로 같은 묶음이 두 번 정산되지 않는다.
+ * 정산 트랜잭션은 호출한 쪽(ImmediateOrderService)의 트랜잭션과 따로 커밋하므로, 정산 실패가 호출한 쪽을 롤백시키지 않는다.
+ */
+@Slf4j
+@Service
+public class SettlementService {
+    private final FillScriptRepository fillScriptRepository;
+    private final SettlementOutboxRepository settlementOutboxRepository;
+    private final OpenOrderIndex openOrderIndex;
+    private final TransactionHistoryService transactionHistoryService;
+    private final SettlementRepository settlementRepository;
+    private final CalculationUtil calculationUtil;
+    private final TransactionTemplate transactionTemplate;
+
+    public SettlementService(FillScriptRepository fillScriptRepository,
+                             SettlementOutboxRepository settlementOutboxRepository,
+                             OpenOrderIndex openOrderIndex,
+                             TransactionHistoryService transactionHistoryService,
+                             SettlementRepository settlementRepository,
+                             CalculationUtil calculationUtil,
+                             PlatformTransactionManager transactionManager) {
+        this.fillScriptRepository = fillScriptRepository;
+        this.settlementOutboxRepository = settlementOutboxRepository;
+        this.openOrderIndex = openOrderIndex;
+        this.transactionHistoryService = transactionHistoryService;
+        this.settlementRepository = settlementRepository;
+        this.calculationUtil = calculationUtil;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public void settle(List<Fill> fills) {
+        if (fills.isEmpty()) {
+            return;
+        }
+        String batchId = settlementOutboxRepository.save(fills);
+        List<Fill> appliedFills = applyFills(batchId, fills);
+        record(batchId, appliedFills);
+    }
+
+    /**
+     * outbox에 남아 있는 묶음 중 기록한 지 minAgeMillis가 지난 것을 기록한 순서대로 다시 정산한다.
+     * 아직 Redis에 반영 중인 묶음을 건드리지 않도록 minAgeMillis는 반영에 걸리는 시간보다 충분히 길어야 한다.
+     * 정산에 실패하면 다음 호출에서 그 묶음부터 다시 시도한다.
+     */
+    public void retryPending(long minAgeMillis) {
+        for (String batchId : settlementOutboxRepository.findIdsBefore(System.currentTimeMillis() - minAgeMillis)) {
+            if (!record(batchId, settlementOutboxRepository.findAppliedFills(batchId))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 주문 차감과 지갑 업데이트를 Redis에 반영한다.
+     * 스크립트를 실행하기 전에 취소된 주문은 반영되지 않으므로 잔액과 투자 내역에서도 뺀다.
+     */
+    private List<Fill> applyFills(String batchId, List<Fill> fills) {
+        List<Boolean> applied = fillScriptRepository.applyFills(batchId, fills);
+        List<Fill> appliedFills = new ArrayList<>(fills.size());
+        for (int i = 0; i < fills.size(); i++) {
+            Fill fill = fills.get(i);
+            if (fill.isResting() && (fill.isCompleted() || !applied.get(i))) {
+                openOrderIndex.remove(fill.getOrder());
+            }
+            if (applied.get(i)) {
+                appliedFills.add(fill);
+            }
+        }
+        return appliedFills;
+    }
+
+    /**
+     * 반영된 체결의 잔액과 투자 내역을 한 트랜잭션에 저장하고 outbox에서 지운다.
+     * 이미 정산한 묶음이면 저장하지 않고 outbox에서만 지운다.
+     * @return 실패해서 outbox에 남았으면 false
+     */
+    private boolean record(String batchId, List<Fill> appliedFills) {
+        try {
+            if (!appliedFills.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!settlementRepository.insertSettlement(batchId)) {
+                        return;
+                    }
+                    settlementRepository.addBalances(getAskSettledAmounts(appliedFills));
+                    transactionHistoryService.createTransactionHistoriesByFills(appliedFills);
+                });
+            }
+            settlementOutboxRepository.delete(batchId);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to settle fill batch {}, it stays in the outbox and will be retried", batchId, e);
+            return false;
+        }
+    }
+
+    /**
+     * 매도(ASK) 체결 금액에서 수수료를 뺀 금액을 사용자별로 합친다.
+     */
+    private Map<Long, BigDecimal> getAskSettledAmounts(List<Fill> fills) {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Fill fill : fills) {
+            if (fill.getOrderType() != TransactionType.ASK) {
+                continue;
+            }
+            BigDecimal settledAmount = calculationUtil.calculateBySubtractingCommission(fill.getPrice(), fill.getAmount());
+            amounts.merge(fill.getUserId(), settledAmount, BigDecimal::add);
+        }
+        return amounts;
+    }
+}
@@ -5,11 +5,13 @@ import OneCoin.Server.coin.service.CoinService;
 import OneCoin.Server.deposit.entity.Deposit;
 import OneCoin.Server.exception.BusinessLogicException;
 import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Fill;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.TransactionHistory;
 import OneCoin.Server.order.entity.enums.Period;
 import OneCoin.Server.order.entity.enums.TransactionType;
 import OneCoin.Server.order.mapper.TransactionHistoryMapper;
+import OneCoin.Server.order.repository.SettlementRepository;
 import OneCoin.Server.order.repository.TransactionHistoryRepository;
 import OneCoin.Server.swap.entity.Swap;
 import OneCoin.Server.user.entity.User;
@@ -24,6 +26,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -32,6 +35,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionHistoryService {
     private final TransactionHistoryRepository transactionHistoryRepository;
+    private final SettlementRepository settlementRepository;
     private final TransactionHistoryMapper mapper;
     private final UserService userService;
     private final CoinService coinService;
@@ -56,6 +60,24 @@ public class TransactionHistoryService {
         transactionHistoryRepository.save(transactionHistory);
     }
 
+    /**
+     * 한 번의 체결에서 나온 주문 체결들의 투자 내역을 한 번의 batch insert로 생성한다.
+     * 사용자는 아이디만 필요하므로 조회하지 않는다.
+     * @param fills 같은 코인의 주문 체결
+     */
+    public void createTransactionHistoriesByFills(List<Fill> fills) {
+        Coin coin = coinService.findCoin(fills.get(0).getCode());
+        List<TransactionHistory> transactionHistories = new ArrayList<>(fills.size());
+        for (Fill fill : fills) {
+            BigDecimal commission = calculationUtil.calculateOrderCommission(fill.getPrice(), fill.getAmount());
+            BigDecimal totalAmount = fill.getPrice().multiply(fill.getAmount());
+            BigDecimal settledAmount = getSettledAmount(fill.getOrderType(), totalAmount, commission);
+            User user = User.builder().userId(fill.getUserId()).build();
+            transactionHistories.add(mapper.fillToTransactionHistory(fill, user, coin, totalAmount, commission.doubleValue(), settledAmount));
+        }
+        settlementRepository.saveTransactionHistories(transactionHistories);
+    }
+
     /**
      * 매수(BID) 체결 시 최종 금액: 체결 금액 + 수수료
      * 매도(ASK) 체결 시 최종 금액: 체결 금액 - 수수료
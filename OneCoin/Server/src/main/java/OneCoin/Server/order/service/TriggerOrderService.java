@@ -0,0 +1,107 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.TriggerOrder;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.TriggerOrderIndex;
+import OneCoin.Server.order.repository.TriggerOrderRepository;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.upbit.service.MatchingScheduler;
+import OneCoin.Server.utils.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TriggerOrderService {
+    private final TriggerOrderRepository triggerOrderRepository;
+    private final TriggerOrderIndex triggerOrderIndex;
+    private final CoinService coinService;
+    private final WalletService walletService;
+    private final OrderService orderService;
+    private final MatchingScheduler matchingScheduler;
+
+    /**
+     * 감시 주문을 생성한다.
+     * 매도(ASK) 주문은 코인을 보유하고 있는지만 확인하고, 매도 가능 수량과 매수 잔액은 발동할 때 확인한다.
+     */
+    public void createTriggerOrder(TriggerOrder triggerOrder, long userId, String code) {
+        coinService.findCoin(code);
+
+        if (triggerOrder.getOrderType().equals(TransactionType.ASK)) {
+            walletService.findMyVerifiedWallet(userId, code);
+        }
+        triggerOrder.setUserId(userId);
+        triggerOrder.setCode(code);
+        triggerOrderRepository.save(triggerOrder);
+        triggerOrderIndex.add(triggerOrder);
+    }
+
+    /**
+     * 발동 대기 중인 감시 주문을 조회한다.
+     * @throws BusinessLogicException 감시 주문이 없을 경우
+     */
+    public List<TriggerOrder> findTriggerOrders(long userId) {
+        List<TriggerOrder> triggerOrders = triggerOrderRepository.findAllByUserId(userId);
+
+        if (triggerOrders.isEmpty()) {
+            throw new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER);
+        }
+        return triggerOrders;
+    }
+
+    /**
+     * 감시 주문을 취소한다.
+     * @throws BusinessLogicException 감시 주문이 없거나 다른 사용자의 감시 주문일 경우
+     */
+    public void cancelTriggerOrder(long triggerId, long userId) {
+        TriggerOrder triggerOrder = triggerOrderRepository.findById(triggerId)
+                .orElseThrow(() -> new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER));
+        if (triggerOrder.getUserId() != userId) {
+            throw new BusinessLogicException(ExceptionCode.NOT_YOUR_ORDER);
+        }
+        triggerOrderIndex.removeById(triggerId);
+        triggerOrderRepository.delete(triggerOrder);
+    }
+
+    /**
+     * 체결 처리와 같은 lane에서 감시 주문을 발동하므로, 한 마켓의 체결 가격은 들어온 순서대로 반영된다.
+     */
+    @EventListener
+    public void onTrade(Trade trade) {
+        String code = trade.getCode();
+        BigDecimal tradePrice = FixedPoint.toBigDecimal(trade.getTradePriceValue());
+        matchingScheduler.submit(code, () -> fireTriggers(code, tradePrice));
+    }
+
+    /**
+     * 체결 가격이 지나간 감시 주문을 지정가 주문으로 바꾼다. 주문 생성 조건은 OrderService.createOrder와 같다.
+     * 발동 시점에 매도 수량이나 잔액이 부족하면 감시 주문은 주문이 되지 못하고 사라진다.
+     */
+    public void fireTriggers(String code, BigDecimal tradePrice) {
+        for (Long triggerId : triggerOrderIndex.advance(code, tradePrice)) {
+            Optional<TriggerOrder> optionalTriggerOrder = triggerOrderRepository.findById(triggerId);
+            if (optionalTriggerOrder.isEmpty()) {
+                continue;
+            }
+            TriggerOrder triggerOrder = optionalTriggerOrder.get();
+            if (!triggerOrderRepository.delete(triggerOrder)) { // 그 사이 취소된 경우
+                continue;
+            }
+            try {
+                orderService.createOrder(triggerOrder.toOrder(), triggerOrder.getUserId(), code);
+            } catch (BusinessLogicException e) {
+                log.warn("Trigger order {} could not be placed: {}", triggerId, e.getExceptionCode());
+            }
+        }
+    }
+}
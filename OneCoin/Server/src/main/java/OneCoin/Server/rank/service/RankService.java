@@ -8,6 +8,7 @@ import OneCoin.Server.rank.entity.Rank;
 import OneCoin.Server.rank.repository.RankRepository;
 import OneCoin.Server.upbit.dto.ticker.TickerDto;
 import OneCoin.Server.upbit.repository.TickerRepository;
+import OneCoin.Server.utils.FixedPoint;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -86,7 +87,7 @@ public class RankService {
             UserRoi userROI = allRoi.get(userId);
             if(userROI == null) continue;
             TickerDto ticker = tickerRepository.findTickerByCode(wallet.getCode());
-            double currentValueOfCoinOfUser = wallet.getAmount().doubleValue() * Double.parseDouble(ticker.getTradePrice());
+            double currentValueOfCoinOfUser = wallet.getAmount().doubleValue() * FixedPoint.toDouble(ticker.getTradePriceValue());
             userROI.addSumOfCurrentCoinValues(currentValueOfCoinOfUser);
         }
     }
@@ -10,4 +10,5 @@ import java.util.List;
 public class MarketDto {
     private List<TickerDto> ticker;
     private List<OrderBookDto> orderBook;
+    private boolean snapshot; // true면 전체 마켓, false면 직전 전송 이후 바뀐 마켓만 담겨 있다.
 }
@@ -1,5 +1,7 @@
 package OneCoin.Server.upbit.dto.ticker;
 
+import OneCoin.Server.utils.FixedPoint;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 
@@ -35,4 +37,59 @@ public class TickerDto {
 
     @JsonProperty("timestamp")
     private String timeStamp;
+
+    // 역직렬화할 때 한 번만 계산해두는 FixedPoint 값. JSON에는 나가지 않는다.
+    @JsonIgnore
+    private long highPriceValue;
+
+    @JsonIgnore
+    private long lowPriceValue;
+
+    @JsonIgnore
+    private long tradePriceValue;
+
+    @JsonIgnore
+    private long prevClosingPriceValue;
+
+    @JsonIgnore
+    private long changePriceValue;
+
+    @JsonIgnore
+    private long changeRateValue;
+
+    @JsonProperty("high_price")
+    private void setHighPrice(String highPrice) {
+        this.highPrice = highPrice;
+        this.highPriceValue = FixedPoint.parse(highPrice);
+    }
+
+    @JsonProperty("low_price")
+    private void setLowPrice(String lowPrice) {
+        this.lowPrice = lowPrice;
+        this.lowPriceValue = FixedPoint.parse(lowPrice);
+    }
+
+    @JsonProperty("trade_price")
+    private void setTradePrice(String tradePrice) {
+        this.tradePrice = tradePrice;
+        this.tradePriceValue = FixedPoint.parse(tradePrice);
+    }
+
+    @JsonProperty("prev_closing_price")
+    private void setPrevClosingPrice(String prevClosingPrice) {
+        this.prevClosingPrice = prevClosingPrice;
+        this.prevClosingPriceValue = FixedPoint.parse(prevClosingPrice);
+    }
+
+    @JsonProperty("change_price")
+    private void setChangePrice(String changePrice) {
+        this.changePrice = changePrice;
+        this.changePriceValue = FixedPoint.parse(changePrice);
+    }
+
+    @JsonProperty("change_rate")
+    private void setChangeRate(String changeRate) {
+        this.changeRate = changeRate;
+        this.changeRateValue = FixedPoint.parse(changeRate);
+    }
 }
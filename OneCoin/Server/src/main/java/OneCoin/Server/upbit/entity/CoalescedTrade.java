@@ -0,0 +1,61 @@
+package OneCoin.Server.upbit.entity;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 한 마켓에서 짧은 시간 안에 연달아 들어온 같은 거래 타입(ASK, BID)의 체결을 하나로 묶은 것.
+ * 가격 범위와 총 체결량을 가지고 있고, 체결 결과가 하나씩 처리할 때와 같도록 원래 체결도 들어온 순서대로 보관한다.
+ * 체결마다 들어온 순간의 미체결 주문 색인 순번도 보관해, 묶는 동안 새로 들어온 주문이 앞선 체결에 체결되지 않게 한다.
+ */
+@Getter
+public class CoalescedTrade {
+    private final String code;
+    private final String orderType;
+    private final List<Trade> trades = new ArrayList<>();
+    private final List<Long> arrivalSequences = new ArrayList<>();
+    private BigDecimal lowPrice;
+    private BigDecimal highPrice;
+    private BigDecimal totalVolume = BigDecimal.ZERO;
+
+    public CoalescedTrade(Trade trade, long arrivalSequence) {
+        this.code = trade.getCode();
+        this.orderType = trade.getOrderType();
+        add(trade, arrivalSequence);
+    }
+
+    /**
+     * 같은 마켓, 같은 거래 타입의 체결만 이어 붙일 수 있다.
+     */
+    public boolean accepts(Trade trade) {
+        return code.equals(trade.getCode()) && orderType.equals(trade.getOrderType());
+    }
+
+    /**
+     * @param arrivalSequence 체결이 들어온 순간의 OpenOrderIndex 순번. 이 순번 뒤에 색인에 들어온 주문은 이 체결에 체결되지 않는다.
+     */
+    public void add(Trade trade, long arrivalSequence) {
+        BigDecimal price = new BigDecimal(trade.getTradePrice());
+        lowPrice = lowPrice == null ? price : lowPrice.min(price);
+        highPrice = highPrice == null ? price : highPrice.max(price);
+        totalVolume = totalVolume.add(new BigDecimal(trade.getTradeVolume()));
+        trades.add(trade);
+        arrivalSequences.add(arrivalSequence);
+    }
+
+    public List<Trade> getTrades() {
+        return Collections.unmodifiableList(trades);
+    }
+
+    public long getArrivalSequence(int index) {
+        return arrivalSequences.get(index);
+    }
+
+    public int size() {
+        return trades.size();
+    }
+}
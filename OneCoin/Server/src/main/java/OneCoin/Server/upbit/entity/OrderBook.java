@@ -0,0 +1,19 @@
+package OneCoin.Server.upbit.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+
+@Getter
+public class OrderBook { // 호가
+
+    private String code; // 마켓 코드
+
+    @JsonProperty("total_ask_size")
+    private String totalAskSize; // 호가 매도 총 잔량
+
+    @JsonProperty("total_bid_size")
+    private String totalBidSize; // 호가 매수 총 잔량
+
+    @JsonProperty("orderbook_units")
+    private UnitInfo[] orderBookUnits; // 호가 목록
+}
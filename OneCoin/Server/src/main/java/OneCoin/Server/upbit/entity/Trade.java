@@ -1,5 +1,7 @@
 package OneCoin.Server.upbit.entity;
 
+import OneCoin.Server.utils.FixedPoint;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 
@@ -19,4 +21,26 @@ public class Trade { // 체결
 
     @JsonProperty("trade_time")
     private String tradeTime; // 체결 시각 UTC기준
-}
\ No newline at end of file
+
+    @JsonProperty("trade_timestamp")
+    private Long tradeTimestamp; // 체결 타임스탬프 (ms)
+
+    // 역직렬화할 때 한 번만 계산해두는 FixedPoint 값. JSON에는 나가지 않는다.
+    @JsonIgnore
+    private long tradePriceValue;
+
+    @JsonIgnore
+    private long tradeVolumeValue;
+
+    @JsonProperty("trade_price")
+    private void setTradePrice(String tradePrice) {
+        this.tradePrice = tradePrice;
+        this.tradePriceValue = FixedPoint.parse(tradePrice);
+    }
+
+    @JsonProperty("trade_volume")
+    private void setTradeVolume(String tradeVolume) {
+        this.tradeVolume = tradeVolume;
+        this.tradeVolumeValue = FixedPoint.parse(tradeVolume);
+    }
+}
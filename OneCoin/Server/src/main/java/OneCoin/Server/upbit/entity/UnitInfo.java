@@ -1,5 +1,7 @@
 package OneCoin.Server.upbit.entity;
 
+import OneCoin.Server.utils.FixedPoint;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Getter;
 
@@ -16,4 +18,41 @@ public class UnitInfo {
 
     @JsonProperty("bid_size")
     private String bidSize;
+
+    // 역직렬화할 때 한 번만 계산해두는 FixedPoint 값. JSON에는 나가지 않는다.
+    @JsonIgnore
+    private long askPriceValue;
+
+    @JsonIgnore
+    private long bidPriceValue;
+
+    @JsonIgnore
+    private long askSizeValue;
+
+    @JsonIgnore
+    private long bidSizeValue;
+
+    @JsonProperty("ask_price")
+    private void setAskPrice(String askPrice) {
+        this.askPrice = askPrice;
+        this.askPriceValue = FixedPoint.parse(askPrice);
+    }
+
+    @JsonProperty("bid_price")
+    private void setBidPrice(String bidPrice) {
+        this.bidPrice = bidPrice;
+        this.bidPriceValue = FixedPoint.parse(bidPrice);
+    }
+
+    @JsonProperty("ask_size")
+    private void setAskSize(String askSize) {
+        this.askSize = askSize;
+        this.askSizeValue = FixedPoint.parse(askSize);
+    }
+
+    @JsonProperty("bid_size")
+    private void setBidSize(String bidSize) {
+        this.bidSize = bidSize;
+        this.bidSizeValue = FixedPoint.parse(bidSize);
+    }
 }
@@ -2,6 +2,9 @@ package OneCoin.Server.upbit.entity.enums;
 
 import java.util.List;
 
+/**
+ * Coin 테이블에 구독할 마켓이 하나도 없을 때 사용하는 기본 마켓 목록
+ */
 public class CoinList {
     public static final List<String> CODES = List.of("KRW-BTC", "KRW-ETH", "KRW-XRP", "KRW-DOGE", "KRW-ETC");
 }
@@ -19,15 +19,15 @@ public abstract class OrderBookDtoMapper {
 
     @Mapping(target = "askInfo", expression = "java(toAskInfos(unitInfos, prevClosingPrice))")
     @Mapping(target = "bidInfo", expression = "java(toBidInfos(unitInfos, prevClosingPrice))")
-    public abstract OrderBookDto unitInfoToOrderBookDto(List<UnitInfo> unitInfos, String prevClosingPrice);
+    public abstract OrderBookDto unitInfoToOrderBookDto(List<UnitInfo> unitInfos, long prevClosingPrice);
 
-    protected abstract List<AskInfo> toAskInfos(List<UnitInfo> unitInfos, @Context String prevClosingPrice);
+    protected abstract List<AskInfo> toAskInfos(List<UnitInfo> unitInfos, @Context long prevClosingPrice);
 
-    protected abstract List<BidInfo> toBidInfos(List<UnitInfo> unitInfos, @Context String prevClosingPrice);
+    protected abstract List<BidInfo> toBidInfos(List<UnitInfo> unitInfos, @Context long prevClosingPrice);
 
-    @Mapping(target = "changeRate", expression = "java(calculationUtil.calculateChangeRate(unitInfo.getAskPrice(), prevClosingPrice))")
-    protected abstract AskInfo unitInfoToAskInfo(UnitInfo unitInfo, @Context String prevClosingPrice);
+    @Mapping(target = "changeRate", expression = "java(calculationUtil.calculateChangeRate(unitInfo.getAskPriceValue(), prevClosingPrice))")
+    protected abstract AskInfo unitInfoToAskInfo(UnitInfo unitInfo, @Context long prevClosingPrice);
 
-    @Mapping(target = "changeRate", expression = "java(calculationUtil.calculateChangeRate(unitInfo.getBidPrice(), prevClosingPrice))")
-    protected abstract BidInfo unitInfoToBidInfo(UnitInfo unitInfo, @Context String prevClosingPrice);
+    @Mapping(target = "changeRate", expression = "java(calculationUtil.calculateChangeRate(unitInfo.getBidPriceValue(), prevClosingPrice))")
+    protected abstract BidInfo unitInfoToBidInfo(UnitInfo unitInfo, @Context long prevClosingPrice);
 }
@@ -0,0 +1,101 @@
+package OneCoin.Server.upbit.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 마켓 코드별로 가장 최근 값 하나만 보관하는 node-local 캐시.
+ * slot은 코드마다 한 번만 생성되고, 이후의 쓰기와 읽기는 volatile 참조만 다루므로 lock을 잡지 않는다.
+ * 아직 Redis에 반영되지 않은 slot은 dirty로 표시해두었다가 drainDirty()로 한꺼번에 가져간다.
+ * 값이 바뀔 때마다 캐시 전체에서 증가하는 version을 slot에 기록해두므로, 특정 version 이후 바뀐 값만 골라낼 수 있다.
+ */
+public class LastValueCache<T> {
+    private final ConcurrentMap<String, Slot<T>> slots = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public void put(String code, T value) {
+        Slot<T> slot = getSlot(code);
+        slot.value = value;
+        slot.version = sequence.incrementAndGet();
+        slot.dirty.set(true);
+    }
+
+    /**
+     * 가장 최근에 저장된 값의 version
+     */
+    public long version() {
+        return sequence.get();
+    }
+
+    public T get(String code) {
+        Slot<T> slot = slots.get(code);
+        if (slot == null) {
+            return null;
+        }
+        return slot.value;
+    }
+
+    public void remove(String code) {
+        slots.remove(code);
+    }
+
+    /**
+     * codes 순서대로 값을 조회한다. 캐시에 없는 코드는 null로 채운다.
+     */
+    public List<T> getAll(List<String> codes) {
+        List<T> values = new ArrayList<>(codes.size());
+        for (String code : codes) {
+            values.add(get(code));
+        }
+        return values;
+    }
+
+    /**
+     * codes 순서대로, version 이후에 바뀐 값만 조회한다.
+     */
+    public List<T> getChangedSince(List<String> codes, long version) {
+        List<T> values = new ArrayList<>();
+        for (String code : codes) {
+            Slot<T> slot = slots.get(code);
+            if (slot != null && slot.version > version) {
+                values.add(slot.value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 마지막 drain 이후 변경된 값만 모아서 리턴하고 dirty 표시를 지운다.
+     * 그 사이에 같은 코드가 여러 번 갱신되었다면 마지막 값 하나만 리턴된다.
+     */
+    public Map<String, T> drainDirty() {
+        Map<String, T> dirtyValues = new HashMap<>();
+        for (Map.Entry<String, Slot<T>> entry : slots.entrySet()) {
+            Slot<T> slot = entry.getValue();
+            if (slot.dirty.getAndSet(false)) {
+                dirtyValues.put(entry.getKey(), slot.value);
+            }
+        }
+        return dirtyValues;
+    }
+
+    private Slot<T> getSlot(String code) {
+        Slot<T> slot = slots.get(code);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(code, key -> new Slot<>());
+        }
+        return slot;
+    }
+
+    private static class Slot<T> {
+        private volatile T value;
+        private volatile long version;
+        private final AtomicBoolean dirty = new AtomicBoolean();
+    }
+}
@@ -1,20 +1,28 @@
 package OneCoin.Server.upbit.repository;
 
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.coin.service.MarketUniverse;
 import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
-import OneCoin.Server.upbit.entity.enums.CoinList;
 import OneCoin.Server.upbit.entity.enums.SiseType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class OrderBookRepository {
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MarketUniverse marketUniverse;
+    private final LastValueCache<OrderBookDto> cache = new LastValueCache<>();
     private HashOperations<String, String, OrderBookDto> operations;
 
     @PostConstruct
@@ -22,11 +30,81 @@ public class OrderBookRepository {
         operations = redisTemplate.opsForHash();
     }
 
+    /**
+     * 캐시에만 저장하고, Redis에는 flush()가 호출될 때 반영한다.
+     */
     public void saveOrderBook(OrderBookDto orderBookDto) {
-        operations.put(SiseType.ORDER_BOOK.getType(), orderBookDto.getCode(), orderBookDto);
+        cache.put(orderBookDto.getCode(), orderBookDto);
     }
 
+    /**
+     * 구독 중인 마켓 순서대로 조회한다. 어디에도 아직 값이 없는 마켓은 결과에서 빠진다.
+     */
     public List<OrderBookDto> findOrderBooks() {
-        return operations.multiGet(SiseType.ORDER_BOOK.getType(), CoinList.CODES);
+        List<String> codes = marketUniverse.getCodes();
+        List<OrderBookDto> orderBooks = cache.getAll(codes);
+        if (orderBooks.contains(null)) {
+            fillMissingFromRedis(codes, orderBooks);
+            orderBooks.removeIf(value -> value == null);
+        }
+        return orderBooks;
+    }
+
+    /**
+     * version 이후에 이 노드에서 바뀐 값만 조회한다. Redis는 조회하지 않는다.
+     */
+    public List<OrderBookDto> findOrderBooksChangedSince(long version) {
+        return cache.getChangedSince(marketUniverse.getCodes(), version);
+    }
+
+    public long getVersion() {
+        return cache.version();
+    }
+
+    /**
+     * 이 노드의 캐시에 없는 코드만 다른 노드가 Redis에 저장한 값으로 채운다.
+     */
+    private void fillMissingFromRedis(List<String> codes, List<OrderBookDto> orderBooks) {
+        List<String> missingCodes = new ArrayList<>();
+        for (int i = 0; i < codes.size(); i++) {
+            if (orderBooks.get(i) == null) {
+                missingCodes.add(codes.get(i));
+            }
+        }
+        OrderBookDto[] stored = objectMapper.convertValue(operations.multiGet(SiseType.ORDER_BOOK.getType(), missingCodes), OrderBookDto[].class);
+        for (int i = 0, j = 0; i < orderBooks.size(); i++) {
+            if (orderBooks.get(i) == null) {
+                orderBooks.set(i, stored[j++]);
+            }
+        }
+    }
+
+    public OrderBookDto findOrderBookByCode(String code) {
+        OrderBookDto orderBookDto = cache.get(code);
+        if (orderBookDto != null) {
+            return orderBookDto;
+        }
+        return objectMapper.convertValue(operations.get(SiseType.ORDER_BOOK.getType(), code), OrderBookDto.class);
+    }
+
+    /**
+     * 마지막 flush 이후 변경된 호가를 Redis에 한 번에 저장한다.
+     */
+    public void flush() {
+        Map<String, OrderBookDto> dirtyOrderBooks = cache.drainDirty();
+        if (dirtyOrderBooks.isEmpty()) {
+            return;
+        }
+        operations.putAll(SiseType.ORDER_BOOK.getType(), dirtyOrderBooks);
+    }
+
+    /**
+     * 구독에서 빠진 마켓의 캐시를 비운다.
+     */
+    @EventListener
+    public void evict(MarketChangedEvent event) {
+        if (!event.isAdded()) {
+            cache.remove(event.getCode());
+        }
     }
 }
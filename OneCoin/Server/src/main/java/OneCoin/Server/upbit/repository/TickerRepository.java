@@ -1,22 +1,28 @@
 package OneCoin.Server.upbit.repository;
 
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.coin.service.MarketUniverse;
 import OneCoin.Server.upbit.dto.ticker.TickerDto;
-import OneCoin.Server.upbit.entity.enums.CoinList;
 import OneCoin.Server.upbit.entity.enums.SiseType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Repository;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
 public class TickerRepository {
     private final RedisTemplate<String, Object> redisTemplate;
     private final ObjectMapper objectMapper;
+    private final MarketUniverse marketUniverse;
+    private final LastValueCache<TickerDto> cache = new LastValueCache<>();
     private HashOperations<String, String, TickerDto> operations;
 
     @PostConstruct
@@ -24,15 +30,84 @@ public class TickerRepository {
         operations = redisTemplate.opsForHash();
     }
 
+    /**
+     * 캐시에만 저장하고, Redis에는 flush()가 호출될 때 반영한다.
+     */
     public void saveTicker(TickerDto tickerDto) {
-        operations.put(SiseType.TICKER.getType(), tickerDto.getCode(), tickerDto);
+        cache.put(tickerDto.getCode(), tickerDto);
     }
 
+    /**
+     * 구독 중인 마켓 순서대로 조회한다. 어디에도 아직 값이 없는 마켓은 결과에서 빠진다.
+     */
     public List<TickerDto> findTickers() {
-        return operations.multiGet(SiseType.TICKER.getType(), CoinList.CODES);
+        List<String> codes = marketUniverse.getCodes();
+        List<TickerDto> tickers = cache.getAll(codes);
+        if (tickers.contains(null)) {
+            fillMissingFromRedis(codes, tickers);
+            tickers.removeIf(value -> value == null);
+        }
+        return tickers;
     }
 
+    /**
+     * version 이후에 이 노드에서 바뀐 값만 조회한다. Redis는 조회하지 않는다.
+     */
+    public List<TickerDto> findTickersChangedSince(long version) {
+        return cache.getChangedSince(marketUniverse.getCodes(), version);
+    }
+
+    public long getVersion() {
+        return cache.version();
+    }
+
+    /**
+     * 이 노드의 캐시에 없는 코드만 다른 노드가 Redis에 저장한 값으로 채운다.
+     */
+    private void fillMissingFromRedis(List<String> codes, List<TickerDto> tickers) {
+        List<String> missingCodes = new ArrayList<>();
+        for (int i = 0; i < codes.size(); i++) {
+            if (tickers.get(i) == null) {
+                missingCodes.add(codes.get(i));
+            }
+        }
+        TickerDto[] stored = objectMapper.convertValue(operations.multiGet(SiseType.TICKER.getType(), missingCodes), TickerDto[].class);
+        for (int i = 0, j = 0; i < tickers.size(); i++) {
+            if (tickers.get(i) == null) {
+                tickers.set(i, stored[j++]);
+            }
+        }
+    }
+
+    /**
+     * 캐시를 먼저 조회하고, 이 노드에서 아직 받지 못한 코드만 Redis에서 조회한다.
+     */
     public TickerDto findTickerByCode(String code) {
+        TickerDto tickerDto = cache.get(code);
+        if (tickerDto != null) {
+            return tickerDto;
+        }
         return objectMapper.convertValue(operations.get(SiseType.TICKER.getType(), code), TickerDto.class);
     }
+
+    /**
+     * 마지막 flush 이후 변경된 ticker를 Redis에 한 번에 저장한다.
+     */
+    public void flush() {
+        Map<String, TickerDto> dirtyTickers = cache.drainDirty();
+        if (dirtyTickers.isEmpty()) {
+            return;
+        }
+        operations.putAll(SiseType.TICKER.getType(), dirtyTickers);
+    }
+
+    /**
+     * 구독에서 빠진 마켓의 캐시를 비운다.
+     */
+    @EventListener
+    public void evict(MarketChangedEvent event) {
+        if (!event.isAdded()) {
+            cache.remove(event.getCode());
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package OneCoin.Server.upbit.service;
+
+import OneCoin.Server.upbit.repository.OrderBookRepository;
+import OneCoin.Server.upbit.repository.TickerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * node-local 캐시에 쌓인 ticker, 호가를 주기적으로 Redis에 write-behind 한다.
+ * 다른 노드는 Redis에 저장된 값을 조회한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarketCacheScheduler {
+    private final TickerRepository tickerRepository;
+    private final OrderBookRepository orderBookRepository;
+
+    @Scheduled(fixedDelay = 200)
+    public void flush() {
+        tickerRepository.flush();
+        orderBookRepository.flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
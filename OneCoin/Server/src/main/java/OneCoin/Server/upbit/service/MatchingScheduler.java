@@ -0,0 +1,186 @@
+package OneCoin.Server.upbit.service;
+
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.upbit.entity.CoalescedTrade;
+import OneCoin.Server.upbit.entity.Trade;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 체결 처리를 마켓 코드별 lane에 나누어 실행한다.
+ * 한 마켓은 항상 같은 single thread lane에서 처리되므로 같은 마켓의 체결은 들어온 순서대로 하나씩 처리되고,
+ * 다른 lane의 마켓은 동시에 처리된다.
+ * <p>
+ * upbit.matching.coalesce-millis가 0보다 크면 마켓별로 그 시간 동안 연달아 들어온 같은 거래 타입의 체결을 하나로 묶어
+ * 체결 처리를 한 번만 실행한다. 다른 거래 타입의 체결이 들어오면 앞의 묶음을 바로 넘기므로 체결 순서는 바뀌지 않는다.
+ * 체결이 들어온 순간의 미체결 주문 색인 순번을 함께 넘기므로, lane에서 기다리거나 묶이는 동안 생성된 주문은 그 체결에 체결되지 않는다.
+ * <p>
+ * lane의 대기열은 upbit.matching.queue-capacity로 제한한다. 대기열이 가득 차면 작업을 버리거나 호출한 thread에서 실행하지 않고
+ * 자리가 날 때까지 제출한 thread를 멈춰 세우므로, 같은 thread가 제출한 작업의 순서는 그대로 지켜진다.
+ * 멈춰 선 횟수는 upbit.matching.queue.blocked로 남긴다.
+ */
+@Slf4j
+@Component
+public class MatchingScheduler {
+    private final TradingService tradingService;
+    private final OpenOrderIndex openOrderIndex;
+    private final ThreadPoolExecutor[] lanes;
+    private final long coalesceMillis;
+    private final Map<String, CoalescedTrade> windows = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService windowTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Matching-window");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final DistributionSummary windowSize;
+    private final Counter blocked;
+
+    public MatchingScheduler(TradingService tradingService,
+                             OpenOrderIndex openOrderIndex,
+                             MeterRegistry meterRegistry,
+                             @Value("${upbit.matching.lanes:0}") int numberOfLanes,
+                             @Value("${upbit.matching.queue-capacity:10000}") int queueCapacity,
+                             @Value("${upbit.matching.coalesce-millis:0}") long coalesceMillis) {
+        this.tradingService = tradingService;
+        this.openOrderIndex = openOrderIndex;
+        this.coalesceMillis = coalesceMillis;
+        this.windowSize = DistributionSummary.builder("upbit.matching.window.trades").register(meterRegistry);
+        this.blocked = Counter.builder("upbit.matching.queue.blocked").register(meterRegistry);
+        int size = numberOfLanes > 0 ? numberOfLanes : Runtime.getRuntime().availableProcessors();
+        this.lanes = new ThreadPoolExecutor[size];
+        for (int i = 0; i < size; i++) {
+            lanes[i] = createLane(i, queueCapacity);
+            Gauge.builder("upbit.matching.queue.depth", lanes[i], lane -> lane.getQueue().size())
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    @EventListener
+    public void onTrade(Trade trade) {
+        long arrivalSequence = openOrderIndex.currentSequence();
+        if (coalesceMillis <= 0) {
+            submit(trade.getCode(), () -> tradingService.completeOrders(new CoalescedTrade(trade, arrivalSequence)));
+            return;
+        }
+        windows.compute(trade.getCode(), (code, window) -> {
+            if (window != null && window.accepts(trade)) {
+                window.add(trade, arrivalSequence);
+                return window;
+            }
+            if (window != null) {
+                flush(window);
+            }
+            CoalescedTrade opened = new CoalescedTrade(trade, arrivalSequence);
+            windowTimer.schedule(() -> close(code, opened), coalesceMillis, TimeUnit.MILLISECONDS);
+            return opened;
+        });
+    }
+
+    /**
+     * code에 해당하는 lane에서 task를 실행한다.
+     */
+    public void submit(String code, Runnable task) {
+        laneOf(code).execute(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.error("Failed to match orders of {}", code, e);
+            }
+        });
+    }
+
+    /**
+     * code에 해당하는 lane에서 task를 실행하고 끝날 때까지 기다린다. task에서 발생한 예외는 그대로 다시 던진다.
+     */
+    public <T> T call(String code, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, laneOf(code)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        windowTimer.shutdownNow();
+        for (String code : windows.keySet()) {
+            CoalescedTrade window = windows.remove(code);
+            if (window != null) {
+                flush(window);
+            }
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Matching lane did not finish {} queued tasks", lane.getQueue().size());
+            }
+        }
+    }
+
+    /**
+     * 시간이 다 된 묶음을 닫는다. 그 사이 다른 거래 타입의 체결이 들어와 이미 넘긴 묶음이면 아무것도 하지 않는다.
+     */
+    private void close(String code, CoalescedTrade window) {
+        if (windows.remove(code, window)) {
+            flush(window);
+        }
+    }
+
+    private void flush(CoalescedTrade window) {
+        windowSize.record(window.size());
+        submit(window.getCode(), () -> tradingService.completeOrders(window));
+    }
+
+    private ThreadPoolExecutor laneOf(String code) {
+        return lanes[Math.floorMod(code.hashCode(), lanes.length)];
+    }
+
+    private ThreadPoolExecutor createLane(int index, int queueCapacity) {
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "Matching-" + index);
+            thread.setDaemon(true);
+            return thread;
+        }, this::waitForSpace);
+    }
+
+    /**
+     * 대기열이 가득 찼을 때 자리가 날 때까지 기다렸다가 대기열 끝에 넣는다.
+     */
+    private void waitForSpace(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Matching lane is shut down");
+        }
+        blocked.increment();
+        try {
+            lane.getQueue().put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a matching lane", e);
+        }
+    }
+}
@@ -1,65 +1,122 @@
 package OneCoin.Server.upbit.service;
 
+import OneCoin.Server.order.entity.Fill;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OpenOrderIndex;
 import OneCoin.Server.order.repository.OrderRepository;
-import OneCoin.Server.order.service.WalletService;
+import OneCoin.Server.order.service.SettlementService;
+import OneCoin.Server.upbit.entity.CoalescedTrade;
 import OneCoin.Server.upbit.entity.Trade;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class TradingService {
     private final OrderRepository orderRepository;
-    private final WalletService walletService;
+    private final OpenOrderIndex openOrderIndex;
+    private final SettlementService settlementService;
 
     /**
-     * upbit에서 전달받은 체결 데이터와 같은 거래 타입, 코인을 order repository에서 조회한 후 체결시킨다.
+     * upbit에서 전달받은 체결 데이터와 같은 거래 타입, 코인의 주문 중 체결 가격에 체결될 수 있는 주문만 조회한 후 체결시킨다.
+     * 주문은 가격 우선, 시간 우선 순서로 체결하고 체결량을 모두 소진하면 멈춘다.
+     * 한 번의 체결에서 나온 주문 체결은 모아서 한 번에 정산한다.
+     * 실시간 체결은 MatchingScheduler가 마켓별 lane에서 호출한다.
      */
-    @EventListener
     public void completeOrders(Trade trade) {
-        BigDecimal tradePrice = new BigDecimal(trade.getTradePrice());
-        BigDecimal tradeVolume = new BigDecimal(trade.getTradeVolume());
-        TransactionType orderType = Enum.valueOf(TransactionType.class, trade.getOrderType());
+        completeOrders(new CoalescedTrade(trade, openOrderIndex.currentSequence()));
+    }
+
+    /**
+     * 묶인 체결을 한 번에 체결시킨다. 색인은 가격 범위 전체에 걸치는 주문을 한 번만 조회하고, 주문도 한 번씩만 읽는다.
+     * 각 체결은 들어온 순서대로 메모리에서 주문의 미체결량을 줄여 가며 배분하므로 체결 결과는 하나씩 처리할 때와 같고,
+     * 정산은 묶음 전체에 대해 한 번만 한다. 각 체결은 그 체결이 들어온 뒤에 색인에 들어온 주문은 체결시키지 않는다.
+     */
+    public void completeOrders(CoalescedTrade coalescedTrade) {
+        TransactionType orderType = Enum.valueOf(TransactionType.class, coalescedTrade.getOrderType());
+        BigDecimal widestPrice = orderType.equals(TransactionType.BID) ? coalescedTrade.getLowPrice() : coalescedTrade.getHighPrice();
 
-        List<Order> orders = orderRepository.findAllByOrderTypeAndCode(orderType, trade.getCode());
-        if (orders.isEmpty()) {
+        List<Long> orderIds = openOrderIndex.findCrossingOrderIds(orderType, coalescedTrade.getCode(), widestPrice);
+        if (orderIds.isEmpty()) {
             return;
         }
-
-        if (orderType.equals(TransactionType.BID)) {
-            tradeBid(orders, tradePrice, tradeVolume);
-        } else {
-            tradeAsk(orders, tradePrice, tradeVolume);
+        Map<Long, Optional<Order>> orders = new HashMap<>();
+        List<Fill> fills = new ArrayList<>();
+        List<Trade> trades = coalescedTrade.getTrades();
+        for (int i = 0; i < trades.size(); i++) {
+            Trade trade = trades.get(i);
+            allocate(orderIds, orders, orderType, new BigDecimal(trade.getTradePrice()), new BigDecimal(trade.getTradeVolume()),
+                    coalescedTrade.getArrivalSequence(i), fills);
         }
+        settlementService.settle(fills);
     }
 
     /**
-     * 매수(BID): 현재 체결 가격보다 작은 주문은 체결시키지 않는다.
+     * 남은 체결량만큼만 앞에서부터 주문을 체결한다. 체결량이 남지 않으면 뒤의 주문은 조회하지도 않는다.
+     * 앞선 체결에서 일부 체결된 주문은 줄어든 미체결량으로, 모두 체결된 주문과 체결이 들어온 뒤에 색인에 들어온 주문은 건너뛴다.
      */
-    private void tradeBid(List<Order> orders, BigDecimal tradePrice, BigDecimal tradeVolume) {
-        for (Order order : orders) {
-            if (order.getLimit().compareTo(tradePrice) < 0) {
+    private void allocate(List<Long> orderIds, Map<Long, Optional<Order>> orders, TransactionType orderType,
+                          BigDecimal tradePrice, BigDecimal tradeVolume, long arrivalSequence, List<Fill> fills) {
+        BigDecimal remainingVolume = tradeVolume;
+        for (Long orderId : orderIds) {
+            if (remainingVolume.signum() <= 0) {
+                break;
+            }
+            if (!openOrderIndex.isAddedBy(orderId, arrivalSequence)) {
+                continue;
+            }
+            Optional<Order> order = orders.computeIfAbsent(orderId, this::findOrder);
+            if (order.isEmpty() || order.get().getAmount().signum() <= 0 || !isCrossing(order.get(), orderType, tradePrice)) {
                 continue;
             }
-            walletService.updateWalletByBid(order, tradePrice, tradeVolume);
+            BigDecimal completedAmount = order.get().getAmount().min(remainingVolume);
+            BigDecimal completedPrice = getCompletedPrice(order.get(), orderType, tradePrice);
+            Fill fill = new Fill(order.get(), completedPrice, completedAmount);
+            fills.add(fill);
+            order.get().setAmount(fill.getRemainingAmount());
+            remainingVolume = remainingVolume.subtract(completedAmount);
         }
     }
 
     /**
+     * 색인에는 있지만 Redis에서 사라진 주문은 색인에서도 지운다.
+     */
+    private Optional<Order> findOrder(Long orderId) {
+        Optional<Order> order = orderRepository.findById(orderId);
+        if (order.isEmpty()) {
+            openOrderIndex.removeById(orderId);
+        }
+        return order;
+    }
+
+    /**
+     * 매수(BID): 현재 체결 가격보다 작은 주문은 체결시키지 않는다.
      * 매도(ASK): 현재 체결 가격보다 큰 주문은 체결시키지 않는다.
      */
-    private void tradeAsk(List<Order> orders, BigDecimal tradePrice, BigDecimal tradeVolume) {
-        for (Order order : orders) {
-            if (order.getLimit().compareTo(tradePrice) > 0) {
-                continue;
-            }
-            walletService.updateWalletByAsk(order, tradePrice, tradeVolume);
+    private boolean isCrossing(Order order, TransactionType orderType, BigDecimal tradePrice) {
+        int comparison = order.getLimit().compareTo(tradePrice);
+        if (orderType.equals(TransactionType.BID)) {
+            return comparison >= 0;
+        }
+        return comparison <= 0;
+    }
+
+    /**
+     * 매수(BID) 주문: 주문 가격이 체결 가격보다 클 경우 체결 가격을 리턴한다.
+     * 매도(ASK) 주문: 주문 가격이 체결 가격보다 작을 경우 체결 가격을 리턴한다.
+     */
+    private BigDecimal getCompletedPrice(Order order, TransactionType orderType, BigDecimal tradePrice) {
+        if (orderType.equals(TransactionType.BID)) {
+            return order.getLimit().min(tradePrice);
         }
+        return order.getLimit().max(tradePrice);
     }
 }
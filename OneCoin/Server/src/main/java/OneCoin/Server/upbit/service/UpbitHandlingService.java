@@ -2,16 +2,14 @@ package OneCoin.Server.upbit.service;
 
 import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
 import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.OrderBook;
 import OneCoin.Server.upbit.entity.Trade;
 import OneCoin.Server.upbit.entity.UnitInfo;
-import OneCoin.Server.upbit.entity.enums.SiseType;
 import OneCoin.Server.upbit.mapper.OrderBookDtoMapper;
 import OneCoin.Server.upbit.repository.OrderBookRepository;
 import OneCoin.Server.upbit.repository.TickerRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import OneCoin.Server.upbit.websocket.decoder.UpbitMessageDecoder;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
@@ -21,61 +19,57 @@ import java.util.List;
 @Service
 @RequiredArgsConstructor
 public class UpbitHandlingService {
-    private final ObjectMapper objectMapper;
+    private final UpbitMessageDecoder decoder;
     private final OrderBookDtoMapper mapper;
     private final TickerRepository tickerRepository;
     private final OrderBookRepository orderBookRepository;
     private final ApplicationEventPublisher publisher;
 
     /**
-     * upbit에서 전달받은 코인 정보를 parsing한다.
+     * upbit에서 전달받은 코인 정보를 parsing한 뒤 호출한 thread에서 바로 처리한다.
+     * 실시간 수신은 UpbitIngestPipeline이 thread를 나누어 아래 handle 메서드를 호출한다.
      */
-    public void parsing(JsonNode jsonNode) {
-        String type = jsonNode.get("type").asText();
+    public void parsing(byte[] payload) {
+        Object message = decoder.decode(payload);
 
-        if (type.equals(SiseType.TICKER.getType())) {
-            handleTicker(jsonNode);
+        if (message instanceof TickerDto) {
+            handleTicker((TickerDto) message);
         }
-        if (type.equals(SiseType.TRADE.getType())) {
-            handleTrade(jsonNode);
+        if (message instanceof Trade) {
+            handleTrade((Trade) message);
         }
-        if (type.equals(SiseType.ORDER_BOOK.getType())) {
-            handleOrderBook(jsonNode);
+        if (message instanceof OrderBook) {
+            handleOrderBook((OrderBook) message);
         }
     }
 
     /**
      * 현재가 정보
      */
-    @SneakyThrows
-    private void handleTicker(JsonNode jsonNode) {
-        TickerDto tickerDto = objectMapper.readValue(jsonNode.toString(), TickerDto.class);
+    public void handleTicker(TickerDto tickerDto) {
         tickerRepository.saveTicker(tickerDto);
     }
 
     /**
      * 체결 정보
      */
-    @SneakyThrows
-    private void handleTrade(JsonNode jsonNode) {
-        Trade trade = objectMapper.readValue(jsonNode.toString(), Trade.class);
+    public void handleTrade(Trade trade) {
         publisher.publishEvent(trade);
     }
 
     /**
      * 호가 정보
      */
-    @SneakyThrows
-    private void handleOrderBook(JsonNode jsonNode) {
-        String code = objectMapper.readValue(jsonNode.get("code").toString(), String.class);
-        String prevClosingPrice = tickerRepository.findTickerByCode(code).getPrevClosingPrice();
+    public void handleOrderBook(OrderBook orderBook) {
+        String code = orderBook.getCode();
+        long prevClosingPrice = tickerRepository.findTickerByCode(code).getPrevClosingPriceValue();
 
-        List<UnitInfo> unitInfos = Arrays.asList(objectMapper.readValue(jsonNode.get("orderbook_units").toString(), UnitInfo[].class));
+        List<UnitInfo> unitInfos = Arrays.asList(orderBook.getOrderBookUnits());
         OrderBookDto orderBookDto = mapper.unitInfoToOrderBookDto(unitInfos, prevClosingPrice);
 
         orderBookDto.setCode(code);
-        orderBookDto.setTotalAskSize(objectMapper.readValue(jsonNode.get("total_ask_size").toString(), String.class));
-        orderBookDto.setTotalBidSize(objectMapper.readValue(jsonNode.get("total_bid_size").toString(), String.class));
+        orderBookDto.setTotalAskSize(orderBook.getTotalAskSize());
+        orderBookDto.setTotalBidSize(orderBook.getTotalBidSize());
         orderBookRepository.saveOrderBook(orderBookDto);
     }
 }
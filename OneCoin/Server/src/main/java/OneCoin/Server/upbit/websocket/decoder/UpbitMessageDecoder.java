@@ -0,0 +1,85 @@
+package OneCoin.Server.upbit.websocket.decoder;
+
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.OrderBook;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.upbit.entity.enums.SiseType;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserSequence;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Component
+@RequiredArgsConstructor
+public class UpbitMessageDecoder {
+    private static final String TYPE_FIELD = "type";
+    private final ObjectMapper objectMapper;
+
+    /**
+     * upbit에서 전달받은 frame을 JsonNode를 거치지 않고 한 번의 순회로 type에 맞는 객체로 변환한다.
+     * upbit는 type 필드를 가장 먼저 보내므로 type을 읽은 parser를 그대로 이어서 역직렬화한다.
+     * type 앞에 다른 필드가 있을 경우에만 앞선 토큰을 버퍼에 담아두었다가 함께 읽는다.
+     * @param payload upbit frame
+     * @return TickerDto, Trade, OrderBook 중 하나. 알 수 없는 type이면 null
+     */
+    public Object decode(byte[] payload) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(payload)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            TokenBuffer buffer = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                parser.nextToken();
+
+                if (fieldName.equals(TYPE_FIELD)) {
+                    Class<?> valueType = getValueType(parser.getText());
+                    if (valueType == null) {
+                        return null;
+                    }
+                    parser.nextToken();
+                    return objectMapper.readValue(withBufferedFields(buffer, parser), valueType);
+                }
+
+                if (buffer == null) {
+                    buffer = new TokenBuffer(parser);
+                    buffer.writeStartObject();
+                }
+                buffer.writeFieldName(fieldName);
+                buffer.copyCurrentStructure(parser);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Class<?> getValueType(String type) {
+        if (type.equals(SiseType.TICKER.getType())) {
+            return TickerDto.class;
+        }
+        if (type.equals(SiseType.TRADE.getType())) {
+            return Trade.class;
+        }
+        if (type.equals(SiseType.ORDER_BOOK.getType())) {
+            return OrderBook.class;
+        }
+        return null;
+    }
+
+    /**
+     * type 필드보다 먼저 읽은 필드가 있다면 버퍼와 남은 parser를 하나의 parser로 이어 붙인다.
+     */
+    private JsonParser withBufferedFields(TokenBuffer buffer, JsonParser parser) {
+        if (buffer == null) {
+            return parser;
+        }
+        return JsonParserSequence.createFlattened(true, buffer.asParser(parser), parser);
+    }
+}
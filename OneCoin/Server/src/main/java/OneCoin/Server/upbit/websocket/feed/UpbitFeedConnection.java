@@ -0,0 +1,150 @@
+package OneCoin.Server.upbit.websocket.feed;
+
+import OneCoin.Server.upbit.websocket.listener.UpbitWebSocketListener;
+import lombok.Getter;
+import okhttp3.WebSocket;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * upbit websocket 연결 하나와 그 연결이 구독하는 마켓 코드 목록.
+ * 재연결할 때마다 listener가 새로 만들어지고, 이전 listener에서 늦게 도착한 이벤트는 무시한다.
+ */
+public class UpbitFeedConnection {
+    @Getter
+    private final int id;
+    @Getter
+    private volatile List<String> codes;
+    private final UpbitFeedManager manager;
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private volatile UpbitWebSocketListener listener;
+    private volatile WebSocket webSocket;
+    private volatile boolean open;
+    private volatile long lastMessageAt;
+    private volatile double messageRate;
+    @Getter
+    private volatile int attempts;
+    private long lastCheckedMessages;
+    private long lastCheckedAt;
+
+    public UpbitFeedConnection(int id, List<String> codes, UpbitFeedManager manager) {
+        this.id = id;
+        this.codes = codes;
+        this.manager = manager;
+    }
+
+    void connecting(UpbitWebSocketListener listener) {
+        this.listener = listener;
+    }
+
+    void connected(UpbitWebSocketListener listener, WebSocket webSocket) {
+        if (listener == this.listener) {
+            this.webSocket = webSocket;
+        }
+    }
+
+    public void opened(UpbitWebSocketListener listener) {
+        if (listener != this.listener) {
+            return;
+        }
+        open = true;
+        attempts = 0;
+        lastMessageAt = System.currentTimeMillis();
+    }
+
+    public void received() {
+        receivedMessages.incrementAndGet();
+        lastMessageAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 현재 listener의 연결이 끊어졌을 때만 재연결을 요청한다.
+     */
+    public void disconnected(UpbitWebSocketListener listener) {
+        if (listener != this.listener) {
+            return;
+        }
+        this.listener = null;
+        this.webSocket = null;
+        open = false;
+        attempts++;
+        manager.scheduleReconnect(this);
+    }
+
+    void close() {
+        WebSocket current = webSocket;
+        listener = null;
+        webSocket = null;
+        open = false;
+        if (current != null) {
+            current.close(1000, "shutdown");
+        }
+    }
+
+    /**
+     * frame이 오지 않는데도 열려 있는 연결은 끊고 재연결한다.
+     */
+    void forceReconnect() {
+        UpbitWebSocketListener current = listener;
+        WebSocket currentWebSocket = webSocket;
+        if (currentWebSocket != null) {
+            currentWebSocket.cancel();
+        }
+        disconnected(current);
+    }
+
+    /**
+     * 구독 목록을 바꾼다. 열려 있는 연결이면 같은 연결에 구독 요청을 다시 보내고, 아니면 다음 연결부터 반영된다.
+     */
+    void resubscribe(List<String> codes) {
+        this.codes = codes;
+        UpbitWebSocketListener current = listener;
+        WebSocket currentWebSocket = webSocket;
+        if (current == null) {
+            return;
+        }
+        current.setParameter(codes);
+        if (open && currentWebSocket != null) {
+            currentWebSocket.send(current.getParameter());
+        }
+    }
+
+    boolean isStalled(long now, long stallMillis) {
+        return open && now - lastMessageAt > stallMillis;
+    }
+
+    /**
+     * 직전 측정 이후 초당 수신한 frame 수를 계산한다.
+     */
+    void updateMessageRate(long now) {
+        long messages = receivedMessages.get();
+        if (lastCheckedAt != 0 && now > lastCheckedAt) {
+            messageRate = (messages - lastCheckedMessages) * 1000.0 / (now - lastCheckedAt);
+        }
+        lastCheckedMessages = messages;
+        lastCheckedAt = now;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public long getReceivedMessages() {
+        return receivedMessages.get();
+    }
+
+    public double getMessageRate() {
+        return messageRate;
+    }
+
+    /**
+     * 마지막 frame을 받은 뒤 지난 시간(ms). 연결이 끊긴 동안에도 계속 증가한다.
+     */
+    public long getLagMillis() {
+        if (lastMessageAt == 0) {
+            return 0;
+        }
+        return System.currentTimeMillis() - lastMessageAt;
+    }
+}
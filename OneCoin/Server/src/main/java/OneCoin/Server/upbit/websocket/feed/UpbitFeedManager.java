@@ -0,0 +1,207 @@
+package OneCoin.Server.upbit.websocket.feed;
+
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.coin.service.MarketUniverse;
+import OneCoin.Server.upbit.websocket.journal.UpbitFrameRecorder;
+import OneCoin.Server.upbit.websocket.listener.UpbitWebSocketListener;
+import OneCoin.Server.upbit.websocket.pipeline.UpbitIngestPipeline;
+import OneCoin.Server.utils.JsonUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.WebSocket;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 마켓 코드를 여러 upbit websocket 연결로 나누어 구독하고, 끊어진 연결은 backoff 후 다시 연결한다.
+ * 연결마다 OkHttp reader thread가 따로 있으므로 한 마켓에 frame이 몰려도 다른 연결의 마켓은 밀리지 않는다.
+ */
+@Slf4j
+@Component
+public class UpbitFeedManager {
+    private static final String UPBIT_WEBSOCKET_URL = "wss://api.upbit.com/websocket/v1";
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final long STALL_MILLIS = 10_000;
+
+    private final OkHttpClient okHttpClient;
+    private final JsonUtil jsonUtil;
+    private final UpbitIngestPipeline ingestPipeline;
+    private final UpbitFrameRecorder recorder;
+    private final MeterRegistry meterRegistry;
+    private final MarketUniverse marketUniverse;
+    private final int numberOfConnections;
+    private final Request request = new Request.Builder().url(UPBIT_WEBSOCKET_URL).build();
+    private final ScheduledExecutorService reconnectExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "UpbitFeed-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<UpbitFeedConnection> connections = new ArrayList<>();
+
+    public UpbitFeedManager(OkHttpClient okHttpClient,
+                            JsonUtil jsonUtil,
+                            UpbitIngestPipeline ingestPipeline,
+                            UpbitFrameRecorder recorder,
+                            MeterRegistry meterRegistry,
+                            MarketUniverse marketUniverse,
+                            @Value("${upbit.feed.connections:2}") int numberOfConnections) {
+        this.okHttpClient = okHttpClient;
+        this.jsonUtil = jsonUtil;
+        this.ingestPipeline = ingestPipeline;
+        this.recorder = recorder;
+        this.meterRegistry = meterRegistry;
+        this.marketUniverse = marketUniverse;
+        this.numberOfConnections = numberOfConnections;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (numberOfConnections <= 0) {
+            log.info("Upbit feed is disabled");
+            return;
+        }
+        List<List<String>> shards = split(marketUniverse.getCodes(), numberOfConnections);
+        for (int id = 0; id < shards.size(); id++) {
+            UpbitFeedConnection connection = new UpbitFeedConnection(id, shards.get(id), this);
+            registerMetrics(connection);
+            connections.add(connection);
+            connect(connection);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconnectExecutor.shutdownNow();
+        connections.forEach(UpbitFeedConnection::close);
+    }
+
+    public List<UpbitFeedConnection> getConnections() {
+        return Collections.unmodifiableList(connections);
+    }
+
+    /**
+     * 마켓 코드를 연결 수만큼 round-robin으로 나눈다.
+     */
+    private List<List<String>> split(List<String> codes, int size) {
+        int numberOfShards = Math.max(1, Math.min(size, codes.size()));
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < numberOfShards; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (int i = 0; i < codes.size(); i++) {
+            shards.get(i % numberOfShards).add(codes.get(i));
+        }
+        return shards;
+    }
+
+    private void connect(UpbitFeedConnection connection) {
+        if (connection.getCodes().isEmpty()) {
+            return;
+        }
+        UpbitWebSocketListener listener = new UpbitWebSocketListener(jsonUtil, ingestPipeline, recorder, connection);
+        listener.setParameter(connection.getCodes());
+        connection.connecting(listener);
+        WebSocket webSocket = okHttpClient.newWebSocket(request, listener);
+        connection.connected(listener, webSocket);
+    }
+
+    /**
+     * 마켓이 추가되면 구독 수가 가장 적은 연결에, 빠지면 그 마켓을 구독하던 연결에만 구독 요청을 다시 보낸다.
+     * 나머지 연결은 영향을 받지 않는다.
+     */
+    @EventListener
+    public synchronized void onMarketChanged(MarketChangedEvent event) {
+        if (connections.isEmpty()) {
+            return;
+        }
+        String code = event.getCode();
+        if (event.isAdded()) {
+            UpbitFeedConnection connection = Collections.min(connections, Comparator.comparingInt(c -> c.getCodes().size()));
+            List<String> codes = new ArrayList<>(connection.getCodes());
+            codes.add(code);
+            boolean idle = connection.getCodes().isEmpty();
+            connection.resubscribe(codes);
+            if (idle) {
+                connect(connection);
+            }
+            return;
+        }
+        for (UpbitFeedConnection connection : connections) {
+            if (!connection.getCodes().contains(code)) {
+                continue;
+            }
+            List<String> codes = new ArrayList<>(connection.getCodes());
+            codes.remove(code);
+            if (codes.isEmpty()) {
+                connection.close();
+            }
+            connection.resubscribe(codes);
+        }
+    }
+
+    /**
+     * 지수 backoff에 jitter를 더해 재연결한다. 여러 연결이 동시에 끊겨도 재연결 시점이 흩어진다.
+     */
+    void scheduleReconnect(UpbitFeedConnection connection) {
+        long backoff = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << Math.min(connection.getAttempts(), 16));
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        log.warn("Upbit feed {} disconnected, reconnecting in {}ms (attempt {})", connection.getId(), delay, connection.getAttempts());
+
+        try {
+            reconnectExecutor.schedule(() -> connect(connection), delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.info("Upbit feed {} is shutting down", connection.getId());
+        }
+    }
+
+    /**
+     * frame이 끊긴 채 열려 있는 연결을 찾아 재연결하고, 연결별 초당 수신량을 갱신한다.
+     */
+    @Scheduled(fixedDelay = 5000)
+    public void checkConnections() {
+        long now = System.currentTimeMillis();
+        for (UpbitFeedConnection connection : connections) {
+            connection.updateMessageRate(now);
+            if (connection.isStalled(now, STALL_MILLIS)) {
+                log.warn("Upbit feed {} has been silent for {}ms", connection.getId(), connection.getLagMillis());
+                connection.forceReconnect();
+            }
+        }
+    }
+
+    private void registerMetrics(UpbitFeedConnection connection) {
+        String id = String.valueOf(connection.getId());
+        Gauge.builder("upbit.feed.messages", connection, UpbitFeedConnection::getReceivedMessages)
+                .tag("connection", id)
+                .register(meterRegistry);
+        Gauge.builder("upbit.feed.message.rate", connection, UpbitFeedConnection::getMessageRate)
+                .tag("connection", id)
+                .baseUnit("messages/s")
+                .register(meterRegistry);
+        Gauge.builder("upbit.feed.lag", connection, UpbitFeedConnection::getLagMillis)
+                .tag("connection", id)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("upbit.feed.open", connection, c -> c.isOpen() ? 1 : 0)
+                .tag("connection", id)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package OneCoin.Server.upbit.websocket.journal;
+
+import OneCoin.Server.utils.journal.MappedJournal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Path;
+
+/**
+ * upbit에서 받은 frame을 수신 시각과 함께 journal에 그대로 기록한다.
+ * upbit.recorder.enabled=true일 때만 기록하며, 기록된 journal은 UpbitFrameReplayer로 다시 재생할 수 있다.
+ */
+@Slf4j
+@Component
+public class UpbitFrameRecorder {
+    private final MappedJournal journal;
+
+    public UpbitFrameRecorder(@Value("${upbit.recorder.enabled:false}") boolean enabled,
+                              @Value("${upbit.recorder.directory:journal/upbit}") String directory,
+                              @Value("${upbit.recorder.segment-size:67108864}") int segmentSize) {
+        if (enabled) {
+            this.journal = new MappedJournal(Path.of(directory), segmentSize);
+            log.info("Recording upbit frames to {}", directory);
+        } else {
+            this.journal = null;
+        }
+    }
+
+    public void record(byte[] frame) {
+        if (journal == null) {
+            return;
+        }
+        journal.append(System.currentTimeMillis(), frame);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package OneCoin.Server.upbit.websocket.journal;
+
+import OneCoin.Server.upbit.service.UpbitHandlingService;
+import OneCoin.Server.utils.journal.JournalReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UpbitFrameRecorder가 기록한 journal을 UpbitHandlingService.parsing으로 다시 흘려보낸다.
+ * speed가 1이면 기록된 간격 그대로, N이면 N배 빠르게, 0 이하이면 기다리지 않고 최대 속도로 재생한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UpbitFrameReplayer {
+    private final UpbitHandlingService upbitHandlingService;
+
+    /**
+     * @return 재생한 frame 수
+     */
+    public long replay(Path directory, double speed) {
+        long startedAt = System.nanoTime();
+        Pacer pacer = new Pacer(speed);
+        long frames = new JournalReader(directory).forEach((timestamp, payload) -> {
+            pacer.await(timestamp);
+            upbitHandlingService.parsing(payload);
+        });
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        log.info("Replayed {} upbit frames in {}ms ({} frames/s)", frames, elapsedMillis,
+                elapsedMillis == 0 ? frames : frames * 1000 / elapsedMillis);
+        return frames;
+    }
+
+    /**
+     * 첫 frame의 수신 시각을 기준으로 각 frame을 재생할 시점까지 기다린다.
+     */
+    private static class Pacer {
+        private final double speed;
+        private long firstTimestamp = -1;
+        private long startedAt;
+
+        Pacer(double speed) {
+            this.speed = speed;
+        }
+
+        void await(long timestamp) {
+            if (speed <= 0) {
+                return;
+            }
+            if (firstTimestamp < 0) {
+                firstTimestamp = timestamp;
+                startedAt = System.nanoTime();
+                return;
+            }
+            long dueAt = startedAt + (long) (TimeUnit.MILLISECONDS.toNanos(timestamp - firstTimestamp) / speed);
+            long waitNanos = dueAt - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(waitNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
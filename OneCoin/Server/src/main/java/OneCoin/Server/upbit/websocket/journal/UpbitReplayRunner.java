@@ -0,0 +1,39 @@
+package OneCoin.Server.upbit.websocket.journal;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * upbit.replay.directory가 지정되면 서버가 뜬 뒤 기록된 journal을 재생한다.
+ * 실시간 시세와 섞이지 않도록 upbit.feed.connections=0과 함께 사용한다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("upbit.replay.directory")
+public class UpbitReplayRunner implements ApplicationRunner {
+    private final UpbitFrameReplayer replayer;
+    private final Path directory;
+    private final double speed;
+
+    public UpbitReplayRunner(UpbitFrameReplayer replayer,
+                             @Value("${upbit.replay.directory}") String directory,
+                             @Value("${upbit.replay.speed:1}") double speed) {
+        this.replayer = replayer;
+        this.directory = Path.of(directory);
+        this.speed = speed;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Thread thread = new Thread(() -> replayer.replay(directory, speed), "UpbitReplay");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Replaying upbit frames from {} at speed {}", directory, speed);
+    }
+}
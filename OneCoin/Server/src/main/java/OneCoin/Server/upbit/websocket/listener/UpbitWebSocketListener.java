@@ -1,9 +1,10 @@
 package OneCoin.Server.upbit.websocket.listener;
 
 import OneCoin.Server.upbit.entity.enums.SiseType;
-import OneCoin.Server.upbit.service.UpbitHandlingService;
+import OneCoin.Server.upbit.websocket.feed.UpbitFeedConnection;
+import OneCoin.Server.upbit.websocket.journal.UpbitFrameRecorder;
+import OneCoin.Server.upbit.websocket.pipeline.UpbitIngestPipeline;
 import OneCoin.Server.utils.JsonUtil;
-import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,14 +14,15 @@ import okhttp3.WebSocketListener;
 import okio.ByteString;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @Slf4j
 @RequiredArgsConstructor
 public class UpbitWebSocketListener extends WebSocketListener {
     private final JsonUtil jsonUtil;
-    private final UpbitHandlingService upbitHandlingService;
+    private final UpbitIngestPipeline ingestPipeline;
+    private final UpbitFrameRecorder recorder;
+    private final UpbitFeedConnection connection;
     private String parameter;
 
     public String getParameter() {
@@ -39,27 +41,32 @@ public class UpbitWebSocketListener extends WebSocketListener {
     @Override
     public void onClosed(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
         log.warn("Socket Closed: {}, {}", code, reason);
+        connection.disconnected(this);
     }
 
     @Override
     public void onClosing(@NotNull WebSocket webSocket, int code, @NotNull String reason) {
         log.warn("Socket Closing: {}, {}", code, reason);
-
+        webSocket.close(code, null);
     }
 
     @Override
     public void onFailure(@NotNull WebSocket webSocket, @NotNull Throwable t, Response response) {
         log.error("Socket Error: {}", t.getMessage());
+        connection.disconnected(this);
     }
 
     @Override
-    public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString text) {
-        JsonNode jsonNode = jsonUtil.fromJson(text.string(StandardCharsets.UTF_8), JsonNode.class);
-        upbitHandlingService.parsing(jsonNode);
+    public void onMessage(@NotNull WebSocket webSocket, @NotNull ByteString bytes) {
+        connection.received();
+        byte[] frame = bytes.toByteArray();
+        recorder.record(frame);
+        ingestPipeline.offer(frame);
     }
 
     @Override
     public void onOpen(@NotNull WebSocket webSocket, @NotNull Response response) {
+        connection.opened(this);
         webSocket.send(getParameter());
     }
 
@@ -0,0 +1,275 @@
+package OneCoin.Server.upbit.websocket.pipeline;
+
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.OrderBook;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.upbit.service.UpbitHandlingService;
+import OneCoin.Server.upbit.websocket.decoder.UpbitMessageDecoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * upbit frame을 socket reader thread에서 떼어내 단계별로 처리한다.
+ * <p>
+ * reader thread는 frame을 크기가 정해진 queue에 넣기만 한다. decoder thread가 frame을 역직렬화하고,
+ * ticker와 호가는 코드별로 마지막 값 하나만 남겨 handler thread로 넘긴다. 체결은 버리지 않고 순서대로 trade worker에서 처리한다.
+ * queue가 가득 차면 ticker와 호가 frame은 버리고, 체결 frame은 자리가 날 때까지 reader thread를 기다리게 한다.
+ * 체결 queue도 같은 크기로 제한하며, 가득 차면 decoder thread가 기다리므로 그 압력이 frame queue를 거쳐 reader thread까지 전달된다.
+ */
+@Slf4j
+@Component
+public class UpbitIngestPipeline {
+    private static final byte[] TRADE_TYPE = "\"type\":\"trade\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TYPE_FIELD = "\"type\"".getBytes(StandardCharsets.US_ASCII);
+    private static final int TYPE_SNIFF_LENGTH = 64;
+
+    private final UpbitMessageDecoder decoder;
+    private final UpbitHandlingService upbitHandlingService;
+    private final BlockingQueue<byte[]> frames;
+    private final BlockingQueue<Trade> trades;
+    private final Coalescer<TickerDto> tickers;
+    private final Coalescer<OrderBook> orderBooks;
+    private final Counter droppedFrames;
+    private final Counter blockedTradeFrames;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public UpbitIngestPipeline(UpbitMessageDecoder decoder,
+                               UpbitHandlingService upbitHandlingService,
+                               MeterRegistry meterRegistry,
+                               @Value("${upbit.ingest.capacity:8192}") int capacity) {
+        this.decoder = decoder;
+        this.upbitHandlingService = upbitHandlingService;
+        this.frames = new ArrayBlockingQueue<>(capacity);
+        this.trades = new ArrayBlockingQueue<>(capacity);
+        this.tickers = new Coalescer<>(upbitHandlingService::handleTicker, coalescedCounter(meterRegistry, "ticker"));
+        this.orderBooks = new Coalescer<>(upbitHandlingService::handleOrderBook, coalescedCounter(meterRegistry, "orderbook"));
+        this.droppedFrames = Counter.builder("upbit.ingest.dropped").register(meterRegistry);
+        this.blockedTradeFrames = Counter.builder("upbit.ingest.trade.blocked").register(meterRegistry);
+
+        Gauge.builder("upbit.ingest.queue.depth", frames, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("upbit.ingest.trade.pending", trades, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("upbit.ingest.coalescing.pending", tickers, Coalescer::pendingSize).tag("type", "ticker").register(meterRegistry);
+        Gauge.builder("upbit.ingest.coalescing.pending", orderBooks, Coalescer::pendingSize).tag("type", "orderbook").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        startWorker("UpbitIngest-decoder", this::decodeLoop);
+        startWorker("UpbitIngest-ticker", () -> tickers.handleLoop(this));
+        startWorker("UpbitIngest-orderbook", () -> orderBooks.handleLoop(this));
+        startWorker("UpbitIngest-trade", this::tradeLoop);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * socket reader thread에서 호출한다. 체결이 아닌 frame은 queue가 가득 차면 버린다.
+     */
+    public void offer(byte[] frame) {
+        if (frames.offer(frame)) {
+            return;
+        }
+        if (!isTrade(frame)) {
+            droppedFrames.increment();
+            return;
+        }
+        blockedTradeFrames.increment();
+        try {
+            frames.put(frame);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * upbit는 type 필드를 가장 먼저 보내므로 frame 앞부분만 보고 체결인지 판단한다.
+     * 앞부분에서 type을 찾지 못하면 체결일 수도 있으므로 버리지 않는다.
+     */
+    static boolean isTrade(byte[] frame) {
+        int length = Math.min(frame.length, TYPE_SNIFF_LENGTH);
+        if (indexOf(frame, length, TRADE_TYPE) >= 0) {
+            return true;
+        }
+        return indexOf(frame, length, TYPE_FIELD) < 0;
+    }
+
+    private static int indexOf(byte[] frame, int length, byte[] target) {
+        outer:
+        for (int i = 0; i <= length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (frame[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private void decodeLoop() {
+        while (running) {
+            try {
+                dispatch(frames.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to decode upbit frame", e);
+            }
+        }
+    }
+
+    void dispatch(byte[] frame) {
+        Object message = decoder.decode(frame);
+
+        if (message instanceof TickerDto) {
+            TickerDto tickerDto = (TickerDto) message;
+            tickers.put(tickerDto.getCode(), tickerDto);
+        }
+        if (message instanceof OrderBook) {
+            OrderBook orderBook = (OrderBook) message;
+            orderBooks.put(orderBook.getCode(), orderBook);
+        }
+        if (message instanceof Trade) {
+            enqueueTrade((Trade) message);
+        }
+    }
+
+    /**
+     * 체결은 버리지 않는다. 체결 queue가 가득 차면 자리가 날 때까지 기다린다.
+     */
+    private void enqueueTrade(Trade trade) {
+        if (trades.offer(trade)) {
+            return;
+        }
+        blockedTradeFrames.increment();
+        try {
+            trades.put(trade);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tradeLoop() {
+        while (running) {
+            try {
+                upbitHandlingService.handleTrade(trades.take());
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to handle upbit trade", e);
+            }
+        }
+    }
+
+    /**
+     * queue에 쌓인 frame과 대기 중인 값을 호출한 thread에서 모두 처리한다.
+     * 체결 queue가 가득 차서 기다리지 않도록 frame 하나를 넘길 때마다 체결을 처리한다.
+     */
+    void drain() {
+        byte[] frame;
+        while ((frame = frames.poll()) != null) {
+            dispatch(frame);
+            drainTrades();
+        }
+        tickers.drain();
+        orderBooks.drain();
+        drainTrades();
+    }
+
+    private void drainTrades() {
+        Trade trade;
+        while ((trade = trades.poll()) != null) {
+            upbitHandlingService.handleTrade(trade);
+        }
+    }
+
+    boolean isRunning() {
+        return running;
+    }
+
+    private void startWorker(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        workers.add(thread);
+    }
+
+    private static Counter coalescedCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("upbit.ingest.coalesced").tag("type", type).register(meterRegistry);
+    }
+
+    /**
+     * 코드별로 마지막 값 하나만 남긴다. 코드는 처리 대기 queue에 최대 한 번만 들어가므로 queue 크기는 마켓 수를 넘지 않는다.
+     */
+    private static class Coalescer<T> {
+        private final ConcurrentMap<String, T> latest = new ConcurrentHashMap<>();
+        private final BlockingQueue<String> ready = new LinkedBlockingQueue<>();
+        private final Consumer<T> handler;
+        private final Counter coalesced;
+
+        Coalescer(Consumer<T> handler, Counter coalesced) {
+            this.handler = handler;
+            this.coalesced = coalesced;
+        }
+
+        void put(String code, T value) {
+            if (latest.put(code, value) == null) {
+                ready.add(code);
+            } else {
+                coalesced.increment();
+            }
+        }
+
+        void handleLoop(UpbitIngestPipeline pipeline) {
+            while (pipeline.isRunning()) {
+                try {
+                    handle(ready.take());
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Failed to handle upbit message", e);
+                }
+            }
+        }
+
+        void drain() {
+            String code;
+            while ((code = ready.poll()) != null) {
+                handle(code);
+            }
+        }
+
+        private void handle(String code) {
+            T value = latest.remove(code);
+            if (value != null) {
+                handler.accept(value);
+            }
+        }
+
+        int pendingSize() {
+            return latest.size();
+        }
+    }
+}
@@ -7,24 +7,75 @@ import OneCoin.Server.upbit.dto.ticker.TickerDto;
 import OneCoin.Server.upbit.repository.OrderBookRepository;
 import OneCoin.Server.upbit.repository.TickerRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 import java.util.List;
 
+/**
+ * 직전 전송 이후 바뀐 마켓만 보낸다.
+ * 새로 구독한 client가 있거나 마지막 전체 전송 후 일정 시간이 지나면 전체 마켓을 보낸다.
+ */
 @Component
 @RequiredArgsConstructor
 public class UpbitWebSocketPublisher {
+    private static final String DESTINATION = "/info/upbit";
+    private static final long SNAPSHOT_INTERVAL_MILLIS = 10_000;
+
     private final SimpMessagingTemplate messagingTemplate;
     private final TickerRepository tickerRepository;
     private final OrderBookRepository orderBookRepository;
+    private long tickerVersion;
+    private long orderBookVersion;
+    private long lastSnapshotAt;
+    private volatile boolean snapshotRequested = true;
 
     @Scheduled(fixedDelay = 1000)
     public void send() {
+        long now = System.currentTimeMillis();
+        long currentTickerVersion = tickerRepository.getVersion();
+        long currentOrderBookVersion = orderBookRepository.getVersion();
+
+        if (snapshotRequested || now - lastSnapshotAt >= SNAPSHOT_INTERVAL_MILLIS) {
+            snapshotRequested = false;
+            lastSnapshotAt = now;
+            sendSnapshot();
+        } else {
+            sendChanges();
+        }
+        tickerVersion = currentTickerVersion;
+        orderBookVersion = currentOrderBookVersion;
+    }
+
+    /**
+     * 새 client가 시세를 구독하면 다음 전송은 전체 마켓으로 보낸다.
+     */
+    @EventListener
+    public void requestSnapshot(SessionSubscribeEvent event) {
+        String destination = SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders());
+        if (DESTINATION.equals(destination)) {
+            snapshotRequested = true;
+        }
+    }
+
+    private void sendSnapshot() {
         List<TickerDto> tickerDto = tickerRepository.findTickers();
         List<OrderBookDto> orderBookDto = orderBookRepository.findOrderBooks();
-        MarketDto marketDto = new MarketDto(tickerDto, orderBookDto);
-        messagingTemplate.convertAndSend("/info/upbit", new SingleResponseDto<>(marketDto));
+        MarketDto marketDto = new MarketDto(tickerDto, orderBookDto, true);
+        messagingTemplate.convertAndSend(DESTINATION, new SingleResponseDto<>(marketDto));
+    }
+
+    private void sendChanges() {
+        List<TickerDto> tickerDto = tickerRepository.findTickersChangedSince(tickerVersion);
+        List<OrderBookDto> orderBookDto = orderBookRepository.findOrderBooksChangedSince(orderBookVersion);
+        if (tickerDto.isEmpty() && orderBookDto.isEmpty()) {
+            return;
+        }
+        MarketDto marketDto = new MarketDto(tickerDto, orderBookDto, false);
+        messagingTemplate.convertAndSend(DESTINATION, new SingleResponseDto<>(marketDto));
     }
 }
@@ -8,6 +8,9 @@ import java.math.RoundingMode;
 
 @Component
 public class CalculationUtil {
+    private static final long BASIS_POINTS = 10_000L;
+    private static final long MAX_RATE_DIFFERENCE = Long.MAX_VALUE / BASIS_POINTS;
+
     /**
      * 평균 단가를 계산한다.
      */
@@ -32,6 +35,35 @@ public class CalculationUtil {
         return getSign(changeRate) + changeRate + "%";
     }
 
+    /**
+     * FixedPoint 가격으로 전일 대비 상승률을 계산한다. 결과는 calculateChangeRate(String, String)과 같다.
+     */
+    public String calculateChangeRate(long price, long prevClosingPrice) {
+        long difference = price - prevClosingPrice;
+        long prevPrice = prevClosingPrice;
+        while (Math.abs(difference) > MAX_RATE_DIFFERENCE) {
+            difference /= 10;
+            prevPrice /= 10;
+        }
+
+        long numerator = Math.abs(difference) * BASIS_POINTS;
+        long basisPoints = numerator / prevPrice;
+        if (numerator % prevPrice * 2 >= prevPrice) {
+            basisPoints++;
+        }
+
+        StringBuilder changeRate = new StringBuilder(8);
+        if (basisPoints != 0) {
+            changeRate.append(difference > 0 ? '+' : '-');
+        }
+        changeRate.append(basisPoints / 100).append('.');
+        long decimals = basisPoints % 100;
+        if (decimals < 10) {
+            changeRate.append('0');
+        }
+        return changeRate.append(decimals).append('%').toString();
+    }
+
     private String getSign(BigDecimal changeRate) {
         int comparison = changeRate.compareTo(BigDecimal.ZERO);
         if (comparison > 0) {
@@ -0,0 +1,110 @@
+package OneCoin.Server.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 가격과 수량을 소수점 아래 8자리까지 표현하는 scaled long으로 다룬다.
+ * upbit는 "2.2525E7"처럼 지수 표기로 값을 보내기도 하므로 지수 표기까지 BigDecimal 없이 바로 읽는다.
+ */
+public final class FixedPoint {
+    public static final int SCALE = 8;
+    public static final long ONE = 100_000_000L;
+    private static final long MAX_MANTISSA = (Long.MAX_VALUE - 9) / 10;
+    private static final long[] POWERS_OF_TEN = new long[19];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private FixedPoint() {
+    }
+
+    /**
+     * 문자열을 scaled long으로 바꾼다. 8자리 아래는 반올림하고, null이나 빈 문자열은 0이 된다.
+     * @throws NumberFormatException 숫자가 아닐 경우
+     * @throws ArithmeticException long 범위를 넘을 경우
+     */
+    public static long parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        char first = value.charAt(0);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            index++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        boolean fraction = false;
+        for (; index < length; index++) {
+            char c = value.charAt(index);
+            if (c == '.') {
+                fraction = true;
+                continue;
+            }
+            if (c == 'e' || c == 'E') {
+                exponent += Integer.parseInt(value, index + 1, length, 10);
+                break;
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException(value);
+            }
+            if (mantissa <= MAX_MANTISSA) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (fraction) {
+                    exponent--;
+                }
+            } else if (!fraction) {
+                exponent++;
+            }
+        }
+
+        long scaled = scale(mantissa, exponent + SCALE);
+        return negative ? -scaled : scaled;
+    }
+
+    private static long scale(long mantissa, int shift) {
+        if (shift >= POWERS_OF_TEN.length) {
+            if (mantissa == 0) {
+                return 0;
+            }
+            throw new ArithmeticException("fixed point overflow");
+        }
+        if (shift >= 0) {
+            return Math.multiplyExact(mantissa, POWERS_OF_TEN[shift]);
+        }
+        if (-shift >= POWERS_OF_TEN.length) {
+            return 0;
+        }
+        long divisor = POWERS_OF_TEN[-shift];
+        long quotient = mantissa / divisor;
+        if (mantissa % divisor * 2 >= divisor) {
+            quotient++;
+        }
+        return quotient;
+    }
+
+    public static double toDouble(long value) {
+        return (double) value / ONE;
+    }
+
+    /**
+     * BigDecimal을 scaled long으로 바꾼다. 8자리 아래는 반올림한다.
+     * @throws ArithmeticException long 범위를 넘을 경우
+     */
+    public static long valueOf(BigDecimal value) {
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long value) {
+        return BigDecimal.valueOf(value, SCALE);
+    }
+}
@@ -0,0 +1,140 @@
+package OneCoin.Server.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 만료 시각을 tick 단위로 나눠 원형 bucket에 담아두는 hashed timing wheel.
+ * 등록과 취소는 O(1)이고, advance()는 지나간 tick의 bucket만 훑으므로 만료 하나당 비용도 O(1)이다.
+ * 한 바퀴보다 먼 만료 시각은 같은 bucket에 남아 있다가 해당 바퀴가 돌아올 때 만료된다.
+ * <p>
+ * schedule()과 cancel()은 어느 스레드에서나 호출할 수 있다. 등록은 queue에 쌓아두었다가 advance()가 bucket으로 옮기고,
+ * 취소는 표시만 해두었다가 advance()가 bucket을 훑을 때 버리므로 bucket은 advance()만 다룬다.
+ */
+public class TimingWheel<T> {
+    private final long tickMillis;
+    private final int mask;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Long, Entry<T>> entries = new ConcurrentHashMap<>();
+    private long currentTick;
+
+    /**
+     * @param wheelSize bucket 수. 2의 거듭제곱으로 올림한다.
+     * @param startMillis 이 시각 이전의 tick은 처리된 것으로 본다.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMillis and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1 == 0 ? 1 : wheelSize - 1) << 1;
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new ArrayDeque[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * 같은 아이디가 이미 등록되어 있으면 이전 만료는 취소된다.
+     */
+    public void schedule(long id, T value, long deadlineMillis) {
+        long deadlineTick = (deadlineMillis + tickMillis - 1) / tickMillis;
+        Entry<T> entry = new Entry<>(id, value, deadlineTick);
+        Entry<T> previous = entries.put(id, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        pending.add(entry);
+    }
+
+    public void cancel(long id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    /**
+     * 만료를 기다리는 수
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * nowMillis까지의 tick을 처리하고 만료된 값을 리턴한다.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        transferPending(expired);
+        if (nowTick - currentTick > mask) { // 한 바퀴 넘게 밀린 경우 모든 bucket을 한 번씩만 훑는다.
+            for (ArrayDeque<Entry<T>> bucket : buckets) {
+                expire(bucket, nowTick, expired);
+            }
+            currentTick = nowTick;
+            return expired;
+        }
+        while (currentTick < nowTick) {
+            currentTick++;
+            expire(buckets[(int) (currentTick & mask)], currentTick, expired);
+        }
+        return expired;
+    }
+
+    private void transferPending(List<T> expired) {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            if (entry.deadlineTick <= currentTick) {
+                expire(entry, expired);
+                continue;
+            }
+            buckets[(int) (entry.deadlineTick & mask)].add(entry);
+        }
+    }
+
+    private void expire(ArrayDeque<Entry<T>> bucket, long tick, List<T> expired) {
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.cancelled) {
+                iterator.remove();
+            } else if (entry.deadlineTick <= tick) {
+                iterator.remove();
+                expire(entry, expired);
+            }
+        }
+    }
+
+    private void expire(Entry<T> entry, List<T> expired) {
+        if (entries.remove(entry.id, entry)) {
+            expired.add(entry.value);
+        }
+    }
+
+    private static class Entry<T> {
+        private final long id;
+        private final T value;
+        private final long deadlineTick;
+        private volatile boolean cancelled;
+
+        private Entry(long id, T value, long deadlineTick) {
+            this.id = id;
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
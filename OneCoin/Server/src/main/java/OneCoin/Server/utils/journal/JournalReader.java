@@ -0,0 +1,91 @@
+package OneCoin.Server.utils.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * MappedJournal이 기록한 segment를 번호 순서대로 읽는다.
+ */
+public class JournalReader {
+    private final Path directory;
+
+    public JournalReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public interface RecordHandler {
+        void handle(long timestamp, byte[] payload);
+    }
+
+    /**
+     * 모든 record를 기록된 순서대로 handler에 넘기고, 읽은 record 수를 리턴한다.
+     */
+    public long forEach(RecordHandler handler) {
+        long count = 0;
+        for (Path segment : segments(directory)) {
+            count += forEach(segment, handler);
+        }
+        return count;
+    }
+
+    /**
+     * segment 파일 목록을 번호 순서대로 조회한다. 마지막 segment는 아직 기록 중일 수 있다.
+     */
+    public List<Path> segments() {
+        return segments(directory);
+    }
+
+    /**
+     * segment 하나의 record를 기록된 순서대로 handler에 넘기고, 읽은 record 수를 리턴한다.
+     */
+    public long forEach(Path segment, RecordHandler handler) {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long count = 0;
+            while (buffer.remaining() >= MappedJournal.HEADER_SIZE) {
+                int length = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining() - Long.BYTES) {
+                    break;
+                }
+                long timestamp = buffer.getLong();
+                byte[] payload = new byte[length];
+                buffer.get(payload);
+                handler.handle(timestamp, payload);
+                count++;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(MappedJournal.SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static long lastSegmentIndex(Path directory) {
+        List<Path> segments = segments(directory);
+        if (segments.isEmpty()) {
+            return -1;
+        }
+        String name = segments.get(segments.size() - 1).getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - MappedJournal.SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,100 @@
+package OneCoin.Server.utils.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 메모리 매핑된 segment 파일에 record를 이어 쓰는 append-only journal.
+ * <p>
+ * record는 [길이(int)][timestamp(long)][payload] 순서로 기록된다. segment가 가득 차면 다음 번호의 segment를 새로 만들고,
+ * 파일의 남은 영역은 0으로 채워져 있으므로 길이가 0인 위치가 segment의 끝이 된다.
+ * 여러 thread에서 동시에 append해도 되도록 쓰기는 동기화한다.
+ */
+public class MappedJournal implements Closeable {
+    static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentIndex;
+
+    public MappedJournal(Path directory, int segmentSize) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            this.segmentIndex = JournalReader.lastSegmentIndex(directory) + 1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        openSegment();
+    }
+
+    public synchronized void append(long timestamp, byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("record is larger than segment: " + recordSize);
+        }
+        if (buffer.remaining() < recordSize) {
+            rotate();
+        }
+        buffer.putInt(payload.length);
+        buffer.putLong(timestamp);
+        buffer.put(payload);
+    }
+
+    /**
+     * 지금까지 쓴 내용을 디스크에 반영한다.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        buffer.force();
+        closeChannel();
+    }
+
+    private void rotate() {
+        buffer.force();
+        closeChannel();
+        segmentIndex++;
+        openSegment();
+    }
+
+    private void openSegment() {
+        Path segment = directory.resolve(segmentName(segmentIndex));
+        try {
+            channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+        }
+    }
+
+    static String segmentName(long index) {
+        return String.format("%016d%s", index, SEGMENT_SUFFIX);
+    }
+}
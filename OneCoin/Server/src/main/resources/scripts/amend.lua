@@ -0,0 +1,24 @@
+-- 미체결 주문의 지정가, 수량을 주문이 아직 남아 있을 때만 바꾼다.
+-- 정정하는 사이 취소된 주문을 다시 만들지 않도록 EXISTS 확인과 쓰기를 한 번에 실행한다.
+--
+-- KEYS[1] order:{orderId}
+-- KEYS[2] order:book:{code}:{orderType}
+-- KEYS[3] order:locked:{userId}
+-- ARGV[1] orderId
+-- ARGV[2] 지정가 (ZSET score)
+-- ARGV[3] 코인 코드
+-- ARGV[4] 묶인 수량 변화량 (FixedPoint 단위 정수, 매수 주문이나 변화가 없으면 0)
+-- ARGV[5..] 주문 hash의 필드, 값 쌍
+--
+-- 반환값: 1 바뀜, 0 주문이 이미 없음
+
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+
+redis.call('HSET', KEYS[1], unpack(ARGV, 5))
+redis.call('ZADD', KEYS[2], ARGV[2], ARGV[1])
+if ARGV[4] ~= '0' then
+    redis.call('HINCRBY', KEYS[3], ARGV[3], ARGV[4])
+end
+return 1
@@ -0,0 +1,43 @@
+-- 미체결 주문 하나를 지우고, 매도(ASK) 주문이면 지우는 순간 남아 있던 수량만큼 묶인 수량을 줄인다.
+-- 호출한 쪽이 들고 있던 Order의 수량은 그 사이 체결로 줄었을 수 있으므로 쓰지 않는다.
+--
+-- KEYS[1] order:{orderId}
+-- KEYS[2] order:book:{code}:{orderType}
+-- KEYS[3] order:user:{userId}
+-- KEYS[4] order:locked:{userId}
+-- ARGV[1] orderId
+-- ARGV[2] 코인 코드
+--
+-- 반환값: 삭제한 순간의 {미체결량, 지정가}. 주문이 이미 없으면 nil
+
+-- 소수 문자열을 FixedPoint(소수점 아래 8자리) 단위 정수 문자열로 바꾼다. double을 거치지 않도록 문자열로만 다루고,
+-- 9번째 자리에서 FixedPoint.valueOf처럼 반올림해야 하면 roundUp을 true로 돌려준다.
+local function toUnits(amount)
+    local whole, fraction = string.match(amount, '^(%d*)%.?(%d*)$')
+    fraction = fraction .. '000000000'
+    local units = string.gsub(whole .. string.sub(fraction, 1, 8), '^0+', '')
+    if units == '' then
+        units = '0'
+    end
+    return units, string.sub(fraction, 9, 9) >= '5'
+end
+
+local order = redis.call('HMGET', KEYS[1], 'orderType', 'amount', 'limit')
+if not order[1] then
+    return nil
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[2], ARGV[1])
+redis.call('SREM', KEYS[3], ARGV[1])
+
+if order[1] == 'ASK' and order[2] then
+    local units, roundUp = toUnits(order[2])
+    if units ~= '0' then
+        redis.call('HINCRBY', KEYS[4], ARGV[2], '-' .. units)
+    end
+    if roundUp then
+        redis.call('HINCRBY', KEYS[4], ARGV[2], -1)
+    end
+end
+return {order[2] or '0', order[3] or '0'}
@@ -0,0 +1,114 @@
+-- 주문 체결 하나를 원자적으로 반영한다.
+-- 주문은 OrderRepository의 key 구조를, 지갑은 Spring Data Redis(@RedisHash)의 key 구조를 그대로 따른다.
+-- 스크립트가 읽고 쓰는 key는 모두 KEYS로 넘겨받고, 스크립트 안에서 key 이름을 만들지 않는다.
+-- 지갑의 보유 수량과 평단가는 Java에서 BigDecimal로 계산해 넘기고, 스크립트는 계산할 때 읽은 지갑이
+-- 그대로인지 확인한 뒤 그 값을 그대로 쓴다. Lua 숫자(double)로는 계산하지 않는다.
+--
+-- KEYS[1] order:{orderId}
+-- KEYS[2] order:book:{code}:{orderType}
+-- KEYS[3] order:user:{userId}
+-- KEYS[4] order:locked:{userId}
+-- KEYS[5] settlement:outbox:{batchId} (체결 묶음의 outbox, SettlementOutboxRepository)
+-- KEYS[6] wallet:userId:{userId}
+-- KEYS[7] wallet:code:{code}
+-- KEYS[8] wallet:{계산할 때 읽은 walletId} (지갑이 없었으면 빈 문자열)
+-- KEYS[9] wallet:{반영할 walletId} (바꿀 지갑이 없으면 빈 문자열)
+-- KEYS[10] wallet:{반영할 walletId}:idx (바꿀 지갑이 없으면 빈 문자열)
+-- KEYS[11] wallet
+-- ARGV[1] orderId (즉시 체결 주문은 빈 문자열이며 주문과 묶인 수량은 건드리지 않는다)
+-- ARGV[2] 체결 후 미체결량 (0 이하이면 주문 삭제)
+-- ARGV[3] 거래 타입 (BID, ASK)
+-- ARGV[4] userId
+-- ARGV[5] 코인 코드
+-- ARGV[6] 체결량을 FixedPoint 단위로 바꾼 정수 (매도 주문에 묶인 수량 차감용)
+-- ARGV[7] 계산할 때 읽은 walletId (지갑이 없었으면 빈 문자열)
+-- ARGV[8] 계산할 때 읽은 보유 수량
+-- ARGV[9] 계산할 때 읽은 평단가
+-- ARGV[10] 반영할 walletId (새로 만들 지갑의 아이디 포함, 바꿀 지갑이 없으면 빈 문자열)
+-- ARGV[11] 체결 후 보유 수량 (빈 문자열이면 지갑 삭제)
+-- ARGV[12] 체결 후 평단가
+-- ARGV[13] Wallet 클래스 이름 (_class)
+-- ARGV[14] outbox에 반영 표시를 남길 필드 (applied:{체결 순번})
+--
+-- 반영하면 같은 스크립트 안에서 outbox에 반영 표시를 남기므로, MySQL 정산은 outbox만 보고 다시 할 수 있다.
+--
+-- 반환값: 1 반영됨, 0 주문이 이미 없어 반영하지 않음, -1 지갑이 계산한 뒤에 바뀌어 아무것도 반영하지 않음
+
+-- Wallet은 userId와 code만 @Indexed이므로 :idx에는 KEYS[6], KEYS[7]만 들어 있다.
+local function deleteWallet(id)
+    redis.call('SREM', KEYS[6], id)
+    redis.call('SREM', KEYS[7], id)
+    redis.call('DEL', KEYS[9], KEYS[10])
+    redis.call('SREM', KEYS[11], id)
+end
+
+local function markApplied()
+    redis.call('HSET', KEYS[5], ARGV[14], '1')
+    return 1
+end
+
+local orderKey = KEYS[1]
+local orderId = ARGV[1]
+local orderType = ARGV[3]
+local userId = ARGV[4]
+local code = ARGV[5]
+local userIndex = KEYS[6]
+local codeIndex = KEYS[7]
+
+if orderId ~= '' and redis.call('EXISTS', orderKey) == 0 then
+    return 0
+end
+
+local walletId = redis.call('SINTER', userIndex, codeIndex)[1] or ''
+if walletId ~= ARGV[7] then
+    return -1
+end
+if walletId ~= '' then
+    local holding = redis.call('HMGET', KEYS[8], 'amount', 'averagePrice')
+    if (holding[1] or '') ~= ARGV[8] or (holding[2] or '') ~= ARGV[9] then
+        return -1
+    end
+end
+
+if orderId ~= '' then
+    local remainingAmount = ARGV[2]
+    if tonumber(remainingAmount) <= 0 then
+        redis.call('DEL', orderKey)
+        redis.call('ZREM', KEYS[2], orderId)
+        redis.call('SREM', KEYS[3], orderId)
+    else
+        redis.call('HSET', orderKey, 'amount', remainingAmount)
+    end
+
+    if orderType == 'ASK' then
+        redis.call('HINCRBY', KEYS[4], code, '-' .. ARGV[6])
+    end
+end
+
+local targetId = ARGV[10]
+if targetId == '' then
+    return markApplied()
+end
+if ARGV[11] == '' then
+    deleteWallet(targetId)
+    return markApplied()
+end
+
+local walletKey = KEYS[9]
+if walletId ~= '' then
+    redis.call('HSET', walletKey, 'amount', ARGV[11], 'averagePrice', ARGV[12])
+    return markApplied()
+end
+
+redis.call('HSET', walletKey,
+    '_class', ARGV[13],
+    'walletId', targetId,
+    'amount', ARGV[11],
+    'averagePrice', ARGV[12],
+    'userId', userId,
+    'code', code)
+redis.call('SADD', KEYS[11], targetId)
+redis.call('SADD', userIndex, targetId)
+redis.call('SADD', codeIndex, targetId)
+redis.call('SADD', KEYS[10], userIndex, codeIndex)
+return markApplied()
@@ -0,0 +1,37 @@
+package OneCoin.Server.batch.tasklets;
+
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class LockedAmountTaskletTest {
+
+    @Test
+    @DisplayName("주문이 있는 사용자와 묶인 수량이 남아 있는 사용자 모두 한 번씩 다시 계산한다.")
+    void rebuildTest() throws Exception {
+        // given
+        OrderRepository orderRepository = mock(OrderRepository.class);
+        LockedAmountRepository lockedAmountRepository = mock(LockedAmountRepository.class);
+        given(orderRepository.findAllUserIds()).willReturn(Set.of(1L, 2L));
+        given(lockedAmountRepository.findAllUserIds()).willReturn(Set.of(2L, 3L));
+        LockedAmountTasklet tasklet = new LockedAmountTasklet(orderRepository, lockedAmountRepository);
+
+        // when
+        tasklet.execute(null, null);
+
+        // then
+        verify(lockedAmountRepository).rebuild(1L);
+        verify(lockedAmountRepository).rebuild(2L);
+        verify(lockedAmountRepository).rebuild(3L);
+        verify(lockedAmountRepository, times(3)).rebuild(anyLong());
+    }
+}
@@ -0,0 +1,93 @@
+package OneCoin.Server.candle.repository;
+
+import OneCoin.Server.candle.dto.CandleDto;
+import OneCoin.Server.candle.entity.Candle;
+import OneCoin.Server.candle.entity.enums.CandleUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CandleSeriesTest {
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    @DisplayName("같은 구간의 체결은 한 봉으로 합쳐진다.")
+    void aggregateTest() {
+        // given
+        CandleSeries series = new CandleSeries("KRW-BTC", CandleUnit.MINUTE, 4);
+
+        // when
+        series.update(MINUTE + 1_000, 100, 1);
+        series.update(MINUTE + 2_000, 120, 2);
+        series.update(MINUTE + 3_000, 90, 3);
+        series.update(MINUTE + 4_000, 110, 4);
+
+        // then
+        CandleDto candle = series.latest();
+        assertThat(candle.getOpenTime()).isEqualTo(MINUTE);
+        assertThat(candle.getOpen()).isEqualTo(100);
+        assertThat(candle.getHigh()).isEqualTo(120);
+        assertThat(candle.getLow()).isEqualTo(90);
+        assertThat(candle.getClose()).isEqualTo(110);
+        assertThat(candle.getVolume()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("capacity를 넘으면 가장 오래된 봉부터 덮어쓰고, 오래된 순서로 조회된다.")
+    void ringBufferTest() {
+        // given
+        CandleSeries series = new CandleSeries("KRW-BTC", CandleUnit.MINUTE, 3);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            series.update(i * MINUTE, 100 + i, 1);
+        }
+
+        // then
+        List<CandleDto> candles = series.read(10);
+        assertThat(candles).extracting(CandleDto::getOpenTime).containsExactly(2 * MINUTE, 3 * MINUTE, 4 * MINUTE);
+        assertThat(series.read(2)).extracting(CandleDto::getOpenTime).containsExactly(3 * MINUTE, 4 * MINUTE);
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 체결은 해당 구간의 봉에 반영된다.")
+    void lateTradeTest() {
+        // given
+        CandleSeries series = new CandleSeries("KRW-BTC", CandleUnit.MINUTE, 4);
+        series.update(0, 100, 1);
+        series.update(MINUTE, 200, 1);
+
+        // when
+        series.update(30_000, 150, 2);
+
+        // then
+        CandleDto candle = series.read(2).get(0);
+        assertThat(candle.getHigh()).isEqualTo(150);
+        assertThat(candle.getClose()).isEqualTo(100);
+        assertThat(candle.getVolume()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("마감된 봉만 저장 대상으로 꺼내고, 저장한 것으로 표시한 봉은 다시 꺼내지 않는다.")
+    void findClosedTest() {
+        // given
+        CandleSeries series = new CandleSeries("KRW-BTC", CandleUnit.MINUTE, 4);
+        series.update(0, 100, 1);
+        series.update(MINUTE, 200, 1);
+        series.update(2 * MINUTE, 300, 1);
+
+        // when
+        List<Candle> first = series.findClosed(2 * MINUTE + 1);
+        List<Candle> unflushed = series.findClosed(2 * MINUTE + 1);
+        series.markFlushed(MINUTE);
+        List<Candle> flushed = series.findClosed(2 * MINUTE + 1);
+
+        // then
+        assertThat(first).extracting(Candle::getOpenTime).containsExactly(0L, MINUTE);
+        assertThat(unflushed).extracting(Candle::getOpenTime).containsExactly(0L, MINUTE);
+        assertThat(flushed).isEmpty();
+    }
+}
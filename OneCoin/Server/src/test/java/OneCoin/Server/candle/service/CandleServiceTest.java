@@ -0,0 +1,80 @@
+package OneCoin.Server.candle.service;
+
+import OneCoin.Server.candle.entity.Candle;
+import OneCoin.Server.candle.repository.CandleRepository;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.utils.FixedPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CandleServiceTest {
+    private static final long HOUR = 3_600_000L;
+
+    @Mock
+    private CandleRepository candleRepository;
+
+    @InjectMocks
+    private CandleService candleService;
+
+    @Test
+    @DisplayName("저장에 실패한 봉은 다음 flush에서 다시 저장한다.")
+    void flushRetryTest() {
+        // given
+        candleService.aggregate(trade(0L));
+        given(candleRepository.saveAll(anyList()))
+                .willThrow(new IllegalStateException())
+                .willReturn(List.of());
+
+        // when
+        assertThatThrownBy(() -> candleService.flush(2 * HOUR))
+                .isInstanceOf(IllegalStateException.class);
+        int retried = candleService.flush(2 * HOUR);
+        int afterSaved = candleService.flush(2 * HOUR);
+
+        // then
+        assertThat(retried).isPositive();
+        assertThat(afterSaved).isZero();
+        verify(candleRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("진행 중인 봉은 저장하지 않는다.")
+    void flushSkipOpenBucketTest() {
+        // given
+        candleService.aggregate(trade(0L));
+        candleService.aggregate(trade(HOUR + 1));
+        ArgumentCaptor<List<Candle>> captor = ArgumentCaptor.forClass(List.class);
+
+        // when
+        candleService.flush(HOUR + 2);
+
+        // then
+        verify(candleRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Candle::getOpenTime).doesNotContain(HOUR);
+    }
+
+    private Trade trade(long timestamp) {
+        Trade trade = mock(Trade.class);
+        given(trade.getCode()).willReturn("KRW-BTC");
+        given(trade.getTradeTimestamp()).willReturn(timestamp);
+        given(trade.getTradePriceValue()).willReturn(FixedPoint.parse("100"));
+        given(trade.getTradeVolumeValue()).willReturn(FixedPoint.parse("1"));
+        return trade;
+    }
+}
@@ -0,0 +1,76 @@
+package OneCoin.Server.coin.service;
+
+import OneCoin.Server.coin.entity.Coin;
+import OneCoin.Server.coin.repository.CoinRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class CoinServiceTest {
+    private CoinRepository coinRepository;
+    private MarketUniverse marketUniverse;
+    private CoinService coinService;
+
+    @BeforeEach
+    void setUp() {
+        coinRepository = mock(CoinRepository.class);
+        marketUniverse = mock(MarketUniverse.class);
+        coinService = new CoinService(coinRepository, marketUniverse);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("구독 목록은 commit된 뒤에 바뀐다.")
+    void subscribeAfterCommitTest() {
+        // given
+        Coin coin = coin("KRW-SOL");
+        given(coinRepository.findByCode("KRW-SOL")).willReturn(Optional.empty());
+        given(coinRepository.save(any())).willReturn(coin);
+
+        // when
+        coinService.subscribeCoin(coin);
+
+        // then
+        verify(marketUniverse, never()).add(anyString());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(marketUniverse).add("KRW-SOL");
+    }
+
+    @Test
+    @DisplayName("rollback되면 구독 목록을 바꾸지 않는다.")
+    void unsubscribeRollbackTest() {
+        // given
+        given(coinRepository.findByCode("KRW-BTC")).willReturn(Optional.of(coin("KRW-BTC")));
+
+        // when
+        coinService.unsubscribeCoin("KRW-BTC");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then
+        verify(marketUniverse, never()).remove(anyString());
+    }
+
+    private Coin coin(String code) {
+        Coin coin = new Coin();
+        coin.setCode(code);
+        return coin;
+    }
+}
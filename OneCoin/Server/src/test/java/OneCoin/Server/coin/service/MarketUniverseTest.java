@@ -0,0 +1,86 @@
+package OneCoin.Server.coin.service;
+
+import OneCoin.Server.coin.entity.Coin;
+import OneCoin.Server.coin.entity.MarketChangedEvent;
+import OneCoin.Server.coin.repository.CoinRepository;
+import OneCoin.Server.upbit.entity.enums.CoinList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MarketUniverseTest {
+    private CoinRepository coinRepository;
+    private ApplicationEventPublisher publisher;
+    private MarketUniverse marketUniverse;
+
+    @BeforeEach
+    void setUp() {
+        coinRepository = mock(CoinRepository.class);
+        publisher = mock(ApplicationEventPublisher.class);
+        marketUniverse = new MarketUniverse(coinRepository, publisher);
+    }
+
+    @Test
+    @DisplayName("Coin 테이블에서 구독 중인 마켓을 읽어온다.")
+    void loadTest() {
+        // given
+        given(coinRepository.findAllBySubscribedTrue()).willReturn(List.of(coin("KRW-BTC"), coin("KRW-SOL")));
+
+        // when
+        marketUniverse.load();
+
+        // then
+        assertThat(marketUniverse.getCodes()).containsExactly("KRW-BTC", "KRW-SOL");
+    }
+
+    @Test
+    @DisplayName("Coin 테이블이 비어 있으면 기본 마켓을 구독한다.")
+    void loadDefaultTest() {
+        // given
+        given(coinRepository.findAllBySubscribedTrue()).willReturn(List.of());
+
+        // when
+        marketUniverse.load();
+
+        // then
+        assertThat(marketUniverse.getCodes()).isEqualTo(CoinList.CODES);
+    }
+
+    @Test
+    @DisplayName("마켓을 추가하고 빼면 이전 snapshot은 바뀌지 않고 변경 이벤트가 한 번씩 발행된다.")
+    void addAndRemoveTest() {
+        // given
+        given(coinRepository.findAllBySubscribedTrue()).willReturn(List.of(coin("KRW-BTC")));
+        marketUniverse.load();
+        List<String> snapshot = marketUniverse.getCodes();
+
+        // when
+        boolean added = marketUniverse.add("KRW-SOL");
+        boolean addedAgain = marketUniverse.add("KRW-SOL");
+        boolean removed = marketUniverse.remove("KRW-BTC");
+
+        // then
+        assertThat(added).isTrue();
+        assertThat(addedAgain).isFalse();
+        assertThat(removed).isTrue();
+        assertThat(snapshot).containsExactly("KRW-BTC");
+        assertThat(marketUniverse.getCodes()).containsExactly("KRW-SOL");
+        verify(publisher, times(2)).publishEvent(any(MarketChangedEvent.class));
+    }
+
+    private Coin coin(String code) {
+        Coin coin = new Coin();
+        coin.setCode(code);
+        return coin;
+    }
+}
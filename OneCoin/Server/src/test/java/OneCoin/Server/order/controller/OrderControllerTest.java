@@ -2,8 +2,11 @@ package OneCoin.Server.order.controller;
 
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.dto.OrderDto;
+import OneCoin.Server.order.journal.OrderJournal;
 import OneCoin.Server.order.mapper.OrderMapper;
+import OneCoin.Server.order.service.ImmediateOrderFacade;
 import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.order.service.TriggerOrderService;
 import com.google.gson.Gson;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,6 +18,8 @@ import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,6 +32,12 @@ public class OrderControllerTest {
     @MockBean
     private OrderService orderService;
     @MockBean
+    private ImmediateOrderFacade immediateOrderFacade;
+    @MockBean
+    private TriggerOrderService triggerOrderService;
+    @MockBean
+    private OrderJournal orderJournal;
+    @MockBean
     private OrderMapper mapper;
     @Autowired
     private Gson gson;
@@ -84,6 +95,40 @@ public class OrderControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    @DisplayName("valid test: 일괄 주문에 주문이 없으면 에러가 발생한다.")
+    void bulkValidTest() throws Exception {
+        // given
+        OrderDto.BulkPost bulkPostDto = new OrderDto.BulkPost();
+        bulkPostDto.setOrders(List.of());
+        String content = gson.toJson(bulkPostDto);
+
+        // when, then
+        mockMvc.perform(
+                        post("/api/order/KRW-BTC/bulk")
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(content)
+                )
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("valid test: 정정할 지정가와 수량이 모두 없으면 에러가 발생한다.")
+    void patchValidTest() throws Exception {
+        // given
+        String content = gson.toJson(new OrderDto.Patch());
+
+        // when, then
+        mockMvc.perform(
+                        patch("/api/order/non-trading/{order-id}", 1)
+                                .accept(MediaType.APPLICATION_JSON)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(content)
+                )
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("slice test: 미체결 내역을 조회한다.")
     void getNonTradingOrder() throws Exception {
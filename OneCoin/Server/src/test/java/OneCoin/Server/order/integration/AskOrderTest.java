@@ -12,6 +12,7 @@ import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
 import OneCoin.Server.order.mapper.OrderMapper;
 import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.repository.WalletRepository;
 import OneCoin.Server.order.service.OrderService;
 import OneCoin.Server.order.service.WalletService;
 import OneCoin.Server.upbit.entity.Trade;
@@ -60,6 +61,8 @@ public class AskOrderTest {
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
     private OrderMapper orderMapper;
     @Autowired
     private UserMapper userMapper;
@@ -87,10 +90,8 @@ public class AskOrderTest {
         deposit.setDepositAmount(0L);
         depositService.createDeposit(deposit);
 
-        Order order = StubData.MockOrder.getMockEntity();
-        order.setLimit(new BigDecimal("10000000"));
-        order.setAmount(new BigDecimal("5"));
-        walletService.updateWalletByBid(order, order.getLimit(), order.getAmount());
+        walletRepository.save(Wallet.builder().userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("5")).averagePrice(new BigDecimal("10000000")).build());
     }
 
     @Test
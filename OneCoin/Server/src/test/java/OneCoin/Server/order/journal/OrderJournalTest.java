@@ -0,0 +1,212 @@
+package OneCoin.Server.order.journal;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OrderIdAllocator;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.service.OrderService;
+import OneCoin.Server.utils.journal.JournalReader;
+import OneCoin.Server.utils.journal.MappedJournal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderJournalTest {
+    @TempDir
+    Path directory;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private OrderIdAllocator orderIdAllocator;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        orderRepository = mock(OrderRepository.class);
+        orderIdAllocator = mock(OrderIdAllocator.class);
+    }
+
+    @Test
+    @DisplayName("record로 기록한 주문을 그대로 다시 읽는다.")
+    void commandRoundTripTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(7L, "22525000", "0.5", TransactionType.ASK, "KRW-BTC", 3L);
+        order.setExpireTime(LocalDateTime.of(2026, 1, 1, 0, 0));
+
+        // when
+        OrderCommand command = OrderCommand.decode(OrderCommand.place(5L, order).encode());
+
+        // then
+        assertThat(command.isPlace()).isTrue();
+        assertThat(command.getSequence()).isEqualTo(5L);
+        assertThat(command.getOrder().getOrderId()).isEqualTo(7L);
+        assertThat(command.getOrder().getUserId()).isEqualTo(3L);
+        assertThat(command.getOrder().getOrderType()).isEqualTo(TransactionType.ASK);
+        assertThat(command.getOrder().getAmount()).isEqualByComparingTo(new BigDecimal("0.5"));
+        assertThat(command.getOrder().getOrderTime()).isEqualTo(order.getOrderTime());
+        assertThat(command.getOrder().getExpireTime()).isEqualTo(order.getExpireTime());
+    }
+
+    @Test
+    @DisplayName("기록한 주문에 아이디를 발급하고, 거절된 주문도 반영된 것으로 snapshot에 남긴다.")
+    void appendTest() {
+        // given
+        given(orderIdAllocator.nextId()).willReturn(100L, 101L);
+        willThrow(new BusinessLogicException(ExceptionCode.NOT_ENOUGH_BALANCE))
+                .given(orderService).createOrder(any(), eq(1L), anyString());
+        OrderJournal orderJournal = newOrderJournal();
+        orderJournal.start();
+
+        // when
+        long first = orderJournal.append(newOrder(), 1L, "KRW-BTC");
+        long second = orderJournal.append(newOrder(), 2L, "KRW-BTC");
+        orderJournal.close();
+
+        // then
+        assertThat(first).isEqualTo(100L);
+        assertThat(second).isEqualTo(101L);
+        verify(orderService, times(2)).createOrder(any(), anyLong(), eq("KRW-BTC"));
+        verify(orderRepository).markApplied(100L);
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Redis, MySQL 장애로 반영하지 못한 주문은 다시 시도해서 반영한다.")
+    void retryTest() {
+        // given
+        given(orderIdAllocator.nextId()).willReturn(100L);
+        willThrow(new RedisConnectionFailureException("down")).willDoNothing()
+                .given(orderService).createOrder(any(), eq(1L), anyString());
+        OrderJournal orderJournal = newOrderJournal();
+        orderJournal.start();
+
+        // when
+        orderJournal.append(newOrder(), 1L, "KRW-BTC");
+        verify(orderService, timeout(1000).times(2)).createOrder(any(), eq(1L), eq("KRW-BTC"));
+        orderJournal.close();
+
+        // then
+        verify(orderRepository, never()).markApplied(anyLong());
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("반영하지 못한 채 서버가 내려가면 그 주문부터 반영된 것으로 남기지 않고, 다시 띄울 때 반영한다.")
+    void replayAfterFailureTest() {
+        // given
+        given(orderIdAllocator.nextId()).willReturn(100L, 101L);
+        willThrow(new RedisConnectionFailureException("down"))
+                .given(orderService).createOrder(any(), anyLong(), anyString());
+        OrderJournal failing = newOrderJournal();
+        failing.start();
+        failing.append(newOrder(), 1L, "KRW-BTC");
+        failing.append(newOrder(), 2L, "KRW-BTC");
+        verify(orderService, timeout(1000).atLeastOnce()).createOrder(any(), eq(1L), eq("KRW-BTC"));
+        failing.close();
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isZero();
+
+        // when
+        OrderService recovered = mock(OrderService.class);
+        OrderJournal restarted = new OrderJournal(recovered, orderRepository, orderIdAllocator, true, directory.toString(), 1024, 16);
+        restarted.start();
+        restarted.close();
+
+        // then
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(recovered, times(2)).createOrder(captor.capture(), anyLong(), eq("KRW-BTC"));
+        assertThat(captor.getAllValues()).extracting(Order::getOrderId).containsExactly(100L, 101L);
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("기록하지 못한 주문만 실패하고 같이 들어온 주문은 접수된다.")
+    void partialWriteTest() throws Exception {
+        // given
+        given(orderIdAllocator.nextId()).willReturn(100L, 101L);
+        OrderJournal orderJournal = newOrderJournal();
+        Order tooLarge = newOrder();
+        CompletableFuture<Long> first = CompletableFuture.supplyAsync(() -> orderJournal.append(newOrder(), 1L, "KRW-BTC"));
+        CompletableFuture<Long> second = CompletableFuture.supplyAsync(() -> orderJournal.append(tooLarge, 1L, "X".repeat(2048)));
+        verify(orderIdAllocator, timeout(1000).times(2)).nextId();
+
+        // when
+        orderJournal.start();
+
+        // then
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(first.get(1, TimeUnit.SECONDS)).isIn(100L, 101L);
+        orderJournal.close();
+        verify(orderService, times(1)).createOrder(any(), eq(1L), eq("KRW-BTC"));
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("재시작하면 snapshot 이후 반영 표시가 없는 주문만 다시 반영하고 지난 segment를 지운다.")
+    void recoverTest() {
+        // given
+        new OrderJournalSnapshot(1L, 1L).write(directory);
+        try (MappedJournal journal = new MappedJournal(directory, 1024)) {
+            journal.append(0L, OrderCommand.place(1L, newOrder(10L)).encode());
+            journal.append(0L, OrderCommand.place(2L, newOrder(11L)).encode());
+            journal.append(0L, OrderCommand.applied(2L).encode());
+            journal.append(0L, OrderCommand.place(3L, newOrder(12L)).encode());
+            journal.append(0L, OrderCommand.place(4L, newOrder(13L)).encode());
+        }
+        given(orderRepository.isApplied(13L)).willReturn(true);
+        OrderJournal orderJournal = newOrderJournal();
+
+        // when
+        orderJournal.start();
+        orderJournal.close();
+
+        // then
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderService, times(1)).createOrder(captor.capture(), eq(1L), eq("KRW-BTC"));
+        assertThat(captor.getValue().getOrderId()).isEqualTo(12L);
+        assertThat(OrderJournalSnapshot.read(directory).getAppliedSequence()).isEqualTo(4L);
+        assertThat(new JournalReader(directory).segments()).hasSize(1);
+    }
+
+    private OrderJournal newOrderJournal() {
+        return new OrderJournal(orderService, orderRepository, orderIdAllocator, true, directory.toString(), 1024, 16);
+    }
+
+    private Order newOrder() {
+        return Order.builder()
+                .limit(new BigDecimal("22525000"))
+                .market(BigDecimal.ZERO)
+                .amount(new BigDecimal("1"))
+                .orderType(TransactionType.BID)
+                .orderTime(LocalDateTime.now())
+                .build();
+    }
+
+    private Order newOrder(long orderId) {
+        return StubData.MockOrder.getMockEntity(orderId, "22525000", "1", TransactionType.BID, "KRW-BTC", 1L);
+    }
+}
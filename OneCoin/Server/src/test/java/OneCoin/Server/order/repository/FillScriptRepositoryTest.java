@@ -0,0 +1,215 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.utils.CalculationUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+@Import({FillScriptRepository.class, SettlementOutboxRepository.class, OrderRepository.class, OrderIdAllocator.class, LockedAmountRepository.class, CalculationUtil.class})
+@MockBean(JpaMetamodelMappingContext.class)
+public class FillScriptRepositoryTest {
+    @Autowired
+    private FillScriptRepository fillScriptRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private WalletRepository walletRepository;
+
+    @Autowired
+    private LockedAmountRepository lockedAmountRepository;
+
+    @Autowired
+    private SettlementOutboxRepository settlementOutboxRepository;
+
+    @AfterEach
+    void deleteAll() {
+        orderRepository.deleteAll();
+        walletRepository.deleteAll();
+        settlementOutboxRepository.findIdsBefore(Long.MAX_VALUE).forEach(settlementOutboxRepository::delete);
+    }
+
+    @Test
+    @DisplayName("일부 체결되면 주문의 미체결량이 줄고 지갑이 새로 생성된다.")
+    void partialBidTest() {
+        // given
+        Order order = orderRepository.save(StubData.MockOrder.getMockEntity(1, "100", "10", TransactionType.BID, "KRW-BTC", 1L));
+        Fill fill = new Fill(order, new BigDecimal("100"), new BigDecimal("4"));
+
+        // when
+        List<Boolean> applied = apply(List.of(fill));
+
+        // then
+        assertThat(applied).containsExactly(true);
+        assertThat(orderRepository.findById(1L).orElseThrow().getAmount()).isEqualByComparingTo("6");
+        Wallet wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(wallet.getAmount()).isEqualByComparingTo("4");
+        assertThat(wallet.getAveragePrice()).isEqualByComparingTo("100");
+    }
+
+    @Test
+    @DisplayName("전체 체결되면 주문이 삭제되고 기존 지갑의 평단가가 갱신된다.")
+    void completedBidTest() {
+        // given
+        walletRepository.save(Wallet.builder().walletId(7L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("1")).averagePrice(new BigDecimal("100")).build());
+        Order order = orderRepository.save(StubData.MockOrder.getMockEntity(1, "200", "1", TransactionType.BID, "KRW-BTC", 1L));
+        Fill fill = new Fill(order, new BigDecimal("200"), new BigDecimal("1"));
+
+        // when
+        apply(List.of(fill));
+
+        // then
+        assertThat(orderRepository.findById(1L)).isEmpty();
+        assertThat(orderRepository.findAllByOrderTypeAndCode(TransactionType.BID, "KRW-BTC")).isEmpty();
+        assertThat(orderRepository.findAllByUserId(1L)).isEmpty();
+        Wallet wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(wallet.getWalletId()).isEqualTo(7L);
+        assertThat(wallet.getAmount()).isEqualByComparingTo("2");
+        assertThat(wallet.getAveragePrice()).isEqualByComparingTo("150");
+    }
+
+    @Test
+    @DisplayName("지갑이 없는 사용자의 주문이 전체 체결되면 주문이 삭제되고 체결 가격을 평단가로 지갑이 생성된다.")
+    void completedBidNewWalletTest() {
+        // given
+        Order order = orderRepository.save(StubData.MockOrder.getMockEntity(1, "100000", "10", TransactionType.BID, "KRW-BTC", 1L));
+        Fill fill = new Fill(order, new BigDecimal("99000"), new BigDecimal("10"));
+
+        // when
+        List<Boolean> applied = apply(List.of(fill));
+
+        // then
+        assertThat(applied).containsExactly(true);
+        assertThat(orderRepository.findById(1L)).isEmpty();
+        Wallet wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(wallet.getAmount()).isEqualByComparingTo("10");
+        assertThat(wallet.getAveragePrice()).isEqualByComparingTo("99000");
+    }
+
+    @Test
+    @DisplayName("보유량을 모두 매도하면 지갑이 삭제된다.")
+    void askTest() {
+        // given
+        walletRepository.save(Wallet.builder().walletId(7L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("0.3")).averagePrice(new BigDecimal("100")).build());
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.ASK, "KRW-BTC", 1L);
+        order.setOrderId(null);
+        orderRepository.save(order);
+        Fill fill = new Fill(order, new BigDecimal("100"), new BigDecimal("0.3"));
+
+        // when
+        apply(List.of(fill));
+
+        // then
+        assertThat(lockedAmountRepository.findLockedAmount(1L, "KRW-BTC")).isEqualByComparingTo("0");
+        assertThat(walletRepository.findByUserIdAndCode(1L, "KRW-BTC")).isEmpty();
+        assertThat(walletRepository.findAllByUserId(1L)).isEmpty();
+        assertThat(walletRepository.findById(7L)).isEmpty();
+        assertThat(walletRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("같은 지갑에 여러 체결이 들어와도 보유 수량과 평단가를 소수 오차 없이 이어서 계산한다.")
+    void exactBidTest() {
+        // given
+        walletRepository.save(Wallet.builder().walletId(7L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("0.1")).averagePrice(new BigDecimal("33333.33")).build());
+        Order first = orderRepository.save(StubData.MockOrder.getMockEntity(1, "10000.01", "0.2", TransactionType.BID, "KRW-BTC", 1L));
+        Order second = orderRepository.save(StubData.MockOrder.getMockEntity(2, "99999999.99", "0.00000001", TransactionType.BID, "KRW-BTC", 1L));
+        List<Fill> fills = List.of(
+                new Fill(first, new BigDecimal("10000.01"), new BigDecimal("0.2")),
+                new Fill(second, new BigDecimal("99999999.99"), new BigDecimal("0.00000001")));
+        CalculationUtil calculationUtil = new CalculationUtil();
+        BigDecimal averagePrice = calculationUtil.calculateAvgPrice(new BigDecimal("33333.33"), new BigDecimal("0.1"),
+                new BigDecimal("10000.01"), new BigDecimal("0.2"));
+        averagePrice = calculationUtil.calculateAvgPrice(averagePrice, new BigDecimal("0.3"),
+                new BigDecimal("99999999.99"), new BigDecimal("0.00000001"));
+
+        // when
+        List<Boolean> applied = apply(fills);
+
+        // then
+        assertThat(applied).containsExactly(true, true);
+        Wallet wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(wallet.getAmount()).isEqualTo(new BigDecimal("0.30000001"));
+        assertThat(wallet.getAveragePrice()).isEqualTo(averagePrice);
+    }
+
+    @Test
+    @DisplayName("일부 매도하면 남은 보유 수량을 소수 오차 없이 저장하고 평단가는 그대로 둔다.")
+    void exactAskTest() {
+        // given
+        walletRepository.save(Wallet.builder().walletId(7L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("0.3")).averagePrice(new BigDecimal("100.55")).build());
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "0.1", TransactionType.ASK, "KRW-BTC", 1L);
+        order.setOrderId(null);
+        Fill fill = new Fill(order, new BigDecimal("100"), new BigDecimal("0.1"));
+
+        // when
+        apply(List.of(fill));
+
+        // then
+        Wallet wallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElseThrow();
+        assertThat(wallet.getAmount()).isEqualTo(new BigDecimal("0.2"));
+        assertThat(wallet.getAveragePrice()).isEqualTo(new BigDecimal("100.55"));
+    }
+
+    @Test
+    @DisplayName("이미 취소된 주문은 반영하지 않는다.")
+    void cancelledOrderTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L);
+        Fill fill = new Fill(order, new BigDecimal("100"), new BigDecimal("1"));
+
+        // when
+        List<Boolean> applied = apply(List.of(fill));
+
+        // then
+        assertThat(applied).containsExactly(false);
+        assertThat(walletRepository.findByUserIdAndCode(1L, "KRW-BTC")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("반영한 체결만 outbox에 반영 표시를 남기므로 outbox에서 반영된 체결을 다시 읽을 수 있다.")
+    void outboxTest() {
+        // given
+        Order resting = orderRepository.save(StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L));
+        Order cancelled = StubData.MockOrder.getMockEntity(2, "100", "1", TransactionType.BID, "KRW-BTC", 1L);
+        List<Fill> fills = List.of(
+                new Fill(resting, new BigDecimal("100"), new BigDecimal("0.4")),
+                new Fill(cancelled, new BigDecimal("100"), new BigDecimal("1")));
+        String batchId = settlementOutboxRepository.save(fills);
+
+        // when
+        fillScriptRepository.applyFills(batchId, fills);
+
+        // then
+        List<Fill> appliedFills = settlementOutboxRepository.findAppliedFills(batchId);
+        assertThat(appliedFills).hasSize(1);
+        assertThat(appliedFills.get(0).getOrder().getOrderId()).isEqualTo(1L);
+        assertThat(appliedFills.get(0).getAmount()).isEqualByComparingTo("0.4");
+        assertThat(appliedFills.get(0).getRemainingAmount()).isEqualByComparingTo("0.6");
+    }
+
+    private List<Boolean> apply(List<Fill> fills) {
+        return fillScriptRepository.applyFills(settlementOutboxRepository.save(fills), fills);
+    }
+}
@@ -0,0 +1,111 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class OpenOrderIndexTest {
+    private OrderRepository orderRepository;
+    private OpenOrderIndex openOrderIndex;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        openOrderIndex = new OpenOrderIndex(orderRepository);
+    }
+
+    @Test
+    @DisplayName("매수 주문은 지정가가 체결 가격 이상인 주문만 높은 가격, 먼저 들어온 순서로 조회된다.")
+    void findCrossingBidTest() {
+        // given
+        openOrderIndex.add(order(1, "100", TransactionType.BID));
+        openOrderIndex.add(order(2, "110", TransactionType.BID));
+        openOrderIndex.add(order(3, "90", TransactionType.BID));
+        openOrderIndex.add(order(4, "110", TransactionType.BID));
+
+        // when
+        List<Long> orderIds = openOrderIndex.findCrossingOrderIds(TransactionType.BID, "KRW-BTC", new BigDecimal("100"));
+
+        // then
+        assertThat(orderIds).containsExactly(2L, 4L, 1L);
+    }
+
+    @Test
+    @DisplayName("매도 주문은 지정가가 체결 가격 이하인 주문만 낮은 가격 순서로 조회된다.")
+    void findCrossingAskTest() {
+        // given
+        openOrderIndex.add(order(1, "100", TransactionType.ASK));
+        openOrderIndex.add(order(2, "90", TransactionType.ASK));
+        openOrderIndex.add(order(3, "110", TransactionType.ASK));
+
+        // when
+        List<Long> orderIds = openOrderIndex.findCrossingOrderIds(TransactionType.ASK, "KRW-BTC", new BigDecimal("100.0"));
+
+        // then
+        assertThat(orderIds).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Order의 지정가가 바뀌어도 등록할 때의 가격으로 지운다.")
+    void removeTest() {
+        // given
+        Order order = order(1, "100", TransactionType.BID);
+        openOrderIndex.add(order);
+        order.setLimit(new BigDecimal("95"));
+
+        // when
+        openOrderIndex.remove(order);
+
+        // then
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.BID, "KRW-BTC", new BigDecimal("1"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("서버 시작 시 Redis의 미체결 주문으로 색인을 만든다.")
+    void rebuildTest() {
+        // given
+        given(orderRepository.findAll()).willReturn(List.of(order(1, "100", TransactionType.BID), order(2, "100", TransactionType.ASK)));
+
+        // when
+        openOrderIndex.rebuild();
+
+        // then
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.BID, "KRW-BTC", new BigDecimal("100"))).containsExactly(1L);
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.ASK, "KRW-BTC", new BigDecimal("100"))).containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("다시 만들 때 같은 가격의 주문은 Redis가 돌려준 순서가 아니라 주문 시각, 주문 아이디 순서로 넣는다.")
+    void rebuildTimePriorityTest() {
+        // given
+        LocalDateTime now = LocalDateTime.now();
+        Order late = order(2, "100", TransactionType.BID);
+        late.setOrderTime(now.plusSeconds(1));
+        Order tiedHigherId = order(10, "100", TransactionType.BID);
+        tiedHigherId.setOrderTime(now);
+        Order tiedLowerId = order(9, "100", TransactionType.BID);
+        tiedLowerId.setOrderTime(now);
+        given(orderRepository.findAll()).willReturn(List.of(late, tiedHigherId, tiedLowerId));
+
+        // when
+        openOrderIndex.rebuild();
+
+        // then
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.BID, "KRW-BTC", new BigDecimal("100"))).containsExactly(9L, 10L, 2L);
+    }
+
+    private Order order(int orderId, String limit, TransactionType orderType) {
+        return StubData.MockOrder.getMockEntity(orderId, limit, "1", orderType, "KRW-BTC", 1L);
+    }
+}
@@ -0,0 +1,83 @@
+package OneCoin.Server.order.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class OrderIdAllocatorTest {
+    private final AtomicLong sequence = new AtomicLong();
+    private ValueOperations<String, String> valueOperations;
+    private OrderIdAllocator orderIdAllocator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        given(stringRedisTemplate.opsForValue()).willReturn(valueOperations);
+        given(valueOperations.increment(eq(OrderIdAllocator.SEQUENCE_KEY), anyLong()))
+                .willAnswer(invocation -> sequence.addAndGet(invocation.getArgument(1)));
+        orderIdAllocator = new OrderIdAllocator(stringRedisTemplate, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderIdAllocator.shutdown();
+    }
+
+    @Test
+    @DisplayName("빌려 온 블록 안에서는 Redis를 거치지 않고 연속된 아이디를 발급한다.")
+    void leaseBlockTest() {
+        // when
+        List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            orderIds.add(orderIdAllocator.nextId());
+        }
+
+        // then
+        assertThat(orderIds).doesNotHaveDuplicates().isSorted();
+        assertThat(orderIds.get(0)).isEqualTo(1L);
+        verify(valueOperations, atMost(4)).increment(eq(OrderIdAllocator.SEQUENCE_KEY), anyLong());
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 동시에 발급해도 아이디가 겹치지 않는다.")
+    void concurrentTest() throws InterruptedException {
+        // given
+        Set<Long> orderIds = ConcurrentHashMap.newKeySet();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    orderIds.add(orderIdAllocator.nextId());
+                }
+            }));
+        }
+
+        // when
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertThat(orderIds).hasSize(80_000);
+    }
+}
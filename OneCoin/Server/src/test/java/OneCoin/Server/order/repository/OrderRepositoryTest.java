@@ -10,19 +10,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataRedisTest
+@Import({OrderRepository.class, OrderIdAllocator.class, LockedAmountRepository.class})
 @MockBean(JpaMetamodelMappingContext.class)
 public class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private LockedAmountRepository lockedAmountRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
     @BeforeEach
     void saveEntity() {
         Order order = StubData.MockOrder.getMockEntity();
@@ -42,7 +53,7 @@ public class OrderRepositoryTest {
     }
 
     @Test
-    @DisplayName("@Indexed 어노테이션을 사용하면 해당 필드로 select 문이 실행된다.")
+    @DisplayName("마켓, 거래 타입별 주문이 지정가 오름차순으로 조회된다.")
     void indexedTest() {
         // given
         List<Order> orders = StubData.MockOrder.getMockEntities();
@@ -55,7 +66,105 @@ public class OrderRepositoryTest {
 
         // then
         assertThat(findOrders.size()).isEqualTo(3);
-        assertThat(findOrders.get(0).getOrderId()).isEqualTo(3L);
-        assertThat(findOrders.get(1).getOrderId()).isEqualTo(4L);
+        assertThat(findOrders).extracting(Order::getOrderId).containsExactly(3L, 5L, 4L);
+    }
+
+    @Test
+    @DisplayName("사용자별 주문을 조회하고 삭제하면 모든 key에서 지워진다.")
+    void userIndexTest() {
+        // given
+        List<Order> orders = StubData.MockOrder.getMockEntities();
+        orderRepository.saveAll(orders);
+
+        // when
+        orderRepository.delete(orders.get(1));
+
+        // then
+        assertThat(orderRepository.findAllByUserId(2L)).extracting(Order::getOrderId).containsExactly(2L);
+        assertThat(orderRepository.findAllByUserId(3L)).isEmpty();
+        assertThat(orderRepository.findById(3L)).isEmpty();
+        assertThat(orderRepository.findAllByOrderTypeAndCode(TransactionType.ASK, "KRW-ETH"))
+                .extracting(Order::getOrderId).containsExactly(5L, 4L);
+    }
+
+    @Test
+    @DisplayName("새 매도 주문을 저장하면 묶인 수량이 늘고 취소하면 줄어든다.")
+    void lockedAmountTest() {
+        // given
+        Order first = StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.ASK, "KRW-ETH", 7L);
+        Order second = StubData.MockOrder.getMockEntity(1, "100", "0.2", TransactionType.ASK, "KRW-ETH", 7L);
+        first.setOrderId(null);
+        second.setOrderId(null);
+        orderRepository.save(first);
+        orderRepository.save(second);
+
+        // when
+        orderRepository.delete(first);
+
+        // then
+        assertThat(lockedAmountRepository.findLockedAmount(7L, "KRW-ETH")).isEqualByComparingTo("0.2");
+        assertThat(lockedAmountRepository.findLockedAmount(7L, "KRW-BTC")).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("들고 있던 주문의 수량이 그 사이 체결로 줄었어도 Redis에 남은 수량만큼만 묶인 수량을 줄인다.")
+    void staleDeleteTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.ASK, "KRW-ETH", 7L);
+        order.setOrderId(null);
+        orderRepository.save(order);
+        Order filled = orderRepository.findById(order.getOrderId()).orElseThrow();
+        filled.setAmount(new BigDecimal("0.1"));
+        orderRepository.update(filled, new BigDecimal("-0.2"));
+
+        // when
+        orderRepository.delete(order);
+
+        // then
+        assertThat(lockedAmountRepository.findLockedAmount(7L, "KRW-ETH")).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("삭제하면 지운 순간의 미체결량을 돌려주고, 이미 삭제된 주문이면 빈 값을 돌려준다.")
+    void deleteTwiceTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.BID, "KRW-ETH", 7L);
+        order.setOrderId(null);
+        orderRepository.save(order);
+        Order filled = orderRepository.findById(order.getOrderId()).orElseThrow();
+        filled.setAmount(new BigDecimal("0.1"));
+        orderRepository.update(filled, BigDecimal.ZERO);
+
+        // when
+        Optional<Order> first = orderRepository.delete(order);
+        Optional<Order> second = orderRepository.delete(order);
+
+        // then
+        assertThat(first).isPresent();
+        assertThat(first.get().getAmount()).isEqualByComparingTo("0.1");
+        assertThat(first.get().getLimit()).isEqualByComparingTo("100");
+        assertThat(second).isEmpty();
+    }
+
+    @Test
+    @DisplayName("묶인 수량을 사용자의 미체결 매도 주문으로 다시 계산한다.")
+    void rebuildLockedAmountTest() {
+        // given
+        Order first = StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.ASK, "KRW-ETH", 7L);
+        Order second = StubData.MockOrder.getMockEntity(1, "100", "7", TransactionType.BID, "KRW-ETH", 7L);
+        first.setOrderId(null);
+        second.setOrderId(null);
+        orderRepository.save(first);
+        orderRepository.save(second);
+        stringRedisTemplate.opsForHash().put(LockedAmountRepository.lockedKey(7L), "KRW-ETH", "1");
+        stringRedisTemplate.opsForHash().put(LockedAmountRepository.lockedKey(7L), "KRW-BTC", "1");
+
+        // when
+        lockedAmountRepository.rebuild(7L);
+
+        // then
+        assertThat(orderRepository.findAllUserIds()).contains(7L);
+        assertThat(lockedAmountRepository.findLockedAmount(7L, "KRW-ETH")).isEqualByComparingTo("0.3");
+        assertThat(lockedAmountRepository.findLockedAmount(7L, "KRW-BTC")).isEqualByComparingTo("0");
     }
 }
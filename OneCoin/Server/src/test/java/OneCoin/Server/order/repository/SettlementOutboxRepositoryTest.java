@@ -0,0 +1,84 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataRedisTest
+@Import(SettlementOutboxRepository.class)
+@MockBean(JpaMetamodelMappingContext.class)
+public class SettlementOutboxRepositoryTest {
+    @Autowired
+    private SettlementOutboxRepository settlementOutboxRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void deleteAll() {
+        settlementOutboxRepository.findIdsBefore(Long.MAX_VALUE).forEach(settlementOutboxRepository::delete);
+    }
+
+    @Test
+    @DisplayName("반영 표시가 있는 체결만 기록한 순서대로 다시 만든다.")
+    void findAppliedFillsTest() {
+        // given
+        Order resting = StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.ASK, "KRW-BTC", 1L);
+        Order immediate = StubData.MockOrder.getMockEntity(1, "90", "2", TransactionType.BID, "KRW-BTC", 2L);
+        immediate.setOrderId(null);
+        List<Fill> fills = List.of(
+                new Fill(resting, new BigDecimal("100"), new BigDecimal("0.3")),
+                new Fill(immediate, new BigDecimal("90"), new BigDecimal("1")),
+                new Fill(immediate, new BigDecimal("91"), new BigDecimal("1")));
+        String batchId = settlementOutboxRepository.save(fills);
+
+        // when
+        markApplied(batchId, 0);
+        markApplied(batchId, 2);
+        List<Fill> appliedFills = settlementOutboxRepository.findAppliedFills(batchId);
+
+        // then
+        assertThat(appliedFills).extracting(Fill::getPrice).containsExactly(new BigDecimal("100"), new BigDecimal("91"));
+        assertThat(appliedFills.get(0).getOrder().getOrderId()).isEqualTo(1L);
+        assertThat(appliedFills.get(0).getRemainingAmount()).isEqualByComparingTo("0.7");
+        assertThat(appliedFills.get(0).getOrder().getOrderTime()).isEqualTo(resting.getOrderTime());
+        assertThat(appliedFills.get(1).isResting()).isFalse();
+        assertThat(appliedFills.get(1).getUserId()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("기록한 시각 이전의 묶음만 조회하고, 지운 묶음은 조회하지 않는다.")
+    void findIdsBeforeTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.ASK, "KRW-BTC", 1L);
+        String first = settlementOutboxRepository.save(List.of(new Fill(order, new BigDecimal("100"), new BigDecimal("0.1"))));
+        String second = settlementOutboxRepository.save(List.of(new Fill(order, new BigDecimal("100"), new BigDecimal("0.1"))));
+
+        // when
+        settlementOutboxRepository.delete(first);
+
+        // then
+        assertThat(settlementOutboxRepository.findIdsBefore(System.currentTimeMillis())).containsExactly(second);
+        assertThat(settlementOutboxRepository.findIdsBefore(0)).isEmpty();
+        assertThat(stringRedisTemplate.hasKey(SettlementOutboxRepository.outboxKey(first))).isFalse();
+    }
+
+    private void markApplied(String batchId, int index) {
+        stringRedisTemplate.opsForHash().put(SettlementOutboxRepository.outboxKey(batchId), SettlementOutboxRepository.appliedField(index), "1");
+    }
+}
@@ -0,0 +1,116 @@
+package OneCoin.Server.order.repository;
+
+import OneCoin.Server.order.entity.TriggerOrder;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TriggerOrderIndexTest {
+    private TriggerOrderIndex triggerOrderIndex;
+
+    @BeforeEach
+    void setUp() {
+        triggerOrderIndex = new TriggerOrderIndex(mock(TriggerOrderRepository.class));
+        triggerOrderIndex.add(getTriggerOrder(1L, "90"));
+        triggerOrderIndex.add(getTriggerOrder(2L, "95"));
+        triggerOrderIndex.add(getTriggerOrder(3L, "110"));
+        triggerOrderIndex.add(getTriggerOrder(4L, "120"));
+    }
+
+    @Test
+    @DisplayName("첫 체결은 기준 가격만 기록하고 발동하지 않는다.")
+    void firstPriceTest() {
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("150"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("가격이 내리면 지나간 감시 가격만 가까운 순서대로 발동한다.")
+    void fallingPriceTest() {
+        // given
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("90"))).containsExactly(2L, 1L);
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("80"))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("가격이 오르면 지나간 감시 가격만 발동하고, 다시 지나가도 한 번만 발동한다.")
+    void risingPriceTest() {
+        // given
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("110"))).containsExactly(3L);
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"))).isEmpty();
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("130"))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("취소된 감시 주문과 다른 마켓의 감시 주문은 발동하지 않는다.")
+    void removeTest() {
+        // given
+        triggerOrderIndex.removeById(2L);
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"));
+        triggerOrderIndex.advance("KRW-ETH", new BigDecimal("100"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-ETH", new BigDecimal("50"))).isEmpty();
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("50"))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("감시 주문은 등록할 때의 체결 가격 기준으로 정해진 방향으로 닿을 때만 발동한다.")
+    void directionTest() {
+        // given
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"));
+        triggerOrderIndex.add(getTriggerOrder(5L, "105"));
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("108"));
+        triggerOrderIndex.add(getTriggerOrder(6L, "105"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("109"))).isEmpty();
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("104"))).containsExactly(6L);
+    }
+
+    @Test
+    @DisplayName("직전 체결 가격과 같은 감시 가격으로 등록한 감시 주문은 다음 체결에서 발동한다.")
+    void reachedStopPriceTest() {
+        // given
+        triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"));
+        triggerOrderIndex.add(getTriggerOrder(5L, "100"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"))).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("첫 체결 전에 등록된 감시 주문은 첫 체결 가격으로 방향을 정하고, 같은 가격이면 바로 발동한다.")
+    void unclassifiedTest() {
+        // given
+        triggerOrderIndex.add(getTriggerOrder(5L, "100"));
+
+        // when, then
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("100"))).containsExactly(5L);
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("115"))).containsExactly(3L);
+        assertThat(triggerOrderIndex.advance("KRW-BTC", new BigDecimal("85"))).containsExactly(2L, 1L);
+    }
+
+    private TriggerOrder getTriggerOrder(long triggerId, String stopPrice) {
+        return TriggerOrder.builder()
+                .triggerId(triggerId)
+                .stopPrice(new BigDecimal(stopPrice))
+                .limit(new BigDecimal(stopPrice))
+                .amount(BigDecimal.ONE)
+                .orderType(TransactionType.ASK)
+                .userId(1L)
+                .code("KRW-BTC")
+                .build();
+    }
+}
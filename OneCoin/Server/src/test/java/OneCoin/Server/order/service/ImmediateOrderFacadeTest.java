@@ -0,0 +1,72 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class ImmediateOrderFacadeTest {
+    private ImmediateOrderService immediateOrderService;
+    private SimpleMeterRegistry meterRegistry;
+    private ImmediateOrderFacade immediateOrderFacade;
+
+    @BeforeEach
+    void setUp() {
+        immediateOrderService = mock(ImmediateOrderService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        immediateOrderFacade = new ImmediateOrderFacade(immediateOrderService, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("트랜잭션이 걸린 서비스 호출 전체를 주문 유형별 타이머로 측정한다.")
+    void recordLatencyTest() {
+        // given
+        Order order = getOrder(TransactionType.BID);
+        List<Fill> fills = List.of(new Fill(order, new BigDecimal("101"), new BigDecimal("1")));
+        given(immediateOrderService.createImmediateOrder(order, 1L, "KRW-BTC")).willReturn(fills);
+
+        // when
+        List<Fill> result = immediateOrderFacade.createImmediateOrder(order, 1L, "KRW-BTC");
+
+        // then
+        assertThat(result).isSameAs(fills);
+        assertThat(meterRegistry.get("order.immediate.latency").tag("orderType", "BID").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.immediate.latency").tag("orderType", "ASK").timer().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("서비스가 예외를 던져도 지연 시간은 기록한다.")
+    void recordLatencyOnFailureTest() {
+        // given
+        Order order = getOrder(TransactionType.ASK);
+        given(immediateOrderService.createImmediateOrder(order, 1L, "KRW-BTC"))
+                .willThrow(new BusinessLogicException(ExceptionCode.NO_EXISTS_ORDER_BOOK));
+
+        // when, then
+        assertThatThrownBy(() -> immediateOrderFacade.createImmediateOrder(order, 1L, "KRW-BTC"))
+                .isInstanceOf(BusinessLogicException.class);
+        assertThat(meterRegistry.get("order.immediate.latency").tag("orderType", "ASK").timer().count()).isEqualTo(1);
+    }
+
+    private Order getOrder(TransactionType orderType) {
+        return Order.builder()
+                .limit(BigDecimal.ZERO)
+                .market(new BigDecimal("100"))
+                .amount(BigDecimal.ONE)
+                .orderType(orderType)
+                .build();
+    }
+}
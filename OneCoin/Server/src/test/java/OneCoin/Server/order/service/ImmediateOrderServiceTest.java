@@ -0,0 +1,139 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.balance.service.BalanceService;
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.upbit.dto.orderbook.AskInfo;
+import OneCoin.Server.upbit.dto.orderbook.BidInfo;
+import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
+import OneCoin.Server.upbit.repository.OrderBookRepository;
+import OneCoin.Server.utils.CalculationUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class ImmediateOrderServiceTest {
+    private final CalculationUtil calculationUtil = new CalculationUtil();
+    private BalanceService balanceService;
+    private OrderBookRepository orderBookRepository;
+    private SettlementService settlementService;
+    private ImmediateOrderService immediateOrderService;
+
+    @BeforeEach
+    void setUp() {
+        balanceService = mock(BalanceService.class);
+        orderBookRepository = mock(OrderBookRepository.class);
+        settlementService = mock(SettlementService.class);
+        immediateOrderService = new ImmediateOrderService(mock(CoinService.class), mock(WalletService.class),
+                mock(OrderService.class), balanceService, orderBookRepository, settlementService, calculationUtil);
+    }
+
+    @Test
+    @DisplayName("시장가 매수 주문은 매도 호가를 낮은 가격부터 소진하고 체결 금액만큼 잔액을 차감한다.")
+    void marketBidTest() {
+        // given
+        Order order = getOrder("0", "100", "1.5", TransactionType.BID);
+        given(orderBookRepository.findOrderBookByCode("KRW-BTC")).willReturn(getOrderBook());
+
+        // when
+        List<Fill> fills = immediateOrderService.createImmediateOrder(order, 1L, "KRW-BTC");
+
+        // then
+        assertThat(fills).extracting(Fill::getPrice).containsExactly(new BigDecimal("101"), new BigDecimal("102"));
+        assertThat(fills).extracting(Fill::getAmount).containsExactly(new BigDecimal("1"), new BigDecimal("0.5"));
+        assertThat(fills).allMatch(fill -> !fill.isResting());
+        BigDecimal totalBidPrice = calculationUtil.calculateByAddingCommission(new BigDecimal("101"), new BigDecimal("1"))
+                .add(calculationUtil.calculateByAddingCommission(new BigDecimal("102"), new BigDecimal("0.5")));
+        verify(balanceService).updateBalanceByBid(1L, totalBidPrice);
+        verify(settlementService).settle(fills);
+    }
+
+    @Test
+    @DisplayName("IOC 매도 주문은 지정가보다 낮은 매수 호가에서 멈추고 나머지는 취소된다.")
+    void immediateOrCancelAskTest() {
+        // given
+        Order order = getOrder("99", "0", "5", TransactionType.ASK);
+
+        // when
+        List<Fill> fills = immediateOrderService.matchOrderBook(order, getOrderBook());
+
+        // then
+        assertThat(fills).extracting(Fill::getPrice).containsExactly(new BigDecimal("100"), new BigDecimal("99"));
+        assertThat(fills).extracting(Fill::getAmount).containsExactly(new BigDecimal("2"), new BigDecimal("1"));
+    }
+
+    @Test
+    @DisplayName("지정가에 닿는 호가가 없으면 정산하지 않는다.")
+    void noFillTest() {
+        // given
+        Order order = getOrder("100", "0", "1", TransactionType.BID);
+        given(orderBookRepository.findOrderBookByCode("KRW-BTC")).willReturn(getOrderBook());
+
+        // when
+        List<Fill> fills = immediateOrderService.createImmediateOrder(order, 1L, "KRW-BTC");
+
+        // then
+        assertThat(fills).isEmpty();
+        verifyNoInteractions(balanceService, settlementService);
+    }
+
+    @Test
+    @DisplayName("호가가 없으면 예외가 발생한다.")
+    void noOrderBookTest() {
+        // given
+        Order order = getOrder("0", "100", "1", TransactionType.BID);
+
+        // when, then
+        assertThatThrownBy(() -> immediateOrderService.createImmediateOrder(order, 1L, "KRW-BTC"))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(settlementService, never()).settle(anyList());
+    }
+
+    private Order getOrder(String limit, String market, String amount, TransactionType orderType) {
+        return Order.builder()
+                .limit(new BigDecimal(limit))
+                .market(new BigDecimal(market))
+                .amount(new BigDecimal(amount))
+                .orderTime(LocalDateTime.now())
+                .orderType(orderType)
+                .build();
+    }
+
+    private OrderBookDto getOrderBook() {
+        OrderBookDto orderBook = new OrderBookDto();
+        orderBook.setCode("KRW-BTC");
+        orderBook.setAskInfo(List.of(askInfo("102", "3"), askInfo("101", "1")));
+        orderBook.setBidInfo(List.of(bidInfo("100", "2"), bidInfo("99", "1"), bidInfo("98", "4")));
+        return orderBook;
+    }
+
+    private AskInfo askInfo(String price, String size) {
+        AskInfo askInfo = new AskInfo();
+        askInfo.setAskPrice(price);
+        askInfo.setAskSize(size);
+        return askInfo;
+    }
+
+    private BidInfo bidInfo(String price, String size) {
+        BidInfo bidInfo = new BidInfo();
+        bidInfo.setBidPrice(price);
+        bidInfo.setBidSize(size);
+        return bidInfo;
+    }
+}
@@ -0,0 +1,121 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class OrderServiceAmendTest extends OrderServiceMockTest {
+
+    @BeforeEach
+    void runOnCaller() {
+        given(matchingScheduler.call(anyString(), any())).willAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    @DisplayName("같은 지정가에서 수량만 줄이면 차이만큼만 환불하고 체결 순서를 유지한다.")
+    void decreaseAmountTest() {
+        // given
+        Order order = saveOrder(1, "100", "2", TransactionType.BID);
+        given(orderRepository.update(any(), any())).willReturn(true);
+
+        // when
+        orderService.amendOrder(1L, 1L, changes(null, "0.5"));
+
+        // then
+        BigDecimal refund = calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("2"))
+                .subtract(calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("0.5")));
+        verify(balanceService).updateBalanceByAskOrCancelBid(1L, refund);
+        verify(balanceService, never()).updateBalanceByBid(anyLong(), any());
+        verify(orderRepository).update(order, new BigDecimal("-1.5"));
+        assertThat(order.getAmount()).isEqualTo(new BigDecimal("0.5"));
+        verify(openOrderIndex, never()).remove(any());
+        verify(openOrderIndex, never()).add(any());
+    }
+
+    @Test
+    @DisplayName("지정가를 올리면 차이만큼만 더 차감하고 새 가격의 가장 뒤로 간다.")
+    void raiseLimitTest() {
+        // given
+        Order order = saveOrder(1, "100", "1", TransactionType.BID);
+        given(orderRepository.update(any(), any())).willReturn(true);
+
+        // when
+        orderService.amendOrder(1L, 1L, changes("110", null));
+
+        // then
+        BigDecimal charge = calculationUtil.calculateByAddingCommission(new BigDecimal("110"), new BigDecimal("1"))
+                .subtract(calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("1")));
+        verify(balanceService).updateBalanceByBid(1L, charge);
+        verify(orderRepository).update(order, new BigDecimal("0"));
+        InOrder index = inOrder(openOrderIndex);
+        index.verify(openOrderIndex).remove(order);
+        index.verify(openOrderIndex).add(order);
+    }
+
+    @Test
+    @DisplayName("매도 주문 수량을 늘릴 때 늘어난 수량만큼 팔 수 없으면 에러가 발생하고 주문은 그대로다.")
+    void increaseAskAmountTest() {
+        // given
+        Order order = saveOrder(1, "100", "1", TransactionType.ASK);
+        Wallet wallet = Wallet.builder().walletId(1L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal("1.5")).averagePrice(new BigDecimal("100")).build();
+        given(walletService.findMyVerifiedWallet(1L, "KRW-BTC")).willReturn(wallet);
+        given(lockedAmountRepository.findLockedAmount(1L, "KRW-BTC")).willReturn(new BigDecimal("1"));
+
+        // when then
+        assertThatThrownBy(() -> orderService.amendOrder(1L, 1L, changes(null, "2")))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(orderRepository, never()).update(any(), any());
+        assertThat(order.getAmount()).isEqualTo(new BigDecimal("1"));
+    }
+
+    @Test
+    @DisplayName("정정하는 사이 주문이 취소되면 다시 만들지 않고 더 차감한 금액을 되돌린다.")
+    void cancelledWhileAmendingTest() {
+        // given
+        saveOrder(1, "100", "1", TransactionType.BID);
+        given(orderRepository.update(any(), any())).willReturn(false);
+
+        // when then
+        assertThatThrownBy(() -> orderService.amendOrder(1L, 1L, changes("110", null)))
+                .isInstanceOf(BusinessLogicException.class);
+        BigDecimal charge = calculationUtil.calculateByAddingCommission(new BigDecimal("110"), new BigDecimal("1"))
+                .subtract(calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("1")));
+        verify(balanceService).updateBalanceByBid(1L, charge);
+        verify(balanceService).updateBalanceByAskOrCancelBid(1L, charge);
+        verify(openOrderIndex, never()).add(any());
+    }
+
+    private Order saveOrder(long orderId, String limit, String amount, TransactionType orderType) {
+        Order order = StubData.MockOrder.getMockEntity(orderId, limit, amount, orderType, "KRW-BTC", 1L);
+        given(orderRepository.findById(orderId)).willReturn(Optional.of(order));
+        return order;
+    }
+
+    private Order changes(String limit, String amount) {
+        return Order.builder()
+                .limit(limit == null ? null : new BigDecimal(limit))
+                .amount(amount == null ? null : new BigDecimal(amount))
+                .build();
+    }
+}
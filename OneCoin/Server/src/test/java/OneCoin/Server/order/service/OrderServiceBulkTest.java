@@ -0,0 +1,157 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.Wallet;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class OrderServiceBulkTest extends OrderServiceMockTest {
+
+    @Test
+    @DisplayName("여러 주문을 생성하면 코인 조회, 매도 수량 확인, 잔액 차감을 한 번씩만 하고 한 번에 저장한다.")
+    void createOrdersTest() {
+        // given
+        List<Order> orders = getLadder();
+        given(walletService.findMyVerifiedWallet(1L, "KRW-BTC")).willReturn(getWallet("1"));
+        given(lockedAmountRepository.findLockedAmount(1L, "KRW-BTC")).willReturn(new BigDecimal("0.5"));
+        willAnswer(invocation -> {
+            long orderId = 1;
+            for (Order order : orders) {
+                order.setOrderId(orderId++);
+            }
+            return null;
+        }).given(orderRepository).saveAll(orders);
+
+        // when
+        orderService.createOrders(orders, 1L, "KRW-BTC");
+
+        // then
+        verify(coinService, times(1)).findCoin("KRW-BTC");
+        verify(lockedAmountRepository, times(1)).findLockedAmount(1L, "KRW-BTC");
+        BigDecimal totalBidPrice = calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("1"))
+                .add(calculationUtil.calculateByAddingCommission(new BigDecimal("90"), new BigDecimal("2")));
+        verify(balanceService, times(1)).updateBalanceByBid(1L, totalBidPrice);
+        verify(orderRepository, times(1)).saveAll(orders);
+        assertThat(orders).allMatch(order -> order.getUserId() == 1L && order.getCode().equals("KRW-BTC"));
+    }
+
+    @Test
+    @DisplayName("매도 주문 수량의 합이 매도 가능 수량을 넘으면 아무것도 저장하지 않는다.")
+    void createOrdersNotEnoughAmountTest() {
+        // given
+        List<Order> orders = getLadder();
+        given(walletService.findMyVerifiedWallet(1L, "KRW-BTC")).willReturn(getWallet("0.5"));
+        given(lockedAmountRepository.findLockedAmount(1L, "KRW-BTC")).willReturn(new BigDecimal("0.2"));
+
+        // when, then
+        assertThatThrownBy(() -> orderService.createOrders(orders, 1L, "KRW-BTC"))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(balanceService, never()).updateBalanceByBid(anyLong(), any());
+        verify(orderRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("모든 주문을 취소하면 매수 주문 금액을 한 번에 환불하고 한 번에 삭제한다.")
+    @SuppressWarnings("unchecked")
+    void cancelOrdersTest() {
+        // given
+        List<Order> orders = new ArrayList<>(List.of(
+                StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L),
+                StubData.MockOrder.getMockEntity(2, "90", "2", TransactionType.BID, "KRW-BTC", 1L),
+                StubData.MockOrder.getMockEntity(3, "110", "0.3", TransactionType.ASK, "KRW-BTC", 1L),
+                StubData.MockOrder.getMockEntity(4, "10", "5", TransactionType.BID, "KRW-ETH", 1L)
+        ));
+        given(orderRepository.findAllByUserId(1L)).willReturn(orders);
+        given(orderRepository.deleteAll(any())).willAnswer(invocation -> new ArrayList<>(invocation.<Collection<Order>>getArgument(0)));
+
+        // when
+        orderService.cancelOrders(1L, "KRW-BTC");
+
+        // then
+        BigDecimal totalCancelPrice = calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("1"))
+                .add(calculationUtil.calculateByAddingCommission(new BigDecimal("90"), new BigDecimal("2")));
+        verify(balanceService, times(1)).updateBalanceByAskOrCancelBid(1L, totalCancelPrice);
+        ArgumentCaptor<Collection<Order>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(orderRepository, times(1)).deleteAll(captor.capture());
+        assertThat(captor.getValue()).extracting(Order::getOrderId).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("모든 주문을 취소할 때 그 사이 체결되거나 만료된 주문은 환불하지 않고, 일부 체결된 주문은 남은 수량만큼만 환불한다.")
+    void cancelOrdersRaceTest() {
+        // given
+        List<Order> orders = new ArrayList<>(List.of(
+                StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L),
+                StubData.MockOrder.getMockEntity(2, "90", "2", TransactionType.BID, "KRW-BTC", 1L)
+        ));
+        given(orderRepository.findAllByUserId(1L)).willReturn(orders);
+        given(orderRepository.deleteAll(any())).willReturn(List.of(
+                StubData.MockOrder.getMockEntity(2, "90", "0.5", TransactionType.BID, "KRW-BTC", 1L)));
+
+        // when
+        orderService.cancelOrders(1L, "KRW-BTC");
+
+        // then
+        verify(balanceService, times(1)).updateBalanceByAskOrCancelBid(1L,
+                calculationUtil.calculateByAddingCommission(new BigDecimal("90"), new BigDecimal("0.5")));
+    }
+
+    @Test
+    @DisplayName("모든 주문을 취소할 때 이미 모두 삭제되었으면 환불하지 않는다.")
+    void cancelOrdersAllRemovedTest() {
+        // given
+        List<Order> orders = new ArrayList<>(List.of(
+                StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L)
+        ));
+        given(orderRepository.findAllByUserId(1L)).willReturn(orders);
+        given(orderRepository.deleteAll(any())).willReturn(List.of());
+
+        // when
+        orderService.cancelOrders(1L, "KRW-BTC");
+
+        // then
+        verify(balanceService, never()).updateBalanceByAskOrCancelBid(anyLong(), any());
+    }
+
+    private List<Order> getLadder() {
+        List<Order> orders = new ArrayList<>();
+        orders.add(getOrder("100", "1", TransactionType.BID));
+        orders.add(getOrder("90", "2", TransactionType.BID));
+        orders.add(getOrder("110", "0.3", TransactionType.ASK));
+        orders.add(getOrder("120", "0.2", TransactionType.ASK));
+        return orders;
+    }
+
+    private Order getOrder(String limit, String amount, TransactionType orderType) {
+        return Order.builder()
+                .limit(new BigDecimal(limit))
+                .market(BigDecimal.ZERO)
+                .amount(new BigDecimal(amount))
+                .orderType(orderType)
+                .build();
+    }
+
+    private Wallet getWallet(String amount) {
+        return Wallet.builder().walletId(1L).userId(1L).code("KRW-BTC")
+                .amount(new BigDecimal(amount)).averagePrice(new BigDecimal("100")).build();
+    }
+}
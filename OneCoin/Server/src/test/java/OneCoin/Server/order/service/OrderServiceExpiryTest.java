@@ -0,0 +1,101 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class OrderServiceExpiryTest extends OrderServiceMockTest {
+
+    @Test
+    @DisplayName("만료된 매수 주문은 취소할 때와 같이 환불하고 삭제한다.")
+    void expireBidOrderTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "2", TransactionType.BID, "KRW-BTC", 1L);
+        order.setExpireTime(LocalDateTime.now().plusMinutes(1));
+        given(orderRepository.findById(1L)).willReturn(Optional.of(order));
+        given(orderRepository.delete(order)).willReturn(Optional.of(order));
+
+        // when
+        orderService.expireOrder(1L);
+
+        // then
+        verify(balanceService).updateBalanceByAskOrCancelBid(1L,
+                calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("2")));
+        verify(orderRepository).delete(order);
+        verify(openOrderIndex).remove(order);
+        verify(orderExpiryIndex).removeById(1L);
+    }
+
+    @Test
+    @DisplayName("조회 후 일부 체결되었으면 스크립트가 삭제한 미체결량만큼만 환불한다.")
+    void expirePartiallyFilledOrderTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "2", TransactionType.BID, "KRW-BTC", 1L);
+        Order removed = StubData.MockOrder.getMockEntity(1, "100", "0.5", TransactionType.BID, "KRW-BTC", 1L);
+        given(orderRepository.findById(1L)).willReturn(Optional.of(order));
+        given(orderRepository.delete(order)).willReturn(Optional.of(removed));
+
+        // when
+        orderService.expireOrder(1L);
+
+        // then
+        verify(balanceService).updateBalanceByAskOrCancelBid(1L,
+                calculationUtil.calculateByAddingCommission(new BigDecimal("100"), new BigDecimal("0.5")));
+    }
+
+    @Test
+    @DisplayName("조회 후 취소나 체결로 이미 삭제된 주문은 환불하지 않는다.")
+    void expireRemovedOrderTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "2", TransactionType.BID, "KRW-BTC", 1L);
+        given(orderRepository.findById(1L)).willReturn(Optional.of(order));
+        given(orderRepository.delete(order)).willReturn(Optional.empty());
+
+        // when
+        orderService.expireOrder(1L);
+
+        // then
+        verify(balanceService, never()).updateBalanceByAskOrCancelBid(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("이미 체결된 주문은 만료 처리하지 않는다.")
+    void expireFilledOrderTest() {
+        // given
+        given(orderRepository.findById(1L)).willReturn(Optional.empty());
+
+        // when
+        orderService.expireOrder(1L);
+
+        // then
+        verify(balanceService, never()).updateBalanceByAskOrCancelBid(anyLong(), any());
+        verify(orderRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("만료 시각이 이미 지난 주문은 생성할 수 없다.")
+    void pastExpireTimeTest() {
+        // given
+        Order order = StubData.MockOrder.getMockEntity(1, "100", "2", TransactionType.BID, "KRW-BTC", 1L);
+        order.setExpireTime(LocalDateTime.now().minusSeconds(1));
+
+        // when, then
+        assertThatThrownBy(() -> orderService.createOrder(order, 1L, "KRW-BTC"))
+                .isInstanceOf(BusinessLogicException.class);
+        verify(orderRepository, never()).create(any());
+    }
+}
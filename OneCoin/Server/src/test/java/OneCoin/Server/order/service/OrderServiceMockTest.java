@@ -0,0 +1,42 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.balance.service.BalanceService;
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.order.repository.OrderExpiryIndex;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.upbit.service.MatchingScheduler;
+import OneCoin.Server.utils.CalculationUtil;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/**
+ * OrderService 의 의존성을 모두 Mock 으로 주입한 공통 픽스처
+ */
+@ExtendWith(MockitoExtension.class)
+abstract class OrderServiceMockTest {
+    @Mock
+    protected OrderRepository orderRepository;
+    @Mock
+    protected LockedAmountRepository lockedAmountRepository;
+    @Mock
+    protected OpenOrderIndex openOrderIndex;
+    @Mock
+    protected OrderExpiryIndex orderExpiryIndex;
+    @Mock
+    protected CoinService coinService;
+    @Mock
+    protected WalletService walletService;
+    @Spy
+    protected CalculationUtil calculationUtil;
+    @Mock
+    protected BalanceService balanceService;
+    @Mock
+    protected MatchingScheduler matchingScheduler;
+    @InjectMocks
+    protected OrderService orderService;
+}
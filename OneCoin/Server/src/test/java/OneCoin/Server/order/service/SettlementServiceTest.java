@@ -0,0 +1,188 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.FillScriptRepository;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.repository.SettlementOutboxRepository;
+import OneCoin.Server.order.repository.SettlementRepository;
+import OneCoin.Server.utils.CalculationUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class SettlementServiceTest {
+    private static final String BATCH_ID = "batch";
+
+    private FillScriptRepository fillScriptRepository;
+    private SettlementOutboxRepository settlementOutboxRepository;
+    private OpenOrderIndex openOrderIndex;
+    private TransactionHistoryService transactionHistoryService;
+    private SettlementRepository settlementRepository;
+    private SettlementService settlementService;
+
+    @BeforeEach
+    void setUp() {
+        fillScriptRepository = mock(FillScriptRepository.class);
+        settlementOutboxRepository = mock(SettlementOutboxRepository.class);
+        openOrderIndex = new OpenOrderIndex(mock(OrderRepository.class));
+        transactionHistoryService = mock(TransactionHistoryService.class);
+        settlementRepository = mock(SettlementRepository.class);
+        settlementService = new SettlementService(fillScriptRepository, settlementOutboxRepository, openOrderIndex,
+                transactionHistoryService, settlementRepository, new CalculationUtil(), mock(PlatformTransactionManager.class));
+        given(settlementRepository.insertSettlement(BATCH_ID)).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("전체 체결된 주문과 이미 취소된 주문은 색인에서 지우고, 반영된 체결만 정산한다.")
+    void settleOrdersTest() {
+        // given
+        Order completed = StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.BID, "KRW-BTC", 1L);
+        Order partial = StubData.MockOrder.getMockEntity(2, "100", "1", TransactionType.BID, "KRW-BTC", 2L);
+        Order cancelled = StubData.MockOrder.getMockEntity(3, "100", "1", TransactionType.BID, "KRW-BTC", 3L);
+        openOrderIndex.add(completed);
+        openOrderIndex.add(partial);
+        openOrderIndex.add(cancelled);
+        Fill completedFill = new Fill(completed, new BigDecimal("100"), new BigDecimal("1"));
+        Fill partialFill = new Fill(partial, new BigDecimal("100"), new BigDecimal("0.4"));
+        Fill cancelledFill = new Fill(cancelled, new BigDecimal("100"), new BigDecimal("0.4"));
+        List<Fill> fills = List.of(completedFill, partialFill, cancelledFill);
+        given(settlementOutboxRepository.save(fills)).willReturn(BATCH_ID);
+        given(fillScriptRepository.applyFills(BATCH_ID, fills)).willReturn(List.of(true, true, false));
+
+        // when
+        settlementService.settle(fills);
+
+        // then
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.BID, "KRW-BTC", new BigDecimal("100")))
+                .containsExactly(2L);
+        verify(transactionHistoryService, times(1)).createTransactionHistoriesByFills(List.of(completedFill, partialFill));
+        verify(settlementOutboxRepository).delete(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("매도 체결 금액은 사용자별로 합쳐 한 번에 잔액에 더한다.")
+    @SuppressWarnings("unchecked")
+    void settleBalancesTest() {
+        // given
+        Order first = StubData.MockOrder.getMockEntity(1, "100", "1", TransactionType.ASK, "KRW-BTC", 1L);
+        Order second = StubData.MockOrder.getMockEntity(2, "100", "1", TransactionType.ASK, "KRW-BTC", 1L);
+        List<Fill> fills = List.of(
+                new Fill(first, new BigDecimal("100"), new BigDecimal("1")),
+                new Fill(second, new BigDecimal("100"), new BigDecimal("1")));
+        given(settlementOutboxRepository.save(fills)).willReturn(BATCH_ID);
+        given(fillScriptRepository.applyFills(BATCH_ID, fills)).willReturn(List.of(true, true));
+
+        // when
+        settlementService.settle(fills);
+
+        // then
+        ArgumentCaptor<Map<Long, BigDecimal>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(settlementRepository, times(1)).addBalances(captor.capture());
+        assertThat(captor.getValue()).containsOnlyKeys(1L);
+        assertThat(captor.getValue().get(1L)).isEqualByComparingTo("199.9");
+    }
+
+    @Test
+    @DisplayName("체결이 없으면 아무것도 쓰지 않는다.")
+    void emptyTest() {
+        // when
+        settlementService.settle(List.of());
+
+        // then
+        verifyNoInteractions(fillScriptRepository, settlementOutboxRepository, transactionHistoryService, settlementRepository);
+    }
+
+    @Test
+    @DisplayName("MySQL 정산에 실패하면 체결 묶음을 outbox에 남긴다.")
+    void failedRecordTest() {
+        // given
+        List<Fill> fills = List.of(askFill(1));
+        given(settlementOutboxRepository.save(fills)).willReturn(BATCH_ID);
+        given(fillScriptRepository.applyFills(BATCH_ID, fills)).willReturn(List.of(true));
+        willThrow(new QueryTimeoutException("timeout")).given(settlementRepository).addBalances(anyMap());
+
+        // when
+        settlementService.settle(fills);
+
+        // then
+        verify(settlementOutboxRepository, never()).delete(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("outbox에 남은 묶음은 Redis에 반영된 체결로 다시 정산하고 outbox에서 지운다.")
+    void retryPendingTest() {
+        // given
+        List<Fill> appliedFills = List.of(askFill(1));
+        given(settlementOutboxRepository.findIdsBefore(anyLong())).willReturn(List.of(BATCH_ID));
+        given(settlementOutboxRepository.findAppliedFills(BATCH_ID)).willReturn(appliedFills);
+
+        // when
+        settlementService.retryPending(0);
+
+        // then
+        verify(settlementRepository).addBalances(anyMap());
+        verify(transactionHistoryService).createTransactionHistoriesByFills(appliedFills);
+        verify(settlementOutboxRepository).delete(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("이미 MySQL에 정산한 묶음은 다시 저장하지 않고 outbox에서만 지운다.")
+    void alreadyRecordedTest() {
+        // given
+        given(settlementOutboxRepository.findIdsBefore(anyLong())).willReturn(List.of(BATCH_ID));
+        given(settlementOutboxRepository.findAppliedFills(BATCH_ID)).willReturn(List.of(askFill(1)));
+        given(settlementRepository.insertSettlement(BATCH_ID)).willReturn(false);
+
+        // when
+        settlementService.retryPending(0);
+
+        // then
+        verify(settlementRepository, never()).addBalances(anyMap());
+        verify(transactionHistoryService, never()).createTransactionHistoriesByFills(anyList());
+        verify(settlementOutboxRepository).delete(BATCH_ID);
+    }
+
+    @Test
+    @DisplayName("다시 정산하다 실패하면 뒤의 묶음은 다음 호출로 미룬다.")
+    void retryStopsAtFailureTest() {
+        // given
+        given(settlementOutboxRepository.findIdsBefore(anyLong())).willReturn(List.of(BATCH_ID, "next"));
+        given(settlementOutboxRepository.findAppliedFills(BATCH_ID)).willReturn(List.of(askFill(1)));
+        willThrow(new QueryTimeoutException("timeout")).given(settlementRepository).addBalances(anyMap());
+
+        // when
+        settlementService.retryPending(0);
+
+        // then
+        verify(settlementOutboxRepository, never()).findAppliedFills("next");
+        verify(settlementOutboxRepository, never()).delete(BATCH_ID);
+    }
+
+    private Fill askFill(long orderId) {
+        Order order = StubData.MockOrder.getMockEntity(orderId, "100", "1", TransactionType.ASK, "KRW-BTC", 1L);
+        return new Fill(order, new BigDecimal("100"), new BigDecimal("1"));
+    }
+}
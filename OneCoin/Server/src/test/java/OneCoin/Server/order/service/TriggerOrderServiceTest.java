@@ -0,0 +1,114 @@
+package OneCoin.Server.order.service;
+
+import OneCoin.Server.coin.service.CoinService;
+import OneCoin.Server.exception.BusinessLogicException;
+import OneCoin.Server.exception.ExceptionCode;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.TriggerOrder;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.TriggerOrderIndex;
+import OneCoin.Server.order.repository.TriggerOrderRepository;
+import OneCoin.Server.upbit.service.MatchingScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TriggerOrderServiceTest {
+    private TriggerOrderRepository triggerOrderRepository;
+    private TriggerOrderIndex triggerOrderIndex;
+    private OrderService orderService;
+    private TriggerOrderService triggerOrderService;
+
+    @BeforeEach
+    void setUp() {
+        triggerOrderRepository = mock(TriggerOrderRepository.class);
+        triggerOrderIndex = new TriggerOrderIndex(triggerOrderRepository);
+        orderService = mock(OrderService.class);
+        triggerOrderService = new TriggerOrderService(triggerOrderRepository, triggerOrderIndex,
+                mock(CoinService.class), mock(WalletService.class), orderService, mock(MatchingScheduler.class));
+    }
+
+    @Test
+    @DisplayName("체결 가격이 감시 가격을 지나가면 감시 주문을 지우고 지정가 주문을 생성한다.")
+    void fireTriggersTest() {
+        // given
+        TriggerOrder triggerOrder = saveTriggerOrder(1L, "95", "94");
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("100"));
+
+        // when
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("94"));
+
+        // then
+        ArgumentCaptor<Order> captor = ArgumentCaptor.forClass(Order.class);
+        verify(orderService, times(1)).createOrder(captor.capture(), anyLong(), anyString());
+        Order order = captor.getValue();
+        assertThat(order.getOrderId()).isNull();
+        assertThat(order.getLimit()).isEqualByComparingTo("94");
+        assertThat(order.getOrderType()).isEqualTo(TransactionType.ASK);
+        verify(triggerOrderRepository).delete(triggerOrder);
+    }
+
+    @Test
+    @DisplayName("그 사이 취소된 감시 주문은 주문을 생성하지 않는다.")
+    void cancelledTriggerTest() {
+        // given
+        TriggerOrder triggerOrder = saveTriggerOrder(1L, "95", "94");
+        given(triggerOrderRepository.delete(triggerOrder)).willReturn(false);
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("100"));
+
+        // when
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("90"));
+
+        // then
+        verify(orderService, never()).createOrder(any(), anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("주문을 생성할 수 없는 감시 주문은 건너뛰고 나머지를 발동한다.")
+    void failedTriggerTest() {
+        // given
+        saveTriggerOrder(1L, "95", "94");
+        saveTriggerOrder(2L, "92", "91");
+        willThrow(new BusinessLogicException(ExceptionCode.NOT_ENOUGH_AMOUNT))
+                .willDoNothing()
+                .given(orderService).createOrder(any(), anyLong(), anyString());
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("100"));
+
+        // when
+        triggerOrderService.fireTriggers("KRW-BTC", new BigDecimal("90"));
+
+        // then
+        verify(orderService, times(2)).createOrder(any(), anyLong(), anyString());
+    }
+
+    private TriggerOrder saveTriggerOrder(long triggerId, String stopPrice, String limit) {
+        TriggerOrder triggerOrder = TriggerOrder.builder()
+                .triggerId(triggerId)
+                .stopPrice(new BigDecimal(stopPrice))
+                .limit(new BigDecimal(limit))
+                .amount(BigDecimal.ONE)
+                .orderType(TransactionType.ASK)
+                .userId(1L)
+                .code("KRW-BTC")
+                .build();
+        triggerOrderIndex.add(triggerOrder);
+        given(triggerOrderRepository.findById(triggerId)).willReturn(Optional.of(triggerOrder));
+        given(triggerOrderRepository.delete(triggerOrder)).willReturn(true);
+        return triggerOrder;
+    }
+}
@@ -1,6 +1,5 @@
 package OneCoin.Server.order.service;
 
-import OneCoin.Server.balance.service.BalanceService;
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.Wallet;
@@ -18,23 +17,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.Mockito.doNothing;
 
 @SpringBootTest
 @MockBean(OkHttpClient.class)
 public class WalletServiceTest {
     @SpyBean
     private WalletService walletService;
-    @MockBean
-    private BalanceService balanceService;
-    @MockBean
-    private TransactionHistoryService transactionHistoryService;
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
@@ -58,97 +49,6 @@ public class WalletServiceTest {
         walletRepository.deleteAll();
     }
 
-    @Test
-    @DisplayName("매수 체결 시 wallet 생성(일부 체결), order의 미체결량 감소")
-    void createWallet1() {
-        // given
-        BigDecimal tradePrice = new BigDecimal("100000");
-        BigDecimal tradeVolume = new BigDecimal("1");
-
-        // when
-        walletService.updateWalletByBid(order, tradePrice, tradeVolume);
-
-        // then
-        Order findOrder = orderRepository.findById(1L).orElse(null);
-        assertThat(findOrder.getAmount()).isEqualTo(new BigDecimal("9"));
-
-        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElse(null);
-        assertThat(findWallet.getAmount()).isEqualTo(tradeVolume);
-    }
-
-    @Test
-    @DisplayName("매수 체결 시 wallet 생성(전체 체결), order 삭제")
-    void createWallet2() {
-        // given
-        BigDecimal tradePrice = new BigDecimal("100000");
-        BigDecimal tradeVolume = new BigDecimal("10");
-
-        // when
-        doNothing().when(transactionHistoryService).createTransactionHistoryByOrder(any());
-        walletService.updateWalletByBid(order, tradePrice, tradeVolume);
-
-        // then
-        Order findOrder = orderRepository.findById(1L).orElse(null);
-        assertThat(findOrder).isEqualTo(null);
-
-        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElse(null);
-        assertThat(findWallet.getAmount()).isEqualTo(tradeVolume);
-    }
-
-    @Test
-    @DisplayName("매수 체결 시 wallet이 존재하면 업데이트")
-    void updateWalletByBid() {
-        // given
-        BigDecimal tradePrice = new BigDecimal("100000");
-        BigDecimal tradeVolume = new BigDecimal("10");
-
-        // when
-        doNothing().when(transactionHistoryService).createTransactionHistoryByOrder(any());
-        walletService.updateWalletByBid(order, tradePrice, tradeVolume);
-
-        // then
-        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElse(null);
-        assertThat(findWallet.getAmount()).isEqualTo(new BigDecimal("11"));
-        assertThat(findWallet.getAveragePrice()).isEqualTo(new BigDecimal("22524818.18"));
-    }
-
-    @Test
-    @DisplayName("매도 체결 시 wallet 업데이트(일부 체결), wallet 보유량 감소")
-    void updateWalletByAsk1() {
-        // given
-        Wallet wallet = StubData.MockWallet.getMockEntity();
-        wallet.setAmount(new BigDecimal("10"));
-        BigDecimal tradePrice = new BigDecimal("100000");
-        BigDecimal tradeVolume = new BigDecimal("9");
-
-        // when
-        doNothing().when(balanceService).updateBalanceByAskOrCancelBid(anyLong(), any());
-        walletService.updateWalletByAsk(order, tradePrice, tradeVolume);
-
-        // then
-        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElse(null);
-        assertThat(findWallet.getAmount()).isEqualTo(new BigDecimal("1"));
-    }
-
-    @Test
-    @DisplayName("매도 체결 시 wallet 업데이트(전체 체결), wallet 삭제")
-    void updateWalletByAsk2() {
-        // given
-        Wallet wallet = StubData.MockWallet.getMockEntity();
-        wallet.setAmount(new BigDecimal("10"));
-        walletRepository.save(wallet);
-        BigDecimal tradePrice = new BigDecimal("100000");
-        BigDecimal tradeVolume = new BigDecimal("10");
-
-        // when
-        doNothing().when(balanceService).updateBalanceByAskOrCancelBid(anyLong(), any());
-        walletService.updateWalletByAsk(order, tradePrice, tradeVolume);
-
-        // then
-        Wallet findWallet = walletRepository.findByUserIdAndCode(1L, "KRW-BTC").orElse(null);
-        assertThat(findWallet).isEqualTo(null);
-    }
-
     @Test
     @DisplayName("user의 모든 코인 지갑을 찾는다.")
     void findUserWallets() {
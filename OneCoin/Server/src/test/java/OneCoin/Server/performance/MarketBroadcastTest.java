@@ -0,0 +1,156 @@
+package OneCoin.Server.performance;
+
+import OneCoin.Server.config.AppConfig;
+import OneCoin.Server.dto.SingleResponseDto;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.upbit.dto.MarketDto;
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /info/upbit 전송 한 번이 구독자 1,000명에게 전달되기까지의 비용을 비교한다.
+ * UpbitWebSocketPublisher가 쓰는 convertAndSend와, message converter를 거치지 않고 미리 직렬화한 byte[]를 보내는 방식을 비교한다.
+ * 두 경우 모두 session마다 STOMP MESSAGE frame을 encode하는 비용까지 포함한다.
+ * convertAndSend도 전송마다 한 번만 직렬화하고 broker가 같은 payload를 모든 session에 넘기므로, 비용은 대부분 session별 frame encode이고
+ * 두 방식의 차이는 측정 오차 안에 든다.
+ * <p>
+ * 먼저 잰 쪽이 JIT warm-up 비용을 떠안지 않도록 두 방식을 함께 warm-up한 뒤, 라운드마다 순서를 바꿔 가며 재고 중앙값을 비교한다.
+ */
+public class MarketBroadcastTest {
+    private static final String DESTINATION = "/info/upbit";
+    private static final int SUBSCRIBERS = 1_000;
+    private static final int MARKETS = 100;
+    private static final int WARM_UP = 200;
+    private static final int ROUNDS = 20;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper objectMapper = new AppConfig().objectMapper();
+    private final StompEncoder encoder = new StompEncoder();
+    private long encodedBytes;
+    private int deliveries;
+
+    @Test
+    void measureBroadcastTest() throws Exception {
+        ExecutorSubscribableChannel clientOutboundChannel = new ExecutorSubscribableChannel();
+        clientOutboundChannel.subscribe(this::encodeFrame);
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(
+                new ExecutorSubscribableChannel(), clientOutboundChannel, brokerChannel, Set.of("/info"));
+        broker.start();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            broker.handleMessage(sessionMessage(SimpMessageType.CONNECT, "session-" + i));
+            broker.handleMessage(sessionMessage(SimpMessageType.SUBSCRIBE, "session-" + i));
+        }
+
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+        template.setMessageConverter(converter);
+        MarketDto marketDto = new MarketDto(tickers(), List.of(), true);
+
+        Runnable convertAndSend = () -> template.convertAndSend(DESTINATION, new SingleResponseDto<>(marketDto));
+        Runnable serializedOnce = () -> template.send(DESTINATION, serializedMessage(marketDto));
+        for (int i = 0; i < WARM_UP; i++) {
+            convertAndSend.run();
+            serializedOnce.run();
+        }
+
+        long[] convertAndSendTimes = new long[ROUNDS];
+        long[] serializedOnceTimes = new long[ROUNDS];
+        for (int round = 0; round < ROUNDS; round++) {
+            if (round % 2 == 0) {
+                convertAndSendTimes[round] = measure(convertAndSend);
+                serializedOnceTimes[round] = measure(serializedOnce);
+            } else {
+                serializedOnceTimes[round] = measure(serializedOnce);
+                convertAndSendTimes[round] = measure(convertAndSend);
+            }
+        }
+
+        System.out.printf("# convertAndSend: %d us per 1k subscribers (median of %d rounds)%n", median(convertAndSendTimes) / 1_000, ROUNDS);
+        System.out.printf("# serialized once: %d us per 1k subscribers (median of %d rounds)%n", median(serializedOnceTimes) / 1_000, ROUNDS);
+        assertThat(deliveries).isEqualTo(SUBSCRIBERS * (WARM_UP + ROUNDS * ITERATIONS) * 2);
+        broker.stop();
+    }
+
+    private long measure(Runnable broadcast) {
+        long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            broadcast.run();
+        }
+        return (System.nanoTime() - startTime) / ITERATIONS;
+    }
+
+    private long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private Message<byte[]> serializedMessage(MarketDto marketDto) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(new SingleResponseDto<>(marketDto));
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * StompSubProtocolHandler가 session마다 하는 것처럼 MESSAGE frame을 만든다.
+     */
+    private boolean encodeFrame(Message<?> message) {
+        SimpMessageHeaderAccessor source = SimpMessageHeaderAccessor.wrap(message);
+        if (source.getMessageType() != SimpMessageType.MESSAGE) {
+            return false;
+        }
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(source.getDestination());
+        accessor.setSubscriptionId(source.getSubscriptionId());
+        accessor.setMessageId(String.valueOf(deliveries));
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        encodedBytes += encoder.encode(accessor.getMessageHeaders(), (byte[]) message.getPayload()).length;
+        deliveries++;
+        return true;
+    }
+
+    private Message<byte[]> sessionMessage(SimpMessageType messageType, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(messageType);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(DESTINATION);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    private List<TickerDto> tickers() throws Exception {
+        TickerDto ticker = objectMapper.readValue(StubData.MockUpbitAPI.getJsonTicker(), TickerDto.class);
+        List<TickerDto> tickers = new ArrayList<>();
+        for (int i = 0; i < MARKETS; i++) {
+            tickers.add(ticker);
+        }
+        return tickers;
+    }
+}
@@ -0,0 +1,190 @@
+package OneCoin.Server.performance;
+
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.LockedAmountRepository;
+import OneCoin.Server.order.repository.OrderIdAllocator;
+import OneCoin.Server.order.repository.OrderRepository;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.redis.DataRedisTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.jpa.mapping.JpaMetamodelMappingContext;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisHash;
+import org.springframework.data.redis.core.RedisKeyValueAdapter;
+import org.springframework.data.redis.core.RedisKeyValueTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.index.Indexed;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+import org.springframework.data.redis.repository.support.RedisRepositoryFactory;
+import org.springframework.data.repository.CrudRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 미체결 주문 10만 건을 저장했을 때 Redis 메모리 사용량과 조회 시간을 비교한다.
+ * 기존 방식은 @RedisHash + @Indexed(지정가, 거래 타입, 사용자, 코인 코드)이고, 새 방식은 OrderRepository의 hash + ZSET + SET 구조이다.
+ * 로컬 Redis가 필요하다.
+ */
+@DataRedisTest
+@Import({OrderRepository.class, OrderIdAllocator.class, LockedAmountRepository.class})
+@MockBean(JpaMetamodelMappingContext.class)
+public class OrderLayoutTest {
+    private static final int ORDERS = 100_000;
+    private static final int MARKETS = 50;
+    private static final int USERS = 10_000;
+    private static final int PRICE_LEVELS = 500;
+    private static final int QUERIES = 200;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisConnectionFactory connectionFactory;
+
+    @Test
+    void measureOrderLayoutTest() {
+        LegacyOrderRepository legacyOrderRepository = legacyOrderRepository();
+        List<Order> orders = orders();
+
+        long usedMemory = usedMemory();
+        for (Order order : orders) {
+            legacyOrderRepository.save(LegacyOrder.of(order));
+        }
+        long legacyMemory = usedMemory() - usedMemory;
+        long legacyBookQuery = measure(i -> legacyOrderRepository.findAllByOrderTypeAndCode(side(i), code(i)));
+        long legacyUserQuery = measure(i -> legacyOrderRepository.findAllByUserId((long) i % USERS));
+        int legacyCount = legacyOrderRepository.findAllByOrderTypeAndCode(TransactionType.BID, code(0)).size();
+        legacyOrderRepository.deleteAll();
+
+        usedMemory = usedMemory();
+        orderRepository.saveAll(orders);
+        long compactMemory = usedMemory() - usedMemory;
+        long compactBookQuery = measure(i -> orderRepository.findAllByOrderTypeAndCode(side(i), code(i)));
+        long compactUserQuery = measure(i -> orderRepository.findAllByUserId((long) i % USERS));
+        int compactCount = orderRepository.findAllByOrderTypeAndCode(TransactionType.BID, code(0)).size();
+        orderRepository.deleteAll();
+
+        System.out.printf("# @RedisHash: %d bytes per order, book query %d us, user query %d us%n",
+                legacyMemory / ORDERS, legacyBookQuery / 1_000, legacyUserQuery / 1_000);
+        System.out.printf("# hash + zset: %d bytes per order, book query %d us, user query %d us%n",
+                compactMemory / ORDERS, compactBookQuery / 1_000, compactUserQuery / 1_000);
+        assertThat(compactCount).isEqualTo(legacyCount);
+    }
+
+    private long measure(IntConsumer query) {
+        for (int i = 0; i < QUERIES; i++) {
+            query.accept(i);
+        }
+        long startTime = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            query.accept(i);
+        }
+        return (System.nanoTime() - startTime) / QUERIES;
+    }
+
+    private long usedMemory() {
+        Properties info = stringRedisTemplate.execute((RedisCallback<Properties>) connection ->
+                connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+
+    private List<Order> orders() {
+        List<Order> orders = new ArrayList<>(ORDERS);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ORDERS; i++) {
+            orders.add(Order.builder()
+                    .orderId(i + 1L)
+                    .limit(BigDecimal.valueOf(1_000_000L + (i % PRICE_LEVELS) * 1_000L))
+                    .amount(new BigDecimal("0.01"))
+                    .orderTime(now)
+                    .orderType(side(i))
+                    .userId((long) i % USERS)
+                    .code(code(i))
+                    .build());
+        }
+        return orders;
+    }
+
+    private TransactionType side(int i) {
+        return i % 2 == 0 ? TransactionType.BID : TransactionType.ASK;
+    }
+
+    private String code(int i) {
+        return "KRW-C" + (i / 2) % MARKETS;
+    }
+
+    private LegacyOrderRepository legacyOrderRepository() {
+        RedisTemplate<byte[], byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.afterPropertiesSet();
+        RedisMappingContext mappingContext = new RedisMappingContext();
+        RedisKeyValueAdapter adapter = new RedisKeyValueAdapter(redisTemplate, mappingContext);
+        RedisKeyValueTemplate keyValueTemplate = new RedisKeyValueTemplate(adapter, mappingContext);
+        return new RedisRepositoryFactory(keyValueTemplate).getRepository(LegacyOrderRepository.class);
+    }
+
+    interface LegacyOrderRepository extends CrudRepository<LegacyOrder, Long> {
+        List<LegacyOrder> findAllByOrderTypeAndCode(TransactionType orderType, String code);
+
+        List<LegacyOrder> findAllByUserId(Long userId);
+    }
+
+    /**
+     * 이전 Order와 같은 매핑. 같은 Redis에 있는 실제 주문과 섞이지 않도록 keyspace만 다르다.
+     */
+    @Getter
+    @Setter
+    @RedisHash("legacy-order")
+    static class LegacyOrder {
+        @Id
+        private Long orderId;
+
+        @Indexed
+        private BigDecimal limit;
+
+        private BigDecimal market;
+
+        private BigDecimal amount;
+
+        private LocalDateTime orderTime;
+
+        @Indexed
+        private TransactionType orderType;
+
+        @Indexed
+        private Long userId;
+
+        @Indexed
+        private String code;
+
+        static LegacyOrder of(Order order) {
+            LegacyOrder legacyOrder = new LegacyOrder();
+            legacyOrder.setOrderId(order.getOrderId());
+            legacyOrder.setLimit(order.getLimit());
+            legacyOrder.setAmount(order.getAmount());
+            legacyOrder.setOrderTime(order.getOrderTime());
+            legacyOrder.setOrderType(order.getOrderType());
+            legacyOrder.setUserId(order.getUserId());
+            legacyOrder.setCode(order.getCode());
+            return legacyOrder;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package OneCoin.Server.upbit.mapper;
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.upbit.dto.orderbook.OrderBookDto;
 import OneCoin.Server.upbit.entity.UnitInfo;
+import OneCoin.Server.utils.FixedPoint;
 import OneCoin.Server.utils.JsonUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -43,7 +44,7 @@ public class OrderBookDtoMapperTest {
     @DisplayName("매수 호가(15개), 매도 호가(15개) 정보를 매핑한다.")
     void mappingTest() {
         // when
-        OrderBookDto orderBookDto = mapper.unitInfoToOrderBookDto(unitInfos, "20000000");
+        OrderBookDto orderBookDto = mapper.unitInfoToOrderBookDto(unitInfos, FixedPoint.parse("20000000"));
 
         // then
         assertThat(orderBookDto.getAskInfo().get(0).getAskPrice()).isEqualTo("2.2525E7");
@@ -0,0 +1,65 @@
+package OneCoin.Server.upbit.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LastValueCacheTest {
+    private final LastValueCache<String> cache = new LastValueCache<>();
+
+    @Test
+    @DisplayName("코드별로 마지막에 저장한 값만 조회된다.")
+    void lastValueTest() {
+        // given
+        cache.put("KRW-BTC", "1");
+        cache.put("KRW-BTC", "2");
+
+        // when
+        List<String> values = cache.getAll(List.of("KRW-BTC", "KRW-ETH"));
+
+        // then
+        assertThat(cache.get("KRW-BTC")).isEqualTo("2");
+        assertThat(values).containsExactly("2", null);
+    }
+
+    @Test
+    @DisplayName("drain 이후 변경되지 않은 값은 다시 drain 되지 않는다.")
+    void drainDirtyTest() {
+        // given
+        cache.put("KRW-BTC", "1");
+        cache.put("KRW-ETH", "2");
+        cache.put("KRW-BTC", "3");
+
+        // when
+        Map<String, String> first = cache.drainDirty();
+        cache.put("KRW-ETH", "4");
+        Map<String, String> second = cache.drainDirty();
+
+        // then
+        assertThat(first).containsExactlyInAnyOrderEntriesOf(Map.of("KRW-BTC", "3", "KRW-ETH", "2"));
+        assertThat(second).containsExactlyInAnyOrderEntriesOf(Map.of("KRW-ETH", "4"));
+        assertThat(cache.drainDirty()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("version 이후에 바뀐 값만 codes 순서대로 조회한다.")
+    void getChangedSinceTest() {
+        // given
+        cache.put("KRW-BTC", "1");
+        cache.put("KRW-ETH", "2");
+        long version = cache.version();
+
+        // when
+        cache.put("KRW-XRP", "3");
+        cache.put("KRW-BTC", "4");
+        List<String> changed = cache.getChangedSince(List.of("KRW-BTC", "KRW-ETH", "KRW-XRP"), version);
+
+        // then
+        assertThat(changed).containsExactly("4", "3");
+        assertThat(cache.getChangedSince(List.of("KRW-BTC", "KRW-ETH", "KRW-XRP"), cache.version())).isEmpty();
+    }
+}
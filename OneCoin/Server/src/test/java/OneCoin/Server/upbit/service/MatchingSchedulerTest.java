@@ -0,0 +1,183 @@
+package OneCoin.Server.upbit.service;
+
+import OneCoin.Server.config.AppConfig;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.upbit.entity.CoalescedTrade;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.utils.JsonUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+public class MatchingSchedulerTest {
+    private final JsonUtil jsonUtil = new JsonUtil(new AppConfig().objectMapper());
+    private final TradingService tradingService = mock(TradingService.class);
+    private final OpenOrderIndex openOrderIndex = mock(OpenOrderIndex.class);
+    private final MatchingScheduler matchingScheduler =
+            new MatchingScheduler(tradingService, openOrderIndex, new SimpleMeterRegistry(), 4, 10_000, 0);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        matchingScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 코드의 작업은 제출된 순서대로 하나의 스레드에서 실행된다.")
+    void sameCodeOrderTest() throws InterruptedException {
+        // given
+        int count = 1000;
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(count);
+
+        // when
+        for (int i = 0; i < count; i++) {
+            int sequence = i;
+            matchingScheduler.submit("KRW-BTC", () -> {
+                executed.add(sequence);
+                threads.add(Thread.currentThread().getName());
+                latch.countDown();
+            });
+        }
+
+        // then
+        assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executed).isSorted().hasSize(count);
+        assertThat(threads).containsOnly(threads.get(0));
+    }
+
+    @Test
+    @DisplayName("다른 lane의 코드는 앞선 작업이 끝나지 않아도 실행된다.")
+    void otherLaneTest() throws InterruptedException {
+        // given
+        String blocked = "KRW-BTC";
+        String other = findCodeOnOtherLane(blocked);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        matchingScheduler.submit(blocked, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // when
+        matchingScheduler.submit(other, done::countDown);
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("작업에서 예외가 발생해도 lane은 계속 동작한다.")
+    void exceptionTest() throws InterruptedException {
+        // given
+        CountDownLatch done = new CountDownLatch(1);
+
+        // when
+        matchingScheduler.submit("KRW-ETH", () -> {
+            throw new IllegalStateException();
+        });
+        matchingScheduler.submit("KRW-ETH", done::countDown);
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("lane의 대기열이 가득 차면 제출한 thread가 자리가 날 때까지 기다리고, 작업은 제출한 순서대로 실행된다.")
+    void backpressureTest() throws InterruptedException {
+        // given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        MatchingScheduler bounded = new MatchingScheduler(tradingService, openOrderIndex, meterRegistry, 1, 2, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        bounded.submit("KRW-BTC", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < 5; i++) {
+                int sequence = i;
+                bounded.submit("KRW-BTC", () -> executed.add(sequence));
+            }
+            submitted.countDown();
+        });
+
+        // when
+        producer.start();
+
+        // then
+        assertThat(submitted.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(submitted.await(5, TimeUnit.SECONDS)).isTrue();
+        bounded.shutdown();
+        assertThat(executed).containsExactly(0, 1, 2, 3, 4);
+        assertThat(meterRegistry.get("upbit.matching.queue.blocked").counter().count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("묶는 시간 안에 연달아 들어온 같은 거래 타입의 체결은 하나로 묶고, 거래 타입이 바뀌면 앞의 묶음을 넘긴다.")
+    void coalesceTest() throws InterruptedException {
+        // given
+        MatchingScheduler coalescing = new MatchingScheduler(tradingService, openOrderIndex, new SimpleMeterRegistry(), 4, 10_000, 50);
+        List<Integer> sizes = Collections.synchronizedList(new ArrayList<>());
+        List<String> orderTypes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(3);
+        willAnswer(invocation -> {
+            CoalescedTrade window = invocation.getArgument(0);
+            sizes.add(window.size());
+            orderTypes.add(window.getOrderType());
+            done.countDown();
+            return null;
+        }).given(tradingService).completeOrders(any(CoalescedTrade.class));
+
+        // when
+        coalescing.onTrade(trade("100", "BID"));
+        coalescing.onTrade(trade("101", "BID"));
+        coalescing.onTrade(trade("99", "BID"));
+        coalescing.onTrade(trade("98", "ASK"));
+        coalescing.onTrade(trade("100", "BID"));
+
+        // then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(sizes).containsExactly(3, 1, 1);
+        assertThat(orderTypes).containsExactly("BID", "ASK", "BID");
+        coalescing.shutdown();
+    }
+
+    private Trade trade(String price, String orderType) {
+        String json = "{\"code\":\"KRW-BTC\",\"trade_price\":\"" + price + "\",\"trade_volume\":\"0.1\",\"ask_bid\":\"" + orderType + "\"}";
+        return jsonUtil.fromJson(json, Trade.class);
+    }
+
+    private String findCodeOnOtherLane(String code) {
+        for (int i = 0; ; i++) {
+            String candidate = "KRW-" + i;
+            if (Math.floorMod(candidate.hashCode(), 4) != Math.floorMod(code.hashCode(), 4)) {
+                return candidate;
+            }
+        }
+    }
+}
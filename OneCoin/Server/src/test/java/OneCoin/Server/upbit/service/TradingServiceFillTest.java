@@ -0,0 +1,163 @@
+package OneCoin.Server.upbit.service;
+
+import OneCoin.Server.config.AppConfig;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.order.entity.Fill;
+import OneCoin.Server.order.entity.Order;
+import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OpenOrderIndex;
+import OneCoin.Server.order.repository.OrderRepository;
+import OneCoin.Server.order.service.SettlementService;
+import OneCoin.Server.upbit.entity.CoalescedTrade;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.utils.JsonUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class TradingServiceFillTest {
+    private final JsonUtil jsonUtil = new JsonUtil(new AppConfig().objectMapper());
+    private OrderRepository orderRepository;
+    private OpenOrderIndex openOrderIndex;
+    private SettlementService settlementService;
+    private TradingService tradingService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        settlementService = mock(SettlementService.class);
+        openOrderIndex = new OpenOrderIndex(orderRepository);
+        tradingService = new TradingService(orderRepository, openOrderIndex, settlementService);
+    }
+
+    @Test
+    @DisplayName("체결량을 모두 소진하면 남은 주문은 조회하지 않는다.")
+    void stopWhenVolumeConsumedTest() {
+        // given
+        saveOrder(StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.BID, "KRW-BTC", 1L));
+        saveOrder(StubData.MockOrder.getMockEntity(2, "110", "0.5", TransactionType.BID, "KRW-BTC", 1L));
+        saveOrder(StubData.MockOrder.getMockEntity(3, "100", "0.5", TransactionType.BID, "KRW-BTC", 1L));
+
+        // when
+        tradingService.completeOrders(trade("100", "0.7", "BID"));
+
+        // then
+        List<Fill> fills = captureFills();
+        assertThat(fills).extracting(fill -> fill.getOrder().getOrderId()).containsExactly(2L, 1L);
+        assertThat(fills).extracting(Fill::getAmount).containsExactly(new BigDecimal("0.5"), new BigDecimal("0.2"));
+        assertThat(fills).extracting(Fill::isCompleted).containsExactly(true, false);
+        verify(orderRepository, never()).findById(3L);
+    }
+
+    @Test
+    @DisplayName("Redis에 없는 주문은 건너뛰고 색인에서 지운다.")
+    void skipMissingOrderTest() {
+        // given
+        openOrderIndex.add(StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.ASK, "KRW-BTC", 1L));
+        saveOrder(StubData.MockOrder.getMockEntity(2, "90", "0.3", TransactionType.ASK, "KRW-BTC", 1L));
+        given(orderRepository.findById(1L)).willReturn(Optional.empty());
+
+        // when
+        tradingService.completeOrders(trade("100", "1", "ASK"));
+
+        // then
+        List<Fill> fills = captureFills();
+        assertThat(fills).hasSize(1);
+        assertThat(fills.get(0).getPrice()).isEqualTo(new BigDecimal("100"));
+        assertThat(fills.get(0).getAmount()).isEqualTo(new BigDecimal("0.3"));
+        assertThat(openOrderIndex.findCrossingOrderIds(TransactionType.ASK, "KRW-BTC", new BigDecimal("100")))
+                .containsExactly(2L);
+    }
+
+    @Test
+    @DisplayName("묶인 체결은 정산을 한 번만 하고, 체결 결과는 하나씩 처리할 때와 같다.")
+    void coalescedTradeTest() {
+        // given
+        List<Trade> trades = List.of(trade("100", "0.4", "BID"), trade("95", "0.5", "BID"), trade("105", "0.6", "BID"));
+        saveBidBook();
+        trades.forEach(tradingService::completeOrders);
+        List<String> oneByOne = describe(captureAllFills());
+
+        setUp();
+        saveBidBook();
+        long arrivalSequence = openOrderIndex.currentSequence();
+        CoalescedTrade coalescedTrade = new CoalescedTrade(trades.get(0), arrivalSequence);
+        coalescedTrade.add(trades.get(1), arrivalSequence);
+        coalescedTrade.add(trades.get(2), arrivalSequence);
+
+        // when
+        tradingService.completeOrders(coalescedTrade);
+
+        // then
+        assertThat(coalescedTrade.getLowPrice()).isEqualTo(new BigDecimal("95"));
+        assertThat(coalescedTrade.getHighPrice()).isEqualTo(new BigDecimal("105"));
+        assertThat(coalescedTrade.getTotalVolume()).isEqualTo(new BigDecimal("1.5"));
+        assertThat(describe(captureFills())).isEqualTo(oneByOne).hasSize(4);
+    }
+
+    @Test
+    @DisplayName("묶는 동안 새로 들어온 주문은 그 전에 들어온 체결에 체결되지 않고, 그 뒤의 체결에만 체결된다.")
+    void orderInsideWindowTest() {
+        // given
+        saveOrder(StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.BID, "KRW-BTC", 1L));
+        CoalescedTrade coalescedTrade = new CoalescedTrade(trade("100", "0.5", "BID"), openOrderIndex.currentSequence());
+        saveOrder(StubData.MockOrder.getMockEntity(2, "110", "0.5", TransactionType.BID, "KRW-BTC", 1L));
+        coalescedTrade.add(trade("100", "0.4", "BID"), openOrderIndex.currentSequence());
+
+        // when
+        tradingService.completeOrders(coalescedTrade);
+
+        // then
+        assertThat(describe(captureFills())).containsExactly("1:100:0.3:0.0", "2:100:0.4:0.1");
+    }
+
+    private void saveBidBook() {
+        saveOrder(StubData.MockOrder.getMockEntity(1, "100", "0.3", TransactionType.BID, "KRW-BTC", 1L));
+        saveOrder(StubData.MockOrder.getMockEntity(2, "110", "0.5", TransactionType.BID, "KRW-BTC", 1L));
+        saveOrder(StubData.MockOrder.getMockEntity(3, "95", "0.5", TransactionType.BID, "KRW-BTC", 1L));
+    }
+
+    private List<String> describe(List<Fill> fills) {
+        return fills.stream()
+                .map(fill -> fill.getOrder().getOrderId() + ":" + fill.getPrice() + ":" + fill.getAmount() + ":" + fill.getRemainingAmount())
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Fill> captureAllFills() {
+        ArgumentCaptor<List<Fill>> captor = ArgumentCaptor.forClass(List.class);
+        verify(settlementService, atLeastOnce()).settle(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Fill> captureFills() {
+        ArgumentCaptor<List<Fill>> captor = ArgumentCaptor.forClass(List.class);
+        verify(settlementService).settle(captor.capture());
+        return captor.getValue();
+    }
+
+    private void saveOrder(Order order) {
+        openOrderIndex.add(order);
+        given(orderRepository.findById(order.getOrderId())).willReturn(Optional.of(order));
+    }
+
+    private Trade trade(String price, String volume, String orderType) {
+        String json = "{\"code\":\"KRW-BTC\",\"trade_price\":\"" + price + "\",\"trade_volume\":\"" + volume
+                + "\",\"ask_bid\":\"" + orderType + "\"}";
+        return jsonUtil.fromJson(json, Trade.class);
+    }
+}
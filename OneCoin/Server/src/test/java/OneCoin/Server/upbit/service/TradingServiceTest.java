@@ -3,8 +3,9 @@ package OneCoin.Server.upbit.service;
 import OneCoin.Server.helper.StubData;
 import OneCoin.Server.order.entity.Order;
 import OneCoin.Server.order.entity.enums.TransactionType;
+import OneCoin.Server.order.repository.OpenOrderIndex;
 import OneCoin.Server.order.repository.OrderRepository;
-import OneCoin.Server.order.service.WalletService;
+import OneCoin.Server.order.service.SettlementService;
 import OneCoin.Server.upbit.entity.Trade;
 import OneCoin.Server.utils.JsonUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -28,7 +29,7 @@ public class TradingServiceTest {
     private JsonUtil jsonUtil;
 
     @MockBean
-    private WalletService walletService;
+    private SettlementService settlementService;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -38,6 +39,9 @@ public class TradingServiceTest {
 
     @SpyBean
     private OrderRepository orderRepository;
+
+    @Autowired
+    private OpenOrderIndex openOrderIndex;
     private Trade trade;
 
     @BeforeEach
@@ -48,18 +52,18 @@ public class TradingServiceTest {
 
         Order order = StubData.MockOrder.getMockEntity();
         orderRepository.save(order);
+        openOrderIndex.add(order);
     }
 
     @Test
-    @DisplayName("OrderRepository의 메서드를 실행한다.")
+    @DisplayName("체결 가격에 체결될 수 있는 주문만 조회해 체결한다.")
     void invokeTest() {
-        // given
-        doNothing().when(walletService).updateWalletByBid(any(), any(), any());
-
         // when
         tradingService.completeOrders(trade);
 
         // then
-        verify(orderRepository, times(1)).findAllByOrderTypeAndCode(TransactionType.BID, trade.getCode());
+        verify(orderRepository, never()).findAllByOrderTypeAndCode(TransactionType.BID, trade.getCode());
+        verify(orderRepository, times(1)).findById(1L);
+        verify(settlementService, times(1)).settle(anyList());
     }
 }
@@ -6,8 +6,6 @@ import OneCoin.Server.upbit.dto.ticker.TickerDto;
 import OneCoin.Server.upbit.entity.Trade;
 import OneCoin.Server.upbit.repository.OrderBookRepository;
 import OneCoin.Server.upbit.repository.TickerRepository;
-import OneCoin.Server.utils.JsonUtil;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.OkHttpClient;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +16,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.event.ApplicationEvents;
 import org.springframework.test.context.event.RecordApplicationEvents;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,9 +28,6 @@ public class UpbitHandlingServiceTest {
     @Autowired
     private UpbitHandlingService upbitHandlingService;
 
-    @Autowired
-    private JsonUtil jsonUtil;
-
     @Autowired
     private ApplicationEvents events;
 
@@ -48,11 +44,10 @@ public class UpbitHandlingServiceTest {
     @DisplayName("Ticker 정보를 받으면 entity를 저장한다.")
     void saveTickerTest() {
         // given
-        String jsonTicker = StubData.MockUpbitAPI.getJsonTicker();
-        JsonNode jsonNode = jsonUtil.fromJson(jsonTicker, JsonNode.class);
+        byte[] jsonTicker = StubData.MockUpbitAPI.getJsonTicker().getBytes(StandardCharsets.UTF_8);
 
         // when
-        upbitHandlingService.parsing(jsonNode);
+        upbitHandlingService.parsing(jsonTicker);
 
         // then
         List<TickerDto> tickers = List.of(objectMapper.convertValue(tickerRepository.findTickers(), TickerDto[].class));
@@ -64,13 +59,12 @@ public class UpbitHandlingServiceTest {
     @DisplayName("OrderBook 정보를 받으면 entity를 저장한다.")
     void saveOrderBookTest() {
         // given
-        String jsonOrderBook = StubData.MockUpbitAPI.getJsonOrderBook();
-        JsonNode jsonNode = jsonUtil.fromJson(jsonOrderBook, JsonNode.class);
-        JsonNode jsonNodeTicker = jsonUtil.fromJson(StubData.MockUpbitAPI.getJsonTicker(), JsonNode.class);
+        byte[] jsonOrderBook = StubData.MockUpbitAPI.getJsonOrderBook().getBytes(StandardCharsets.UTF_8);
+        byte[] jsonTicker = StubData.MockUpbitAPI.getJsonTicker().getBytes(StandardCharsets.UTF_8);
 
         // when
-        upbitHandlingService.parsing(jsonNodeTicker); // prevClosingPrice 때문에 실행
-        upbitHandlingService.parsing(jsonNode);
+        upbitHandlingService.parsing(jsonTicker); // prevClosingPrice 때문에 실행
+        upbitHandlingService.parsing(jsonOrderBook);
 
         // then
         List<OrderBookDto> tickers = List.of(objectMapper.convertValue(orderBookRepository.findOrderBooks(), OrderBookDto[].class));
@@ -82,11 +76,10 @@ public class UpbitHandlingServiceTest {
     @DisplayName("Trade 정보를 받으면 이벤트가 발행된다.")
     void publishEventTest() {
         // given
-        String trade = StubData.MockUpbitAPI.getJsonTicker();
-        JsonNode jsonNode = jsonUtil.fromJson(trade, JsonNode.class);
+        byte[] trade = StubData.MockUpbitAPI.getJsonTrade().getBytes(StandardCharsets.UTF_8);
 
         // when
-        upbitHandlingService.parsing(jsonNode);
+        upbitHandlingService.parsing(trade);
 
         // then
         int count = (int) events.stream(Trade.class).count();
@@ -0,0 +1,93 @@
+package OneCoin.Server.upbit.websocket.decoder;
+
+import OneCoin.Server.config.AppConfig;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.OrderBook;
+import OneCoin.Server.upbit.entity.Trade;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UpbitMessageDecoderTest {
+    private final UpbitMessageDecoder decoder = new UpbitMessageDecoder(new AppConfig().objectMapper());
+
+    @Test
+    @DisplayName("type이 ticker이면 TickerDto로 변환한다.")
+    void decodeTickerTest() {
+        // given
+        byte[] payload = StubData.MockUpbitAPI.getJsonTicker().getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Object message = decoder.decode(payload);
+
+        // then
+        assertThat(message).isInstanceOf(TickerDto.class);
+        TickerDto tickerDto = (TickerDto) message;
+        assertThat(tickerDto.getCode()).isEqualTo("KRW-BTC");
+        assertThat(tickerDto.getTradePrice()).isEqualTo("22525000");
+        assertThat(tickerDto.getTimeStamp()).isEqualTo("1669706182202");
+    }
+
+    @Test
+    @DisplayName("type이 trade이면 Trade로 변환한다.")
+    void decodeTradeTest() {
+        // given
+        byte[] payload = StubData.MockUpbitAPI.getJsonTrade().getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Object message = decoder.decode(payload);
+
+        // then
+        assertThat(message).isInstanceOf(Trade.class);
+        Trade trade = (Trade) message;
+        assertThat(trade.getTradeVolume()).isEqualTo("5");
+        assertThat(trade.getOrderType()).isEqualTo("ASK");
+    }
+
+    @Test
+    @DisplayName("type이 orderbook이면 호가 목록까지 한 번에 변환한다.")
+    void decodeOrderBookTest() {
+        // given
+        byte[] payload = StubData.MockUpbitAPI.getJsonOrderBook().getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Object message = decoder.decode(payload);
+
+        // then
+        assertThat(message).isInstanceOf(OrderBook.class);
+        OrderBook orderBook = (OrderBook) message;
+        assertThat(orderBook.getTotalAskSize()).isEqualTo("5.365745690000001");
+        assertThat(orderBook.getOrderBookUnits().length).isEqualTo(15);
+        assertThat(orderBook.getOrderBookUnits()[0].getAskPrice()).isEqualTo("2.2525E7");
+    }
+
+    @Test
+    @DisplayName("type 필드가 중간에 있어도 앞선 필드를 잃지 않는다.")
+    void decodeTypeNotFirstTest() {
+        // given
+        String json = "{\"code\":\"KRW-ETH\",\"trade_price\":1600000,\"type\":\"trade\",\"trade_volume\":0.5,\"ask_bid\":\"BID\"}";
+
+        // when
+        Object message = decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        // then
+        Trade trade = (Trade) message;
+        assertThat(trade.getCode()).isEqualTo("KRW-ETH");
+        assertThat(trade.getTradePrice()).isEqualTo("1600000");
+        assertThat(trade.getTradeVolume()).isEqualTo("0.5");
+    }
+
+    @Test
+    @DisplayName("알 수 없는 type이면 null을 리턴한다.")
+    void decodeUnknownTypeTest() {
+        // given
+        String json = "{\"type\":\"status\",\"code\":\"KRW-BTC\"}";
+
+        // when, then
+        assertThat(decoder.decode(json.getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+}
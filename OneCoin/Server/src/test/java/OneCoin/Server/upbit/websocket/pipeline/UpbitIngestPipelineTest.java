@@ -0,0 +1,119 @@
+package OneCoin.Server.upbit.websocket.pipeline;
+
+import OneCoin.Server.config.AppConfig;
+import OneCoin.Server.helper.StubData;
+import OneCoin.Server.upbit.dto.ticker.TickerDto;
+import OneCoin.Server.upbit.entity.Trade;
+import OneCoin.Server.upbit.service.UpbitHandlingService;
+import OneCoin.Server.upbit.websocket.decoder.UpbitMessageDecoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class UpbitIngestPipelineTest {
+    private final UpbitMessageDecoder decoder = new UpbitMessageDecoder(new AppConfig().objectMapper());
+    private UpbitHandlingService upbitHandlingService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        upbitHandlingService = mock(UpbitHandlingService.class);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("같은 코드의 ticker는 마지막 값 하나만 처리된다.")
+    void coalesceTickerTest() {
+        // given
+        UpbitIngestPipeline pipeline = new UpbitIngestPipeline(decoder, upbitHandlingService, meterRegistry, 16);
+        pipeline.offer(ticker("1000"));
+        pipeline.offer(ticker("2000"));
+        pipeline.offer(ticker("3000"));
+
+        // when
+        pipeline.drain();
+
+        // then
+        ArgumentCaptor<TickerDto> captor = ArgumentCaptor.forClass(TickerDto.class);
+        verify(upbitHandlingService, times(1)).handleTicker(captor.capture());
+        assertThat(captor.getValue().getTradePrice()).isEqualTo("3000");
+        assertThat(meterRegistry.counter("upbit.ingest.coalesced", "type", "ticker").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("체결은 합치지 않고 모두 처리된다.")
+    void tradeNotCoalescedTest() {
+        // given
+        UpbitIngestPipeline pipeline = new UpbitIngestPipeline(decoder, upbitHandlingService, meterRegistry, 16);
+        byte[] trade = StubData.MockUpbitAPI.getJsonTrade().getBytes(StandardCharsets.UTF_8);
+        pipeline.offer(trade);
+        pipeline.offer(trade);
+
+        // when
+        pipeline.drain();
+
+        // then
+        verify(upbitHandlingService, times(2)).handleTrade(any(Trade.class));
+    }
+
+    @Test
+    @DisplayName("queue가 가득 차면 ticker frame은 버린다.")
+    void dropTickerWhenFullTest() {
+        // given
+        UpbitIngestPipeline pipeline = new UpbitIngestPipeline(decoder, upbitHandlingService, meterRegistry, 1);
+        pipeline.offer(ticker("1000"));
+
+        // when
+        pipeline.offer(ticker("2000"));
+
+        // then
+        assertThat(meterRegistry.counter("upbit.ingest.dropped").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("upbit.ingest.queue.depth").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("체결 queue가 가득 차면 decoder는 버리지 않고 자리가 날 때까지 기다린다.")
+    void blockTradeWhenFullTest() throws InterruptedException {
+        // given
+        UpbitIngestPipeline pipeline = new UpbitIngestPipeline(decoder, upbitHandlingService, meterRegistry, 1);
+        byte[] trade = StubData.MockUpbitAPI.getJsonTrade().getBytes(StandardCharsets.UTF_8);
+        pipeline.dispatch(trade);
+        Thread decoderThread = new Thread(() -> pipeline.dispatch(trade));
+
+        // when
+        decoderThread.start();
+        decoderThread.join(200);
+
+        // then
+        assertThat(decoderThread.isAlive()).isTrue();
+        assertThat(meterRegistry.get("upbit.ingest.trade.pending").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.counter("upbit.ingest.trade.blocked").count()).isEqualTo(1);
+        pipeline.drain();
+        decoderThread.join(5000);
+        pipeline.drain();
+        verify(upbitHandlingService, times(2)).handleTrade(any(Trade.class));
+    }
+
+    @Test
+    @DisplayName("frame 앞부분의 type으로 체결 여부를 판단한다.")
+    void isTradeTest() {
+        assertThat(UpbitIngestPipeline.isTrade("{\"type\":\"trade\",\"code\":\"KRW-BTC\"}".getBytes(StandardCharsets.UTF_8))).isTrue();
+        assertThat(UpbitIngestPipeline.isTrade("{\"type\":\"ticker\",\"code\":\"KRW-BTC\"}".getBytes(StandardCharsets.UTF_8))).isFalse();
+        assertThat(UpbitIngestPipeline.isTrade("{\"code\":\"KRW-BTC\"}".getBytes(StandardCharsets.UTF_8))).isTrue();
+    }
+
+    private byte[] ticker(String tradePrice) {
+        String json = "{\"type\":\"ticker\",\"code\":\"KRW-BTC\",\"trade_price\":" + tradePrice + "}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
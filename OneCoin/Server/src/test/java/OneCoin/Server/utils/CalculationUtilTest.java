@@ -55,6 +55,28 @@ public class CalculationUtilTest {
         assertThat(changeRate).isEqualTo("-1.36%");
     }
 
+    @Test
+    @DisplayName("FixedPoint 가격의 수익률은 문자열 가격으로 계산한 값과 같다.")
+    void calculateChangeRateWithFixedPoint() {
+        String[][] prices = {
+                {"22460000", "22339000"},
+                {"22339000", "22646000"},
+                {"2.2525E7", "20000000"},
+                {"0.0123", "0.0124"},
+                {"100", "100"},
+                {"100.005", "100"},
+                {"99.995", "100"}
+        };
+
+        for (String[] price : prices) {
+            // when
+            String changeRate = calculationUtil.calculateChangeRate(FixedPoint.parse(price[0]), FixedPoint.parse(price[1]));
+
+            // then
+            assertThat(changeRate).isEqualTo(calculationUtil.calculateChangeRate(price[0], price[1]));
+        }
+    }
+
     @Test
     @DisplayName("매도 시 수수료를 제외한 금액 계산")
     void calculateCommissionByAsk() {
@@ -0,0 +1,34 @@
+package OneCoin.Server.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FixedPointTest {
+
+    @Test
+    @DisplayName("일반 표기와 지수 표기를 모두 소수점 8자리 scaled long으로 읽는다.")
+    void parseTest() {
+        assertThat(FixedPoint.parse("22525000")).isEqualTo(2_252_500_000_000_000L);
+        assertThat(FixedPoint.parse("2.2525E7")).isEqualTo(2_252_500_000_000_000L);
+        assertThat(FixedPoint.parse("7.83E-5")).isEqualTo(7_830L);
+        assertThat(FixedPoint.parse("-0.5")).isEqualTo(-50_000_000L);
+        assertThat(FixedPoint.parse("0.0083262456")).isEqualTo(832_625L);
+        assertThat(FixedPoint.parse("5.365745690000001")).isEqualTo(536_574_569L);
+        assertThat(FixedPoint.parse(null)).isZero();
+    }
+
+    @Test
+    @DisplayName("BigDecimal로 바꾸면 원래 값과 크기가 같다.")
+    void toBigDecimalTest() {
+        // when
+        BigDecimal value = FixedPoint.toBigDecimal(FixedPoint.parse("1234.5678"));
+
+        // then
+        assertThat(value).isEqualByComparingTo("1234.5678");
+        assertThat(FixedPoint.toDouble(FixedPoint.parse("1234.5678"))).isEqualTo(1234.5678);
+    }
+}
@@ -0,0 +1,79 @@
+package OneCoin.Server.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimingWheelTest {
+
+    @Test
+    @DisplayName("만료 시각이 지난 tick에서만 만료된다.")
+    void advanceTest() {
+        // given
+        TimingWheel<String> timingWheel = new TimingWheel<>(100, 8, 0);
+        timingWheel.schedule(1L, "a", 250);
+        timingWheel.schedule(2L, "b", 300);
+
+        // when, then
+        assertThat(timingWheel.advance(200)).isEmpty();
+        assertThat(timingWheel.advance(299)).isEmpty();
+        assertThat(timingWheel.advance(300)).containsExactly("a", "b");
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("한 바퀴보다 먼 만료 시각은 해당 바퀴가 돌아올 때 만료된다.")
+    void roundsTest() {
+        // given
+        TimingWheel<String> timingWheel = new TimingWheel<>(100, 8, 0);
+        timingWheel.schedule(1L, "far", 100 + 8 * 100 * 2);
+
+        // when, then
+        assertThat(timingWheel.advance(100 + 8 * 100)).isEmpty();
+        assertThat(timingWheel.advance(100 + 8 * 100 * 2)).containsExactly("far");
+    }
+
+    @Test
+    @DisplayName("취소하거나 다시 등록한 만료는 이전 시각에 만료되지 않는다.")
+    void cancelTest() {
+        // given
+        TimingWheel<String> timingWheel = new TimingWheel<>(100, 8, 0);
+        timingWheel.schedule(1L, "cancelled", 200);
+        timingWheel.schedule(2L, "old", 200);
+        timingWheel.cancel(1L);
+        timingWheel.schedule(2L, "new", 500);
+
+        // when, then
+        assertThat(timingWheel.advance(300)).isEmpty();
+        assertThat(timingWheel.advance(500)).containsExactly("new");
+    }
+
+    @Test
+    @DisplayName("오래 밀린 뒤에도 지난 만료는 모두 한 번씩 만료된다.")
+    void catchUpTest() {
+        // given
+        TimingWheel<Long> timingWheel = new TimingWheel<>(100, 8, 0);
+        for (long id = 1; id <= 100; id++) {
+            timingWheel.schedule(id, id, id * 100);
+        }
+
+        // when
+        int expired = timingWheel.advance(1_000_000).size();
+
+        // then
+        assertThat(expired).isEqualTo(100);
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("이미 지난 만료 시각으로 등록하면 다음 advance에서 바로 만료된다.")
+    void pastDeadlineTest() {
+        // given
+        TimingWheel<String> timingWheel = new TimingWheel<>(100, 8, 1000);
+        timingWheel.schedule(1L, "past", 500);
+
+        // when, then
+        assertThat(timingWheel.advance(1000)).containsExactly("past");
+    }
+}
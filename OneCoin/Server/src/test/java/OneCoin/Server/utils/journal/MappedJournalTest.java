@@ -0,0 +1,62 @@
+package OneCoin.Server.utils.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("segment가 바뀌어도 기록한 순서대로 timestamp와 payload를 읽는다.")
+    void roundTripTest() {
+        // given
+        try (MappedJournal journal = new MappedJournal(directory, 64)) {
+            for (int i = 0; i < 10; i++) {
+                journal.append(1000L + i, ("frame-" + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        List<Long> timestamps = new ArrayList<>();
+        List<String> payloads = new ArrayList<>();
+
+        // when
+        long count = new JournalReader(directory).forEach((timestamp, payload) -> {
+            timestamps.add(timestamp);
+            payloads.add(new String(payload, StandardCharsets.UTF_8));
+        });
+
+        // then
+        assertThat(count).isEqualTo(10);
+        assertThat(JournalReader.segments(directory)).hasSizeGreaterThan(1);
+        assertThat(timestamps.get(0)).isEqualTo(1000L);
+        assertThat(timestamps.get(9)).isEqualTo(1009L);
+        assertThat(payloads.get(9)).isEqualTo("frame-9");
+    }
+
+    @Test
+    @DisplayName("journal을 다시 열면 기존 segment 뒤에 이어서 기록한다.")
+    void reopenTest() {
+        // given
+        try (MappedJournal journal = new MappedJournal(directory, 1024)) {
+            journal.append(1L, new byte[]{1});
+        }
+
+        // when
+        try (MappedJournal journal = new MappedJournal(directory, 1024)) {
+            journal.append(2L, new byte[]{2});
+        }
+
+        // then
+        List<Long> timestamps = new ArrayList<>();
+        new JournalReader(directory).forEach((timestamp, payload) -> timestamps.add(timestamp));
+        assertThat(timestamps).containsExactly(1L, 2L);
+    }
+}